@@ -0,0 +1,131 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.server.ShareItServerApp;
+import ru.practicum.shareit.server.booking.BookingStatus;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.IntFunction;
+
+/**
+ * Контекст сервера на H2 и воспроизводимое наполнение базы для бенчмарков.
+ * <p>
+ * Данные пишутся напрямую через JDBC с явными id, чтобы наполнение миллиона бронирований
+ * не мерило заодно Hibernate. Владельцы — каждый десятый пользователь, вещь {@code i}
+ * принадлежит {@link #ownerOf}; бронирования равномерно распределены по вещам и пользователям
+ * и лежат в пределах года до и после текущего момента, так что у любого состояния есть данные.
+ */
+public final class BenchmarkDatabase {
+    public static final String[] WORDS = {
+        "drill", "saw", "hammer", "ladder", "tent", "bike", "kayak", "camera", "tripod", "projector",
+        "guitar", "amplifier", "mixer", "vacuum", "sander", "grinder", "wrench", "compressor", "heater", "grill"
+    };
+
+    private static final int BATCH_SIZE = 10_000;
+    private static final long SEED = 42;
+
+    private BenchmarkDatabase() {
+    }
+
+    static ConfigurableApplicationContext startServer(String database, String searchEngine) {
+        return serverApplication(database, searchEngine)
+                .web(WebApplicationType.NONE)
+                .run();
+    }
+
+    public static SpringApplicationBuilder serverApplication(String database, String searchEngine) {
+        return new SpringApplicationBuilder(ShareItServerApp.class)
+                .properties(
+                        "spring.config.name=server-benchmark",
+                        "spring.datasource.url=jdbc:h2:mem:" + database
+                                + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+                        "shareit.search.engine=" + searchEngine);
+    }
+
+    public static int owners(int users) {
+        return Math.max(1, users / 10);
+    }
+
+    public static long ownerOf(long itemId, int owners) {
+        return 1 + (itemId - 1) % owners;
+    }
+
+    public static void seedUsers(JdbcTemplate jdbc, int users) {
+        insert(jdbc, "INSERT INTO users (id, name, email) VALUES (?, ?, ?)", users,
+                i -> new Object[]{(long) i, "User " + i, "user" + i + "@shareit.test"});
+    }
+
+    public static void seedItems(JdbcTemplate jdbc, int items, int owners) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        insert(jdbc, "INSERT INTO items (id, name, description, is_available, owner_id) VALUES (?, ?, ?, ?, ?)",
+                items, i -> new Object[]{
+                    (long) i,
+                    word(random) + " " + word(random) + " " + i,
+                    "Good " + word(random) + " for " + word(random) + " and " + word(random),
+                    random.nextInt(10) != 0,
+                    ownerOf(i, owners)
+                });
+    }
+
+    public static void seedBookings(JdbcTemplate jdbc, int bookings, int items, int users) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        LocalDateTime base = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        BookingStatus[] statuses = BookingStatus.values();
+        insert(jdbc, "INSERT INTO booking (id, start_date, end_date, item_id, booker_id, status) "
+                        + "VALUES (?, ?, ?, ?, ?, ?)",
+                bookings, i -> {
+                    LocalDateTime start = base.plusHours(random.nextInt(-365 * 24, 365 * 24));
+                    return new Object[]{
+                        (long) i,
+                        Timestamp.valueOf(start),
+                        Timestamp.valueOf(start.plusDays(1 + random.nextInt(7))),
+                        1L + random.nextInt(items),
+                        1L + random.nextInt(users),
+                        statuses[random.nextInt(statuses.length)].name()
+                    };
+                });
+    }
+
+    public static void seedComments(JdbcTemplate jdbc, int comments, int items, int users) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        Timestamp created = Timestamp.valueOf(LocalDateTime.now().minusDays(30));
+        insert(jdbc, "INSERT INTO comments (id, text, item_id, author_id, created) VALUES (?, ?, ?, ?, ?)",
+                comments, i -> new Object[]{
+                    (long) i,
+                    "The " + word(random) + " works great",
+                    1L + random.nextInt(items),
+                    1L + random.nextInt(users),
+                    created
+                });
+    }
+
+    /**
+     * Переводит последовательность за явно вставленные id, чтобы Hibernate не выдал занятый.
+     */
+    public static void restartSequence(JdbcTemplate jdbc, String sequence, long next) {
+        jdbc.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + next);
+    }
+
+    private static String word(SplittableRandom random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private static void insert(JdbcTemplate jdbc, String sql, int rows, IntFunction<Object[]> row) {
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 1; i <= rows; i++) {
+            batch.add(row.apply(i));
+            if (batch.size() == BATCH_SIZE || i == rows) {
+                jdbc.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+    }
+}
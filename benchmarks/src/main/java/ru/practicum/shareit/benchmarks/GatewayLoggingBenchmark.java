@@ -0,0 +1,139 @@
+package ru.practicum.shareit.benchmarks;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import reactor.core.publisher.Mono;
+import reactor.netty.ByteBufFlux;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerResponse;
+import reactor.netty.resources.ConnectionProvider;
+import ru.practicum.shareit.gateway.ShareItGatewayApp;
+import ru.practicum.shareit.gateway.util.GatewayConstants;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Цена логирования запроса в шлюзе: полный путь через шлюз до заглушки сервера с логированием
+ * до перехода на журнал доступа (строки контроллеров с DTO и DEBUG для org.springframework.web)
+ * и после него (выборочный асинхронный журнал доступа). Выделение памяти на запрос смотреть
+ * в gc.alloc.rate.norm: {@code -Djmh.args="GatewayLoggingBenchmark -prof gc"}.
+ * <p>
+ * Логи пишутся в файлы в target/ (logback-benchmark.xml из gateway-load.properties), а не в консоль форка.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class GatewayLoggingBenchmark {
+    @Param({"before", "after"})
+    private String logging;
+
+    private DisposableServer server;
+    private ConfigurableApplicationContext gateway;
+    private ConnectionProvider connections;
+    private HttpClient http;
+    private String bookingRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        bookingRequest = String.format("{\"itemId\":1,\"start\":\"%s\",\"end\":\"%s\"}", start, start.plusDays(1));
+        byte[] booking = String.format("{\"id\":1,\"start\":\"%s\",\"end\":\"%s\",\"status\":\"WAITING\","
+                        + "\"booker\":{\"id\":2,\"name\":\"Booker\"},\"item\":{\"id\":1,\"name\":\"Drill\"}}",
+                start, start.plusDays(1)).getBytes(StandardCharsets.UTF_8);
+        byte[] search = ("[{\"id\":1,\"name\":\"Drill\",\"description\":\"Cordless drill\",\"available\":true},"
+                + "{\"id\":2,\"name\":\"Hammer drill\",\"description\":\"Heavy\",\"available\":true}]")
+                .getBytes(StandardCharsets.UTF_8);
+
+        server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .route(routes -> routes
+                        .post("/bookings", (request, response) ->
+                                json(response).sendByteArray(Mono.just(booking)))
+                        .get("/items/search", (request, response) ->
+                                json(response).sendByteArray(Mono.just(search))))
+                .bindNow();
+
+        gateway = new SpringApplicationBuilder(ShareItGatewayApp.class)
+                .web(WebApplicationType.REACTIVE)
+                .properties(
+                        "spring.config.name=gateway-load",
+                        "server.port=0",
+                        "shareit-server.url=http://127.0.0.1:" + server.port())
+                .properties("before".equals(logging)
+                        ? new String[]{
+                                "shareit.access-log.enabled=false",
+                                "logging.level.ru.practicum.shareit.gateway=DEBUG",
+                                "logging.level.org.springframework.web=DEBUG",
+                                "logging.level.org.springframework.web.reactive=DEBUG"}
+                        : new String[]{
+                                "shareit.access-log.enabled=true",
+                                "shareit.access-log.sample-rate=0.01"})
+                .run();
+
+        int port = ((WebServerApplicationContext) gateway).getWebServer().getPort();
+        connections = ConnectionProvider.create("logging-benchmark", 16);
+        http = HttpClient.create(connections)
+                .baseUrl("http://127.0.0.1:" + port)
+                .headers(headers -> headers
+                        .set(GatewayConstants.USER_ID_HEADER, 2)
+                        .set(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_JSON));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        connections.dispose();
+        gateway.close();
+        server.disposeNow();
+    }
+
+    @Benchmark
+    public String createBooking() {
+        return http.post()
+                .uri("/bookings")
+                .send(ByteBufFlux.fromString(Mono.just(bookingRequest)))
+                .responseSingle((response, body) -> body.asString())
+                .block();
+    }
+
+    /**
+     * Поиск отвечает из кэша шлюза, поэтому на логирование здесь приходится большая доля запроса.
+     */
+    @Benchmark
+    public String searchItems() {
+        return http.get()
+                .uri("/items/search?text=drill&from=0&size=10")
+                .responseSingle((response, body) -> body.asString())
+                .block();
+    }
+
+    private static HttpServerResponse json(HttpServerResponse response) {
+        return response.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+    }
+}
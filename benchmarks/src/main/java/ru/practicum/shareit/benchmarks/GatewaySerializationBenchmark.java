@@ -0,0 +1,135 @@
+package ru.practicum.shareit.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerResponse;
+import ru.practicum.shareit.gateway.booking.dto.BookingDto;
+import ru.practicum.shareit.gateway.client.ShareItClient;
+import ru.practicum.shareit.gateway.client.ShareItServerProperties;
+import ru.practicum.shareit.gateway.item.dto.CommentDto;
+import ru.practicum.shareit.gateway.item.dto.ItemDto;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сериализация ответов в шлюзе: полный путь через {@link ShareItClient} до заглушки сервера
+ * на локальном Netty и отдельно чистый Jackson, чтобы отделить разбор JSON от сети и пула.
+ * Клиент собран так же, как в шлюзе, — с пулом соединений и защитой от зависшего сервера.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GatewaySerializationBenchmark {
+    private static final ParameterizedTypeReference<List<BookingDto>> BOOKING_LIST =
+            new ParameterizedTypeReference<>() {
+            };
+    private static final TypeReference<List<BookingDto>> BOOKING_LIST_JSON = new TypeReference<>() {
+    };
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private DisposableServer server;
+    private ShareItClient client;
+    private List<BookingDto> bookingPage;
+    private byte[] bookingPageJson;
+    private ItemDto item;
+
+    @Setup(Level.Trial)
+    public void setUp() throws JsonProcessingException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        LocalDateTime now = LocalDateTime.now();
+        bookingPage = new ArrayList<>(pageSize);
+        List<CommentDto> comments = new ArrayList<>(pageSize);
+        for (long i = 1; i <= pageSize; i++) {
+            bookingPage.add(new BookingDto(i, now.plusDays(i), now.plusDays(i + 1), "APPROVED",
+                    new BookingDto.Booker(i, "Booker " + i), new BookingDto.Item(i, "Drill " + i)));
+            comments.add(new CommentDto(i, "Works great " + i, "Author " + i, now.minusDays(i)));
+        }
+        bookingPageJson = objectMapper.writeValueAsBytes(bookingPage);
+        item = new ItemDto(1L, "Drill", "Cordless drill with two batteries", true, null,
+                new ItemDto.BookingShortDto(1L, 2L), new ItemDto.BookingShortDto(3L, 4L), comments);
+        byte[] itemJson = objectMapper.writeValueAsBytes(item);
+
+        server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .route(routes -> routes
+                        .get("/bookings", (request, response) ->
+                                json(response).sendByteArray(Mono.just(bookingPageJson)))
+                        .get("/items/{id}", (request, response) ->
+                                json(response).sendByteArray(Mono.just(itemJson)))
+                        .post("/items", (request, response) ->
+                                json(response).send(request.receive().retain())))
+                .bindNow();
+
+        ShareItServerProperties properties = new ShareItServerProperties();
+        properties.setUrl("http://127.0.0.1:" + server.port());
+        client = new ShareItClient(properties, new SimpleMeterRegistry());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        client.close();
+        server.disposeNow();
+    }
+
+    @Benchmark
+    public List<BookingDto> clientGetBookingPage() {
+        return client.get("/bookings?state=ALL&from=0&size=" + pageSize, BOOKING_LIST, 1L).block();
+    }
+
+    @Benchmark
+    public ItemDto clientGetItem() {
+        return client.get("/items/1", ItemDto.class, 1L).block();
+    }
+
+    @Benchmark
+    public ItemDto clientPostItem() {
+        return client.post("/items", item, ItemDto.class, 1L).block();
+    }
+
+    @Benchmark
+    public byte[] jacksonWriteBookingPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(bookingPage);
+    }
+
+    @Benchmark
+    public List<BookingDto> jacksonReadBookingPage() throws IOException {
+        return objectMapper.readValue(bookingPageJson, BOOKING_LIST_JSON);
+    }
+
+    private static HttpServerResponse json(HttpServerResponse response) {
+        return response.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+    }
+}
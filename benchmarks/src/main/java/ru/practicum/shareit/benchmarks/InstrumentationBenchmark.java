@@ -0,0 +1,156 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.actuate.metrics.data.MetricsRepositoryMethodInvocationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener.RepositoryMethodInvocation;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener.RepositoryMethodInvocationResult;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.server.booking.dto.BookingDto;
+import ru.practicum.shareit.server.booking.repository.BookingRepository;
+import ru.practicum.shareit.server.booking.service.BookingService;
+import ru.practicum.shareit.server.item.dto.ItemDto;
+import ru.practicum.shareit.server.item.service.ItemService;
+import ru.practicum.shareit.server.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Цена таймеров сервисов и репозиториев на горячих путях: одни и те же вызовы
+ * с инструментированием и без него. Разница средних времён не должна превышать 1%.
+ * <p>
+ * Без инструментирования отключаются таймеры {@code @Timed}, запись таймеров репозиториев
+ * и инспектор SQL Hibernate, реестр метрик остаётся. Данных меньше, чем в {@link ServiceBenchmark}, чтобы цена таймера
+ * не терялась на фоне долгих запросов.
+ * <p>
+ * Разброс времени горячих путей на H2 между итерациями — порядка 10%, много больше искомого
+ * процента, поэтому цену таймеров меряют ещё и отдельно: {@code checkCachedUser} — сервисный метод
+ * без обращения к БД (один сервисный таймер), {@code recordRepositoryInvocation} — запись одного
+ * таймера репозитория. Оценка накладных расходов пути: число его таймеров, умноженное на эти цены,
+ * к среднему времени пути без инструментирования. H2 выходит на установившийся режим примерно
+ * за минуту, отсюда долгий прогрев.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 12, time = 10)
+@Measurement(iterations = 10, time = 5)
+@Fork(value = 2, jvmArgsAppend = "-Xmx2g")
+public class InstrumentationBenchmark {
+    private static final int PAGE_SIZE = 20;
+    private static final long CACHED_USER = 1L;
+
+    @Param({"true", "false"})
+    private boolean instrumented;
+
+    @Param({"10000"})
+    private int users;
+
+    @Param({"10000"})
+    private int items;
+
+    @Param({"100000"})
+    private int bookings;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private BookingService bookingService;
+    private UserService userService;
+    private MetricsRepositoryMethodInvocationListener repositoryListener;
+    private RepositoryMethodInvocation repositoryInvocation;
+    private int owners;
+
+    @Setup(Level.Trial)
+    public void setUp() throws NoSuchMethodException {
+        context = BenchmarkDatabase.serverApplication("instrumentation", "like")
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "shareit.metrics.services.enabled=" + instrumented,
+                        "management.metrics.data.repository.autotime.enabled=" + instrumented,
+                        "shareit.sql.stats.enabled=" + instrumented)
+                .run();
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        owners = BenchmarkDatabase.owners(users);
+        BenchmarkDatabase.seedUsers(jdbc, users);
+        BenchmarkDatabase.seedItems(jdbc, items, owners);
+        BenchmarkDatabase.seedBookings(jdbc, bookings, items, users);
+
+        itemService = context.getBean(ItemService.class);
+        bookingService = context.getBean(BookingService.class);
+        userService = context.getBean(UserService.class);
+        userService.getUserById(CACHED_USER);
+
+        repositoryListener = context.getBean(MetricsRepositoryMethodInvocationListener.class);
+        repositoryInvocation = new RepositoryMethodInvocation(BookingRepository.class,
+                BookingRepository.class.getMethod("findPastByBookerId", Long.class, LocalDateTime.class, Pageable.class),
+                new RepositoryMethodInvocationResult() {
+                    @Override
+                    public State getState() {
+                        return State.SUCCESS;
+                    }
+
+                    @Override
+                    public Throwable getError() {
+                        return null;
+                    }
+                },
+                TimeUnit.MICROSECONDS.toNanos(150));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ItemDto getItemById() {
+        return itemService.getItemById(randomItem(), randomUser());
+    }
+
+    @Benchmark
+    public List<ItemDto> getAllItemsByOwner() {
+        return itemService.getAllItemsByOwner(1 + (long) ThreadLocalRandom.current().nextInt(owners), 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<BookingDto> getUserPastBookings() {
+        return bookingService.getUserBookings(randomUser(), "PAST", 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void checkCachedUser() {
+        userService.checkUserExists(CACHED_USER);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void recordRepositoryInvocation() {
+        repositoryListener.afterInvocation(repositoryInvocation);
+    }
+
+    private long randomUser() {
+        return 1 + ThreadLocalRandom.current().nextInt(users);
+    }
+
+    private long randomItem() {
+        return 1 + ThreadLocalRandom.current().nextInt(items);
+    }
+}
@@ -0,0 +1,130 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.server.booking.Booking;
+import ru.practicum.shareit.server.booking.BookingStatus;
+import ru.practicum.shareit.server.booking.dto.BookingDto;
+import ru.practicum.shareit.server.booking.mapper.BookingMapper;
+import ru.practicum.shareit.server.item.dto.CommentDto;
+import ru.practicum.shareit.server.item.dto.ItemDto;
+import ru.practicum.shareit.server.item.mapper.CommentMapper;
+import ru.practicum.shareit.server.item.mapper.ItemMapper;
+import ru.practicum.shareit.server.item.model.Comment;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.request.dto.ItemRequestDto;
+import ru.practicum.shareit.server.request.mapper.ItemRequestMapper;
+import ru.practicum.shareit.server.request.model.ItemRequest;
+import ru.practicum.shareit.server.user.User;
+import ru.practicum.shareit.server.user.dto.UserDto;
+import ru.practicum.shareit.server.user.mapper.UserMapper;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Статические мапперы сервера: сущность → DTO без обращения к БД.
+ * Списочные варианты повторяют то, что сервис делает со страницей результатов.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+    @Param({"20"})
+    private int pageSize;
+
+    private User user;
+    private Item item;
+    private Booking booking;
+    private Comment comment;
+    private ItemRequest itemRequest;
+    private List<Item> requestItems;
+    private List<Booking> bookingPage;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        user = new User(1L, "Booker", "booker@email.com");
+        User owner = new User(2L, "Owner", "owner@email.com");
+        itemRequest = new ItemRequest();
+        itemRequest.setId(1L);
+        itemRequest.setDescription("Need a cordless drill");
+        itemRequest.setRequestor(user);
+        itemRequest.setCreated(now);
+        item = item(1L, owner, itemRequest);
+        booking = new Booking(1L, now.plusDays(1), now.plusDays(2), item, user, BookingStatus.APPROVED);
+        comment = new Comment(1L, "Works great", item, user, now);
+
+        requestItems = new ArrayList<>(pageSize);
+        bookingPage = new ArrayList<>(pageSize);
+        for (long i = 1; i <= pageSize; i++) {
+            Item pageItem = item(i, owner, itemRequest);
+            requestItems.add(pageItem);
+            bookingPage.add(new Booking(i, now.plusDays(i), now.plusDays(i + 1), pageItem, user,
+                    BookingStatus.WAITING));
+        }
+    }
+
+    @Benchmark
+    public BookingDto toBookingDto() {
+        return BookingMapper.toBookingDto(booking);
+    }
+
+    @Benchmark
+    public ItemDto.BookingShortDto toBookingShortDto() {
+        return BookingMapper.toBookingShortDto(booking);
+    }
+
+    @Benchmark
+    public List<BookingDto> toBookingDtoPage() {
+        return bookingPage.stream()
+                .map(BookingMapper::toBookingDto)
+                .toList();
+    }
+
+    @Benchmark
+    public ItemDto toItemDto() {
+        return ItemMapper.toItemDto(item);
+    }
+
+    @Benchmark
+    public CommentDto toCommentDto() {
+        return CommentMapper.toCommentDto(comment);
+    }
+
+    @Benchmark
+    public UserDto toUserDto() {
+        return UserMapper.toUserDto(user);
+    }
+
+    @Benchmark
+    public ItemRequestDto toItemRequestDto() {
+        return ItemRequestMapper.toItemRequestDto(itemRequest, requestItems);
+    }
+
+    private static Item item(Long id, User owner, ItemRequest request) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName("Drill " + id);
+        item.setDescription("Cordless drill with two batteries");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        item.setRequest(request);
+        item.setRequestId(request.getId());
+        return item;
+    }
+}
@@ -0,0 +1,88 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.server.item.dto.ItemDto;
+import ru.practicum.shareit.server.item.search.InvertedIndexItemSearchEngine;
+import ru.practicum.shareit.server.item.service.ItemService;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поиск вещей через {@code ItemService.searchItems}: LIKE по таблице против инвертированного
+ * индекса в памяти. Движок trigram здесь не участвует — pg_trgm есть только в PostgreSQL.
+ * <p>
+ * Запросы — слово целиком, префикс слова и два слова сразу, как их набирают в строке поиска.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SearchBenchmark {
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"like", "inverted"})
+    private String engine;
+
+    @Param({"100000"})
+    private int items;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkDatabase.startServer("search_" + engine, engine);
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        int owners = BenchmarkDatabase.owners(items);
+        BenchmarkDatabase.seedUsers(jdbc, owners);
+        BenchmarkDatabase.seedItems(jdbc, items, owners);
+        // индекс строится при старте, а данные появились после него
+        context.getBeanProvider(InvertedIndexItemSearchEngine.class)
+                .ifAvailable(InvertedIndexItemSearchEngine::rebuild);
+
+        itemService = context.getBean(ItemService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemDto> searchWord() {
+        return itemService.searchItems(randomWord(), 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<ItemDto> searchPrefix() {
+        String word = randomWord();
+        return itemService.searchItems(word.substring(0, Math.min(3, word.length())), 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<ItemDto> searchTwoWords() {
+        return itemService.searchItems(randomWord() + " " + randomWord(), 0, PAGE_SIZE);
+    }
+
+    private static String randomWord() {
+        return BenchmarkDatabase.WORDS[ThreadLocalRandom.current().nextInt(BenchmarkDatabase.WORDS.length)];
+    }
+}
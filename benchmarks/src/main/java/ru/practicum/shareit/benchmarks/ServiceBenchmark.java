@@ -0,0 +1,125 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.server.booking.dto.BookingCursor;
+import ru.practicum.shareit.server.booking.dto.BookingDto;
+import ru.practicum.shareit.server.booking.dto.BookingPage;
+import ru.practicum.shareit.server.booking.service.BookingService;
+import ru.practicum.shareit.server.item.dto.ItemDto;
+import ru.practicum.shareit.server.item.service.ItemService;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сервисные методы сервера против наполненной H2: по умолчанию 10 тыс. пользователей
+ * и миллион бронирований. Размеры меняются через {@code -p users=... -p bookings=...}.
+ * <p>
+ * Каждый вызов берёт случайного пользователя или вещь, чтобы замер не сводился
+ * к одной и той же строке в кэшах сервера и БД. Поиск вынесен в {@link SearchBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ServiceBenchmark {
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"10000"})
+    private int users;
+
+    @Param({"10000"})
+    private int items;
+
+    @Param({"1000000"})
+    private int bookings;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private BookingService bookingService;
+    private int owners;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkDatabase.startServer("services", "like");
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        owners = BenchmarkDatabase.owners(users);
+        BenchmarkDatabase.seedUsers(jdbc, users);
+        BenchmarkDatabase.seedItems(jdbc, items, owners);
+        BenchmarkDatabase.seedBookings(jdbc, bookings, items, users);
+        BenchmarkDatabase.seedComments(jdbc, items / 5, items, users);
+
+        itemService = context.getBean(ItemService.class);
+        bookingService = context.getBean(BookingService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemDto> getAllItemsByOwner() {
+        return itemService.getAllItemsByOwner(randomOwner(), 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public ItemDto getItemByIdAsOwner() {
+        long itemId = randomItem();
+        return itemService.getItemById(itemId, BenchmarkDatabase.ownerOf(itemId, owners));
+    }
+
+    @Benchmark
+    public ItemDto getItemByIdAsOtherUser() {
+        return itemService.getItemById(randomItem(), randomUser());
+    }
+
+    @Benchmark
+    public List<BookingDto> getUserBookings() {
+        return bookingService.getUserBookings(randomUser(), "ALL", 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<BookingDto> getUserCurrentBookings() {
+        return bookingService.getUserBookings(randomUser(), "CURRENT", 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public BookingPage getUserBookingsPage() {
+        return bookingService.getUserBookingsPage(randomUser(), "ALL", BookingCursor.FIRST, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<BookingDto> getOwnerBookings() {
+        return bookingService.getOwnerBookings(randomOwner(), "ALL", 0, PAGE_SIZE);
+    }
+
+    private long randomUser() {
+        return 1 + ThreadLocalRandom.current().nextInt(users);
+    }
+
+    private long randomOwner() {
+        return 1 + ThreadLocalRandom.current().nextInt(owners);
+    }
+
+    private long randomItem() {
+        return 1 + ThreadLocalRandom.current().nextInt(items);
+    }
+}
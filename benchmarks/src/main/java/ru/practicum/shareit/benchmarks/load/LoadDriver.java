@@ -0,0 +1,131 @@
+package ru.practicum.shareit.benchmarks.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpMethod;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.ByteBufFlux;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import ru.practicum.shareit.gateway.util.GatewayConstants;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Отправляет запросы в шлюз по расписанию, не дожидаясь ответов на предыдущие (open-loop):
+ * если стенд не успевает, запросы копятся в очереди и это видно в задержках.
+ * Одновременно в полёте не больше maxInFlight запросов.
+ */
+final class LoadDriver implements AutoCloseable {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String CREATE_BOOKING = "POST /bookings";
+
+    private final ConnectionProvider connections;
+    private final HttpClient http;
+    private final int maxInFlight;
+
+    LoadDriver(String baseUrl, int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+        this.connections = ConnectionProvider.builder("load")
+                .maxConnections(maxInFlight)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        this.http = HttpClient.create(connections).baseUrl(baseUrl);
+    }
+
+    /**
+     * Синтетическая нагрузка с постоянной частотой rate запросов в секунду.
+     *
+     * @param log куда записывать отправленные запросы или null
+     */
+    void runSynthetic(Workload workload, int rate, Duration duration, LoadReport report, RequestLog log) {
+        long period = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        Flux<Scheduled> schedule = Flux.interval(Duration.ZERO, Duration.ofNanos(period))
+                .take(duration.toNanos() / period)
+                .map(tick -> {
+                    long offset = tick * period;
+                    LoadRequest request = workload.next(TimeUnit.NANOSECONDS.toMillis(offset));
+                    if (log != null) {
+                        log.append(request);
+                    }
+                    return new Scheduled(request, start + offset);
+                });
+        drive(schedule, report, workload);
+    }
+
+    /**
+     * Воспроизводит журнал с исходными смещениями, ускоренными в speed раз. Бронирования,
+     * созданные при воспроизведении, получают id в том же порядке, что и при записи, если
+     * стенд наполнен с теми же параметрами.
+     */
+    void replay(List<LoadRequest> requests, double speed, LoadReport report) {
+        long start = System.nanoTime();
+        Flux<Scheduled> schedule = Flux.fromIterable(requests)
+                .concatMap(request -> {
+                    long intended = start + (long) (TimeUnit.MILLISECONDS.toNanos(request.at()) / speed);
+                    long wait = intended - System.nanoTime();
+                    Mono<Scheduled> scheduled = Mono.just(new Scheduled(request, intended));
+                    return wait > 0 ? scheduled.delayElement(Duration.ofNanos(wait)) : scheduled;
+                });
+        drive(schedule, report, null);
+    }
+
+    @Override
+    public void close() {
+        connections.dispose();
+    }
+
+    private void drive(Flux<Scheduled> schedule, LoadReport report, Workload workload) {
+        schedule.onBackpressureBuffer()
+                .flatMap(scheduled -> send(scheduled, report, workload), maxInFlight)
+                .blockLast();
+    }
+
+    private Mono<Void> send(Scheduled scheduled, LoadReport report, Workload workload) {
+        LoadRequest request = scheduled.request();
+        HttpClient.RequestSender sender = http
+                .headers(headers -> headers
+                        .set(GatewayConstants.USER_ID_HEADER, request.userId())
+                        .set(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_JSON))
+                .request(HttpMethod.valueOf(request.method()))
+                .uri(request.path());
+        HttpClient.ResponseReceiver<?> receiver = request.body() == null
+                ? sender
+                : sender.send(ByteBufFlux.fromString(Mono.just(request.body().toString())));
+
+        return receiver.responseSingle((response, content) -> content.asString()
+                        .defaultIfEmpty("")
+                        .map(body -> new Response(response.status().code(), body)))
+                .onErrorResume(error -> Mono.just(new Response(0, "")))
+                .doOnNext(response -> {
+                    String endpoint = request.endpoint();
+                    report.record(endpoint, response.status(), System.nanoTime() - scheduled.intendedNanos());
+                    if (workload != null && response.status() == 200 && CREATE_BOOKING.equals(endpoint)) {
+                        bookingCreated(workload, response.body());
+                    }
+                })
+                .then();
+    }
+
+    private static void bookingCreated(Workload workload, String body) {
+        try {
+            JsonNode booking = MAPPER.readTree(body);
+            workload.bookingCreated(booking.path("id").asLong(), booking.path("item").path("id").asLong());
+        } catch (IOException e) {
+            // ответ не разобрался — это бронирование просто не попадёт в подтверждения
+        }
+    }
+
+    private record Scheduled(LoadRequest request, long intendedNanos) {
+    }
+
+    private record Response(int status, String body) {
+    }
+}
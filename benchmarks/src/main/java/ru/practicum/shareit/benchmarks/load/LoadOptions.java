@@ -0,0 +1,72 @@
+package ru.practicum.shareit.benchmarks.load;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Параметры прогона из аргументов вида {@code --name=value}.
+ *
+ * @param rate       запросов в секунду; расписание не ждёт ответов, так что очередь
+ *                   при перегрузке видна в задержках
+ * @param mix        веса операций, например {@code view:60,search:20,book:15,approve:5}
+ * @param zipf       показатель распределения популярности вещей
+ * @param recordTo   куда записать журнал синтетических запросов
+ * @param replayFrom журнал для воспроизведения вместо синтетической нагрузки
+ * @param speed      ускорение воспроизведения журнала
+ */
+record LoadOptions(int users, int items, int bookings, String engine, int rate, Duration warmup,
+                   Duration duration, int maxInFlight, String mix, double zipf, Path recordTo, Path replayFrom,
+                   double speed, Path reportDir, long seed) {
+    static final String USAGE = """
+            Options (--name=value):
+              users=10000 items=10000 bookings=100000   seeded data
+              engine=like                               like | inverted
+              rate=200 warmup=10s duration=60s          open-loop requests per second
+              max-in-flight=256                         concurrent requests to the gateway
+              mix=view:60,search:20,book:15,approve:5   operation weights
+              zipf=1.0                                  item popularity exponent
+              record=<file.jsonl>                       write generated requests
+              replay=<file.jsonl> speed=1.0             replay a request log instead
+              report-dir=target/load                    HdrHistogram percentile files
+              seed=42""";
+
+    private static final Set<String> NAMES = Set.of("users", "items", "bookings", "engine", "rate", "warmup",
+            "duration", "max-in-flight", "mix", "zipf", "record", "replay", "speed", "report-dir", "seed");
+
+    static LoadOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0 || !NAMES.contains(arg.substring(2, separator))) {
+                throw new IllegalArgumentException("Unknown option: " + arg + "\n" + USAGE);
+            }
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        return new LoadOptions(
+                Integer.parseInt(values.getOrDefault("users", "10000")),
+                Integer.parseInt(values.getOrDefault("items", "10000")),
+                Integer.parseInt(values.getOrDefault("bookings", "100000")),
+                values.getOrDefault("engine", "like"),
+                Integer.parseInt(values.getOrDefault("rate", "200")),
+                DurationStyle.detectAndParse(values.getOrDefault("warmup", "10s")),
+                DurationStyle.detectAndParse(values.getOrDefault("duration", "60s")),
+                Integer.parseInt(values.getOrDefault("max-in-flight", "256")),
+                values.getOrDefault("mix", "view:60,search:20,book:15,approve:5"),
+                Double.parseDouble(values.getOrDefault("zipf", "1.0")),
+                path(values.get("record")),
+                path(values.get("replay")),
+                Double.parseDouble(values.getOrDefault("speed", "1.0")),
+                Path.of(values.getOrDefault("report-dir", "target/load")),
+                Long.parseLong(values.getOrDefault("seed", "42")));
+    }
+
+    private static Path path(String value) {
+        return value == null || value.isBlank() ? null : Path.of(value);
+    }
+}
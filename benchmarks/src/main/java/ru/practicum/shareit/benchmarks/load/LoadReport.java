@@ -0,0 +1,81 @@
+package ru.practicum.shareit.benchmarks.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Задержки и коды ответов по эндпоинтам. Задержка считается от запланированного момента
+ * отправки, а не от фактического, поэтому время в очереди перегруженного стенда попадает
+ * в перцентили, а не теряется.
+ */
+final class LoadReport {
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final ConcurrentMap<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+
+    /**
+     * @param status код ответа или 0, если ответа не было
+     */
+    void record(String endpoint, int status, long latencyNanos) {
+        EndpointStats stats = endpoints.computeIfAbsent(endpoint, name -> new EndpointStats());
+        stats.latency.recordValue(Math.max(latencyNanos, 1));
+        stats.statuses.computeIfAbsent(status, code -> new LongAdder()).increment();
+    }
+
+    void print(PrintStream out, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        out.printf("%-26s %9s %9s %9s %9s %9s %9s %9s  %s%n",
+                "endpoint", "count", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "statuses");
+        Histogram total = new Histogram(3);
+        for (Map.Entry<String, EndpointStats> entry : new TreeMap<>(endpoints).entrySet()) {
+            Histogram latency = entry.getValue().latency.copy();
+            total.add(latency);
+            printRow(out, entry.getKey(), latency, seconds, new TreeMap<>(entry.getValue().statuses).toString());
+        }
+        printRow(out, "total", total, seconds, "");
+    }
+
+    /**
+     * Полные распределения для HdrHistogram Plotter, по файлу .hgrm на эндпоинт.
+     */
+    void writeDistributions(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (Map.Entry<String, EndpointStats> entry : endpoints.entrySet()) {
+            String fileName = entry.getKey().replaceAll("[^A-Za-z0-9]+", "_").replaceAll("_$", "") + ".hgrm";
+            try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(fileName)), false,
+                    StandardCharsets.UTF_8)) {
+                entry.getValue().latency.copy().outputPercentileDistribution(out, NANOS_PER_MILLI);
+            }
+        }
+    }
+
+    private static void printRow(PrintStream out, String name, Histogram latency, double seconds, String statuses) {
+        out.printf("%-26s %9d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f  %s%n",
+                name,
+                latency.getTotalCount(),
+                latency.getTotalCount() / seconds,
+                latency.getValueAtPercentile(50) / NANOS_PER_MILLI,
+                latency.getValueAtPercentile(90) / NANOS_PER_MILLI,
+                latency.getValueAtPercentile(99) / NANOS_PER_MILLI,
+                latency.getValueAtPercentile(99.9) / NANOS_PER_MILLI,
+                latency.getMaxValue() / NANOS_PER_MILLI,
+                statuses);
+    }
+
+    private static final class EndpointStats {
+        private final ConcurrentHistogram latency = new ConcurrentHistogram(3);
+        private final ConcurrentMap<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    }
+}
@@ -0,0 +1,30 @@
+package ru.practicum.shareit.benchmarks.load;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.regex.Pattern;
+
+/**
+ * Один запрос к шлюзу в том виде, в каком он пишется в журнал и читается из него:
+ * одна JSON-строка на запрос.
+ *
+ * @param at     смещение от начала прогона, мс
+ * @param userId значение X-Sharer-User-Id
+ * @param body   тело запроса или null
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+record LoadRequest(long at, String method, String path, long userId, JsonNode body) {
+    private static final Pattern ID_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+
+    /**
+     * Шаблон пути без query и с {id} вместо чисел — по нему группируется статистика.
+     */
+    @JsonIgnore
+    String endpoint() {
+        int query = path.indexOf('?');
+        String route = query < 0 ? path : path.substring(0, query);
+        return method + " " + ID_SEGMENT.matcher(route).replaceAll("/{id}");
+    }
+}
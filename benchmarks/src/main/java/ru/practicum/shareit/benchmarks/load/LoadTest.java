@@ -0,0 +1,50 @@
+package ru.practicum.shareit.benchmarks.load;
+
+import java.io.IOException;
+
+/**
+ * Нагрузочный прогон шлюза и сервера в одной JVM без сети и внешней БД:
+ * {@code mvn -pl benchmarks exec:java@load -Dload.args="--rate=500 --duration=2m"}.
+ * <p>
+ * Синтетическая нагрузка сначала прогревает стенд (результаты прогрева отбрасываются),
+ * затем меряется; с {@code --record} отправленные запросы пишутся в журнал JSON Lines,
+ * с {@code --replay} вместо синтетики воспроизводится такой журнал.
+ * Итоги печатаются таблицей, полные распределения задержек пишутся в {@code --report-dir}.
+ */
+public final class LoadTest {
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        LoadOptions options = LoadOptions.parse(args);
+        System.out.printf("Starting server and gateway with %d users, %d items, %d bookings%n",
+                options.users(), options.items(), options.bookings());
+
+        try (ShareItStack stack = ShareItStack.start(options);
+             LoadDriver driver = new LoadDriver(stack.gatewayUrl(), options.maxInFlight())) {
+            LoadReport report = new LoadReport();
+            long start;
+            if (options.replayFrom() != null) {
+                System.out.printf("Replaying %s at %.1fx%n", options.replayFrom(), options.speed());
+                start = System.nanoTime();
+                driver.replay(RequestLog.read(options.replayFrom()), options.speed(), report);
+            } else {
+                Workload workload = new Workload(options);
+                if (!options.warmup().isZero()) {
+                    System.out.printf("Warming up for %s at %d req/s%n", options.warmup(), options.rate());
+                    driver.runSynthetic(workload, options.rate(), options.warmup(), new LoadReport(), null);
+                }
+                System.out.printf("Measuring for %s at %d req/s, mix %s%n",
+                        options.duration(), options.rate(), options.mix());
+                start = System.nanoTime();
+                try (RequestLog log = options.recordTo() == null ? null : RequestLog.create(options.recordTo())) {
+                    driver.runSynthetic(workload, options.rate(), options.duration(), report, log);
+                }
+            }
+
+            report.print(System.out, System.nanoTime() - start);
+            report.writeDistributions(options.reportDir());
+            System.out.printf("Latency distributions written to %s%n", options.reportDir().toAbsolutePath());
+        }
+    }
+}
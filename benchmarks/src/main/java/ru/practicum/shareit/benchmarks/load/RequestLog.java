@@ -0,0 +1,69 @@
+package ru.practicum.shareit.benchmarks.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Журнал запросов в формате JSON Lines: записывается во время синтетического прогона
+ * и воспроизводится потом с теми же смещениями по времени.
+ */
+final class RequestLog implements Closeable {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final BufferedWriter writer;
+
+    private RequestLog(BufferedWriter writer) {
+        this.writer = writer;
+    }
+
+    static RequestLog create(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        return new RequestLog(Files.newBufferedWriter(path, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return запросы журнала по возрастанию смещения
+     */
+    static List<LoadRequest> read(Path path) throws IOException {
+        try (var lines = Files.lines(path, StandardCharsets.UTF_8)) {
+            return lines.filter(line -> !line.isBlank())
+                    .map(RequestLog::parse)
+                    .sorted(Comparator.comparingLong(LoadRequest::at))
+                    .toList();
+        }
+    }
+
+    synchronized void append(LoadRequest request) {
+        try {
+            writer.write(MAPPER.writeValueAsString(request));
+            writer.newLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        writer.close();
+    }
+
+    private static LoadRequest parse(String line) {
+        try {
+            return MAPPER.readValue(line, LoadRequest.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Invalid request log line: " + line, e);
+        }
+    }
+}
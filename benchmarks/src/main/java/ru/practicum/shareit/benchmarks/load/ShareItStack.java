@@ -0,0 +1,68 @@
+package ru.practicum.shareit.benchmarks.load;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.benchmarks.BenchmarkDatabase;
+import ru.practicum.shareit.gateway.ShareItGatewayApp;
+import ru.practicum.shareit.server.item.search.InvertedIndexItemSearchEngine;
+
+/**
+ * Сервер и шлюз в одной JVM на случайных портах; сервер работает на H2 со схемой из schema.sql.
+ * Шлюз ходит на сервер по настоящему HTTP, как в продакшене.
+ */
+final class ShareItStack implements AutoCloseable {
+    private final ConfigurableApplicationContext server;
+    private final ConfigurableApplicationContext gateway;
+
+    private ShareItStack(ConfigurableApplicationContext server, ConfigurableApplicationContext gateway) {
+        this.server = server;
+        this.gateway = gateway;
+    }
+
+    static ShareItStack start(LoadOptions options) {
+        ConfigurableApplicationContext server = BenchmarkDatabase.serverApplication("load", options.engine())
+                .web(WebApplicationType.SERVLET)
+                .properties("server.port=0")
+                .run();
+        seed(server, options);
+
+        ConfigurableApplicationContext gateway = new SpringApplicationBuilder(ShareItGatewayApp.class)
+                .web(WebApplicationType.REACTIVE)
+                .properties(
+                        "spring.config.name=gateway-load",
+                        "server.port=0",
+                        "shareit-server.url=http://127.0.0.1:" + port(server))
+                .run();
+        return new ShareItStack(server, gateway);
+    }
+
+    String gatewayUrl() {
+        return "http://127.0.0.1:" + port(gateway);
+    }
+
+    @Override
+    public void close() {
+        gateway.close();
+        server.close();
+    }
+
+    private static void seed(ConfigurableApplicationContext server, LoadOptions options) {
+        JdbcTemplate jdbc = server.getBean(JdbcTemplate.class);
+        BenchmarkDatabase.seedUsers(jdbc, options.users());
+        BenchmarkDatabase.seedItems(jdbc, options.items(), BenchmarkDatabase.owners(options.users()));
+        BenchmarkDatabase.seedBookings(jdbc, options.bookings(), options.items(), options.users());
+        BenchmarkDatabase.restartSequence(jdbc, "users_seq", options.users() + 1L);
+        BenchmarkDatabase.restartSequence(jdbc, "items_seq", options.items() + 1L);
+        BenchmarkDatabase.restartSequence(jdbc, "booking_seq", options.bookings() + 1L);
+        // индекс строится при старте, а данные появились после него
+        server.getBeanProvider(InvertedIndexItemSearchEngine.class)
+                .ifAvailable(InvertedIndexItemSearchEngine::rebuild);
+    }
+
+    private static int port(ConfigurableApplicationContext context) {
+        return ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+}
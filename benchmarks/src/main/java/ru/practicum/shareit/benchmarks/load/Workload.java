@@ -0,0 +1,129 @@
+package ru.practicum.shareit.benchmarks.load;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import ru.practicum.shareit.benchmarks.BenchmarkDatabase;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Синтетическая нагрузка: просмотр вещи, поиск, бронирование и подтверждение в заданной пропорции.
+ * <p>
+ * Вещи для просмотра и бронирования выбираются по Ципфу: вещь 1 самая популярная.
+ * Подтверждает бронирование владелец вещи; подтверждать можно только уже созданные
+ * бронирования, поэтому при пустой очереди вместо подтверждения уходит просмотр.
+ * Запросы генерирует один поток расписания, поэтому генератор случайных чисел общий.
+ */
+final class Workload {
+    private static final JsonNodeFactory JSON = JsonNodeFactory.instance;
+
+    private final Map<Operation, Integer> weights;
+    private final int totalWeight;
+    private final ZipfDistribution itemPopularity;
+    private final ZipfDistribution wordPopularity;
+    private final SplittableRandom random;
+    private final int users;
+    private final int owners;
+    private final LocalDateTime horizon = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+    private final Queue<PendingApproval> pendingApprovals = new ConcurrentLinkedQueue<>();
+
+    Workload(LoadOptions options) {
+        this.weights = parseMix(options.mix());
+        this.totalWeight = weights.values().stream().mapToInt(Integer::intValue).sum();
+        this.itemPopularity = new ZipfDistribution(options.items(), options.zipf());
+        this.wordPopularity = new ZipfDistribution(BenchmarkDatabase.WORDS.length, options.zipf());
+        this.random = new SplittableRandom(options.seed());
+        this.users = options.users();
+        this.owners = BenchmarkDatabase.owners(options.users());
+    }
+
+    LoadRequest next(long at) {
+        return switch (pickOperation()) {
+            case VIEW -> view(at);
+            case SEARCH -> new LoadRequest(at, "GET",
+                    "/items/search?text=" + BenchmarkDatabase.WORDS[wordPopularity.sample(random) - 1]
+                            + "&from=0&size=20", randomUser(), null);
+            case BOOK -> book(at);
+            case APPROVE -> {
+                PendingApproval pending = pendingApprovals.poll();
+                yield pending == null
+                        ? view(at)
+                        : new LoadRequest(at, "PATCH", "/bookings/" + pending.bookingId() + "?approved=true",
+                                pending.ownerId(), null);
+            }
+        };
+    }
+
+    /**
+     * Вызывается после успешного создания бронирования, чтобы его можно было подтвердить.
+     */
+    void bookingCreated(long bookingId, long itemId) {
+        pendingApprovals.add(new PendingApproval(bookingId, BenchmarkDatabase.ownerOf(itemId, owners)));
+    }
+
+    private LoadRequest view(long at) {
+        return new LoadRequest(at, "GET", "/items/" + itemPopularity.sample(random), randomUser(), null);
+    }
+
+    private LoadRequest book(long at) {
+        int itemId = itemPopularity.sample(random);
+        long bookerId = randomUser();
+        if (bookerId == BenchmarkDatabase.ownerOf(itemId, owners)) {
+            bookerId = bookerId % users + 1;
+        }
+        // окна разбросаны на три года вперёд, чтобы пересечения на популярных вещах были, но не у всех
+        LocalDateTime start = horizon.plusHours(random.nextInt(3 * 365 * 24));
+        ObjectNode body = JSON.objectNode()
+                .put("itemId", itemId)
+                .put("start", start.toString())
+                .put("end", start.plusHours(1 + random.nextInt(72)).toString());
+        return new LoadRequest(at, "POST", "/bookings", bookerId, body);
+    }
+
+    private long randomUser() {
+        return 1 + random.nextInt(users);
+    }
+
+    private Operation pickOperation() {
+        int point = random.nextInt(totalWeight);
+        for (Map.Entry<Operation, Integer> weight : weights.entrySet()) {
+            point -= weight.getValue();
+            if (point < 0) {
+                return weight.getKey();
+            }
+        }
+        throw new IllegalStateException("Empty operation mix");
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split(":");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry: " + part);
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight in mix: " + part);
+            }
+            weights.put(Operation.valueOf(pair[0].trim().toUpperCase()), weight);
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("Operation mix has no weight: " + mix);
+        }
+        return weights;
+    }
+
+    private enum Operation {
+        VIEW, SEARCH, BOOK, APPROVE
+    }
+
+    private record PendingApproval(long bookingId, long ownerId) {
+    }
+}
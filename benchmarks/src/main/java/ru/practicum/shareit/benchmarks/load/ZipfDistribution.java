@@ -0,0 +1,37 @@
+package ru.practicum.shareit.benchmarks.load;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Распределение Ципфа на рангах 1..n: ранг k выпадает с вероятностью, пропорциональной 1/k^s.
+ * При s = 1 первая сотня из 10 тыс. вещей собирает около половины просмотров, как у
+ * популярных объявлений. Выборка — двоичный поиск по заранее посчитанной функции распределения.
+ */
+final class ZipfDistribution {
+    private final double[] cumulative;
+
+    ZipfDistribution(int n, double exponent) {
+        if (n < 1) {
+            throw new IllegalArgumentException("Zipf size must be positive: " + n);
+        }
+        cumulative = new double[n];
+        double sum = 0;
+        for (int rank = 1; rank <= n; rank++) {
+            sum += 1 / Math.pow(rank, exponent);
+            cumulative[rank - 1] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cumulative[i] /= sum;
+        }
+    }
+
+    /**
+     * @return ранг от 1 до n
+     */
+    int sample(SplittableRandom random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        int rank = index >= 0 ? index : -index - 1;
+        return Math.min(rank, cumulative.length - 1) + 1;
+    }
+}
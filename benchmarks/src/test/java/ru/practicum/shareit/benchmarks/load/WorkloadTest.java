@@ -0,0 +1,81 @@
+package ru.practicum.shareit.benchmarks.load;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WorkloadTest {
+    @Test
+    void next_shouldFollowOperationMix() {
+        Workload workload = new Workload(options("view:3,search:1"));
+
+        Map<String, Long> endpoints = generate(workload, 40_000).stream()
+                .collect(Collectors.groupingBy(LoadRequest::endpoint, Collectors.counting()));
+
+        assertEquals(2, endpoints.size());
+        assertEquals(0.75, endpoints.get("GET /items/{id}") / 40_000.0, 0.02);
+        assertEquals(0.25, endpoints.get("GET /items/search") / 40_000.0, 0.02);
+    }
+
+    @Test
+    void next_shouldApproveCreatedBookingsAsItemOwner() {
+        Workload workload = new Workload(options("approve:1"));
+
+        assertEquals("GET /items/{id}", workload.next(0).endpoint());
+
+        workload.bookingCreated(500, 15);
+        LoadRequest approval = workload.next(1);
+        assertEquals("PATCH /bookings/500?approved=true", approval.method() + " " + approval.path());
+        assertEquals(5, approval.userId());
+    }
+
+    @Test
+    void next_shouldNotBookOwnItems() {
+        Workload workload = new Workload(options("book:1"));
+
+        for (LoadRequest booking : generate(workload, 1_000)) {
+            long itemId = booking.body().path("itemId").asLong();
+            assertNotEquals(1 + (itemId - 1) % 10, booking.userId());
+            assertTrue(booking.body().path("start").asText().compareTo(booking.body().path("end").asText()) < 0);
+        }
+    }
+
+    @Test
+    void constructor_shouldRejectUnknownOperation() {
+        assertThrows(IllegalArgumentException.class, () -> new Workload(options("view:1,delete:1")));
+    }
+
+    @Test
+    void requestLog_shouldReplayWhatWasRecorded() throws Exception {
+        Path file = Files.createTempFile("requests", ".jsonl");
+        List<LoadRequest> recorded = generate(new Workload(options("view:1,search:1,book:1")), 50);
+        try (RequestLog log = RequestLog.create(file)) {
+            recorded.forEach(log::append);
+        }
+
+        assertEquals(recorded, RequestLog.read(file));
+        Files.delete(file);
+    }
+
+    private static List<LoadRequest> generate(Workload workload, int count) {
+        List<LoadRequest> requests = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            requests.add(workload.next(i));
+        }
+        return requests;
+    }
+
+    private static LoadOptions options(String mix) {
+        return LoadOptions.parse(new String[]{"--users=100", "--items=1000", "--mix=" + mix});
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.benchmarks.load;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ZipfDistributionTest {
+    private static final int SAMPLES = 100_000;
+
+    @Test
+    void sample_shouldFavourLowRanks() {
+        ZipfDistribution zipf = new ZipfDistribution(10_000, 1.0);
+        SplittableRandom random = new SplittableRandom(1);
+        int top100 = 0;
+        int first = 0;
+        for (int i = 0; i < SAMPLES; i++) {
+            int rank = zipf.sample(random);
+            assertTrue(rank >= 1 && rank <= 10_000);
+            if (rank <= 100) {
+                top100++;
+            }
+            if (rank == 1) {
+                first++;
+            }
+        }
+
+        // H(100) / H(10000) ≈ 0.53, 1 / H(10000) ≈ 0.10
+        assertEquals(0.53, (double) top100 / SAMPLES, 0.02);
+        assertEquals(0.10, (double) first / SAMPLES, 0.01);
+    }
+
+    @Test
+    void sample_shouldBeUniformWithZeroExponent() {
+        ZipfDistribution zipf = new ZipfDistribution(4, 0);
+        SplittableRandom random = new SplittableRandom(1);
+        int[] counts = new int[5];
+        for (int i = 0; i < SAMPLES; i++) {
+            counts[zipf.sample(random)]++;
+        }
+
+        for (int rank = 1; rank <= 4; rank++) {
+            assertEquals(0.25, (double) counts[rank] / SAMPLES, 0.01);
+        }
+    }
+
+    @Test
+    void constructor_shouldRejectEmptyRange() {
+        assertThrows(IllegalArgumentException.class, () -> new ZipfDistribution(0, 1.0));
+    }
+}
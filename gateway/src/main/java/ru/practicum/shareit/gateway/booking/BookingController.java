@@ -3,11 +3,17 @@ package ru.practicum.shareit.gateway.booking;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import ru.practicum.shareit.gateway.booking.dto.BookingDto;
+import ru.practicum.shareit.gateway.booking.dto.BookingImportResult;
 import ru.practicum.shareit.gateway.client.ShareItClient;
+import ru.practicum.shareit.gateway.util.ConditionalResponses;
 import ru.practicum.shareit.gateway.util.GatewayConstants;
 
 import java.util.List;
@@ -23,18 +29,28 @@ public class BookingController {
     public Mono<ResponseEntity<BookingDto>> createBooking(
             @RequestBody BookingDto.BookingRequest bookingRequest,
             @RequestHeader(GatewayConstants.USER_ID_HEADER) Long userId) {
-        log.info("Creating booking for user {}: {}", userId, bookingRequest);
+        log.debug("Creating booking for user {}: {}", userId, bookingRequest);
         return shareItClient.post("/bookings", bookingRequest, BookingDto.class, userId)
                 .map(ResponseEntity::ok)
                 .doOnError(error -> log.error("Error creating booking: {}", error.getMessage()));
     }
 
+    @PostMapping("/import")
+    public Mono<ResponseEntity<BookingImportResult>> importBookings(
+            @RequestBody List<BookingDto.BookingImport> bookings,
+            @RequestHeader(GatewayConstants.USER_ID_HEADER) Long ownerId) {
+        log.debug("Importing {} bookings for owner {}", bookings.size(), ownerId);
+        return shareItClient.post("/bookings/import", bookings, BookingImportResult.class, ownerId)
+                .map(ResponseEntity::ok)
+                .doOnError(error -> log.error("Error importing bookings: {}", error.getMessage()));
+    }
+
     @PatchMapping("/{bookingId}")
     public Mono<ResponseEntity<BookingDto>> approveBooking(
             @PathVariable Long bookingId,
             @RequestParam Boolean approved,
             @RequestHeader(GatewayConstants.USER_ID_HEADER) Long userId) {
-        log.info("Approving booking {} with approved={} by user {}", bookingId, approved, userId);
+        log.debug("Approving booking {} with approved={} by user {}", bookingId, approved, userId);
         String path = "/bookings/" + bookingId + "?approved=" + approved;
         return shareItClient.patch(path, null, BookingDto.class, userId)
                 .map(ResponseEntity::ok)
@@ -44,10 +60,11 @@ public class BookingController {
     @GetMapping("/{bookingId}")
     public Mono<ResponseEntity<BookingDto>> getBooking(
             @PathVariable Long bookingId,
-            @RequestHeader(GatewayConstants.USER_ID_HEADER) Long userId) {
-        log.info("Getting booking {} for user {}", bookingId, userId);
-        return shareItClient.get("/bookings/" + bookingId, BookingDto.class, userId)
-                .map(ResponseEntity::ok)
+            @RequestHeader(GatewayConstants.USER_ID_HEADER) Long userId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        log.debug("Getting booking {} for user {}", bookingId, userId);
+        return shareItClient.getConditional("/bookings/" + bookingId, BookingDto.class, userId, ifNoneMatch)
+                .map(ConditionalResponses::relay)
                 .doOnError(error -> log.error("Error getting booking: {}", error.getMessage()));
     }
 
@@ -56,12 +73,19 @@ public class BookingController {
             @RequestParam(defaultValue = "ALL") String state,
             @RequestHeader(GatewayConstants.USER_ID_HEADER) Long userId,
             @RequestParam(defaultValue = "0") int from,
-            @RequestParam(defaultValue = "10") int size) {
-        log.info("Getting user bookings for user {} with state {}", userId, state);
-        String path = String.format("/bookings?state=%s&from=%d&size=%d", state, from, size);
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor) {
+        log.debug("Getting user bookings for user {} with state {}", userId, state);
         ParameterizedTypeReference<List<BookingDto>> typeReference =
                 new ParameterizedTypeReference<List<BookingDto>>() {
                 };
+        if (cursor != null) {
+            String path = String.format("/bookings?state=%s&size=%d&cursor=%s", state, size, cursor);
+            return shareItClient.getEntity(path, typeReference, userId)
+                    .map(this::withNextCursor)
+                    .doOnError(error -> log.error("Error getting user bookings: {}", error.getMessage()));
+        }
+        String path = String.format("/bookings?state=%s&from=%d&size=%d", state, from, size);
         return shareItClient.get(path, typeReference, userId)
                 .map(ResponseEntity::ok)
                 .doOnError(error -> log.error("Error getting user bookings: {}", error.getMessage()));
@@ -72,14 +96,47 @@ public class BookingController {
             @RequestParam(defaultValue = "ALL") String state,
             @RequestHeader(GatewayConstants.USER_ID_HEADER) Long userId,
             @RequestParam(defaultValue = "0") int from,
-            @RequestParam(defaultValue = "10") int size) {
-        log.info("Getting owner bookings for user {} with state {}", userId, state);
-        String path = String.format("/bookings/owner?state=%s&from=%d&size=%d", state, from, size);
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor) {
+        log.debug("Getting owner bookings for user {} with state {}", userId, state);
         ParameterizedTypeReference<List<BookingDto>> typeReference =
                 new ParameterizedTypeReference<List<BookingDto>>() {
                 };
+        if (cursor != null) {
+            String path = String.format("/bookings/owner?state=%s&size=%d&cursor=%s", state, size, cursor);
+            return shareItClient.getEntity(path, typeReference, userId)
+                    .map(this::withNextCursor)
+                    .doOnError(error -> log.error("Error getting owner bookings: {}", error.getMessage()));
+        }
+        String path = String.format("/bookings/owner?state=%s&from=%d&size=%d", state, from, size);
         return shareItClient.get(path, typeReference, userId)
                 .map(ResponseEntity::ok)
                 .doOnError(error -> log.error("Error getting owner bookings: {}", error.getMessage()));
     }
-}
\ No newline at end of file
+
+    /**
+     * Выгрузка передаётся буферами по мере поступления от сервера, без сборки всего тела в памяти.
+     */
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<DataBuffer> exportUserBookings(@RequestHeader(GatewayConstants.USER_ID_HEADER) Long userId) {
+        log.debug("Exporting bookings of user {}", userId);
+        return shareItClient.getStream("/bookings/export", userId)
+                .doOnError(error -> log.error("Error exporting user bookings: {}", error.getMessage()));
+    }
+
+    @GetMapping(path = "/owner/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<DataBuffer> exportOwnerBookings(@RequestHeader(GatewayConstants.USER_ID_HEADER) Long userId) {
+        log.debug("Exporting bookings of owner {}", userId);
+        return shareItClient.getStream("/bookings/owner/export", userId)
+                .doOnError(error -> log.error("Error exporting owner bookings: {}", error.getMessage()));
+    }
+
+    private ResponseEntity<List<BookingDto>> withNextCursor(ResponseEntity<List<BookingDto>> response) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        String nextCursor = response.getHeaders().getFirst(GatewayConstants.NEXT_CURSOR_HEADER);
+        if (nextCursor != null) {
+            builder.header(GatewayConstants.NEXT_CURSOR_HEADER, nextCursor);
+        }
+        return builder.body(response.getBody());
+    }
+}
@@ -41,4 +41,15 @@ public class BookingDto {
         private LocalDateTime start;
         private LocalDateTime end;
     }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BookingImport {
+        private Long itemId;
+        private Long bookerId;
+        private LocalDateTime start;
+        private LocalDateTime end;
+        private String status;
+    }
 }
\ No newline at end of file
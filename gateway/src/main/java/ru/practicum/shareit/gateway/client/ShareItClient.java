@@ -1,33 +1,65 @@
 package ru.practicum.shareit.gateway.client;
 
-import jakarta.annotation.PostConstruct;
-import org.springframework.beans.factory.annotation.Value;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import ru.practicum.shareit.gateway.client.resilience.ShareItResilience;
 
 @Service
 public class ShareItClient {
-    private WebClient webClient;
+    private final WebClient webClient;
+    private final ShareItResilience resilience;
+    private ConnectionProvider connectionProvider;
 
-    @Value("${shareit-server.url}")
-    private String baseUrl;
-
-    public ShareItClient() {
-    }
-
-    @PostConstruct
-    public void init() {
+    /**
+     * Метрики пула публикуются в Micrometer как reactor.netty.connection.provider.*
+     * с тегом name=shareit-server и видны через /actuator/metrics.
+     */
+    @Autowired
+    public ShareItClient(ShareItServerProperties properties, MeterRegistry meterRegistry) {
+        this.resilience = new ShareItResilience(properties.getResilience(), meterRegistry);
+        this.connectionProvider = ConnectionProvider.builder("shareit-server")
+                .maxConnections(properties.getMaxConnections())
+                .pendingAcquireMaxCount(properties.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(properties.getPendingAcquireTimeout())
+                .maxIdleTime(properties.getMaxIdleTime())
+                .maxLifeTime(properties.getMaxLifeTime())
+                .evictInBackground(properties.getMaxIdleTime())
+                .metrics(true)
+                .build();
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getResponseTimeout());
+        if (properties.isH2c()) {
+            httpClient = httpClient.protocol(HttpProtocol.H2C);
+        }
         this.webClient = WebClient.builder()
-                .baseUrl(baseUrl)
+                .baseUrl(properties.getUrl())
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
                 .defaultHeader(HttpHeaders.CONTENT_TYPE, "application/json")
                 .build();
     }
 
     public ShareItClient(WebClient webClient) {
         this.webClient = webClient;
+        this.resilience = defaultResilience();
     }
 
     public ShareItClient(String baseUrl) {
@@ -35,65 +67,125 @@ public class ShareItClient {
                 .baseUrl(baseUrl)
                 .defaultHeader(HttpHeaders.CONTENT_TYPE, "application/json")
                 .build();
+        this.resilience = defaultResilience();
+    }
+
+    private static ShareItResilience defaultResilience() {
+        return new ShareItResilience(new ShareItServerProperties.Resilience(), new SimpleMeterRegistry());
+    }
+
+    @PreDestroy
+    public void close() {
+        if (connectionProvider != null) {
+            connectionProvider.dispose();
+        }
     }
 
     public <T> Mono<T> post(String path, Object body, Class<T> responseType, Long userId) {
-        return webClient.post()
+        return resilience.guard(HttpMethod.POST, path, webClient.post()
                 .uri(path)
                 .header("X-Sharer-User-Id", userId != null ? userId.toString() : "")
                 .bodyValue(body != null ? body : "")
                 .retrieve()
-                .bodyToMono(responseType);
+                .bodyToMono(responseType));
     }
 
     public <T> Mono<T> post(String path, Object body, ParameterizedTypeReference<T> responseType, Long userId) {
-        return webClient.post()
+        return resilience.guard(HttpMethod.POST, path, webClient.post()
                 .uri(path)
                 .header("X-Sharer-User-Id", userId != null ? userId.toString() : "")
                 .bodyValue(body != null ? body : "")
                 .retrieve()
-                .bodyToMono(responseType);
+                .bodyToMono(responseType));
+    }
+
+    /**
+     * Передаёт тело запроса и ответ сервера буферами по мере поступления, не собирая их в памяти.
+     */
+    public Flux<DataBuffer> postStream(String path, Flux<DataBuffer> body, MediaType contentType, Long userId) {
+        return resilience.guardStream(path, webClient.post()
+                .uri(path)
+                .header("X-Sharer-User-Id", userId != null ? userId.toString() : "")
+                .contentType(contentType)
+                .body(BodyInserters.fromDataBuffers(body))
+                .retrieve()
+                .bodyToFlux(DataBuffer.class));
+    }
+
+    public Flux<DataBuffer> getStream(String path, Long userId) {
+        return resilience.guardStream(path, webClient.get()
+                .uri(path)
+                .header("X-Sharer-User-Id", userId != null ? userId.toString() : "")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .retrieve()
+                .bodyToFlux(DataBuffer.class));
     }
 
     public <T> Mono<T> get(String path, Class<T> responseType, Long userId) {
-        return webClient.get()
+        return resilience.guard(HttpMethod.GET, path, webClient.get()
                 .uri(path)
                 .header("X-Sharer-User-Id", userId != null ? userId.toString() : "")
                 .retrieve()
-                .bodyToMono(responseType);
+                .bodyToMono(responseType));
     }
 
     public <T> Mono<T> get(String path, ParameterizedTypeReference<T> responseType, Long userId) {
-        return webClient.get()
+        return resilience.guard(HttpMethod.GET, path, webClient.get()
+                .uri(path)
+                .header("X-Sharer-User-Id", userId != null ? userId.toString() : "")
+                .retrieve()
+                .bodyToMono(responseType));
+    }
+
+    public <T> Mono<ResponseEntity<T>> getEntity(String path, ParameterizedTypeReference<T> responseType,
+                                                 Long userId) {
+        return resilience.guard(HttpMethod.GET, path, webClient.get()
+                .uri(path)
+                .header("X-Sharer-User-Id", userId != null ? userId.toString() : "")
+                .retrieve()
+                .toEntity(responseType));
+    }
+
+    /**
+     * GET с передачей серверу If-None-Match. Ответ 304 приходит как обычный ответ без тела.
+     */
+    public <T> Mono<ResponseEntity<T>> getConditional(String path, Class<T> responseType, Long userId,
+                                                      String ifNoneMatch) {
+        return resilience.guard(HttpMethod.GET, path, webClient.get()
                 .uri(path)
                 .header("X-Sharer-User-Id", userId != null ? userId.toString() : "")
+                .headers(headers -> {
+                    if (ifNoneMatch != null) {
+                        headers.set(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+                    }
+                })
                 .retrieve()
-                .bodyToMono(responseType);
+                .toEntity(responseType));
     }
 
     public <T> Mono<T> patch(String path, Object body, Class<T> responseType, Long userId) {
-        return webClient.patch()
+        return resilience.guard(HttpMethod.PATCH, path, webClient.patch()
                 .uri(path)
                 .header("X-Sharer-User-Id", userId != null ? userId.toString() : "")
                 .bodyValue(body != null ? body : "")
                 .retrieve()
-                .bodyToMono(responseType);
+                .bodyToMono(responseType));
     }
 
     public <T> Mono<T> patch(String path, Object body, ParameterizedTypeReference<T> responseType, Long userId) {
-        return webClient.patch()
+        return resilience.guard(HttpMethod.PATCH, path, webClient.patch()
                 .uri(path)
                 .header("X-Sharer-User-Id", userId != null ? userId.toString() : "")
                 .bodyValue(body != null ? body : "")
                 .retrieve()
-                .bodyToMono(responseType);
+                .bodyToMono(responseType));
     }
 
     public Mono<Void> delete(String path, Long userId) {
-        return webClient.delete()
+        return resilience.guard(HttpMethod.DELETE, path, webClient.delete()
                 .uri(path)
                 .header("X-Sharer-User-Id", userId != null ? userId.toString() : "")
                 .retrieve()
-                .bodyToMono(Void.class);
+                .bodyToMono(Void.class));
     }
 }
\ No newline at end of file
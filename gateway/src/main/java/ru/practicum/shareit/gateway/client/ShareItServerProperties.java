@@ -0,0 +1,128 @@
+package ru.practicum.shareit.gateway.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Настройки соединений шлюза с сервером ShareIt (префикс {@code shareit-server}).
+ * <p>
+ * Пул и очередь ожидания ограничены, чтобы при замедлении сервера шлюз быстро отвечал 503,
+ * а не копил неограниченное число запросов в памяти.
+ */
+@Data
+@ConfigurationProperties(prefix = "shareit-server")
+public class ShareItServerProperties {
+    private String url;
+
+    /**
+     * Одновременно открытых соединений с сервером.
+     */
+    private int maxConnections = 500;
+
+    /**
+     * Запросов, ожидающих свободное соединение; сверх этого запрос сразу отклоняется.
+     */
+    private int pendingAcquireMaxCount = 1000;
+
+    /**
+     * Сколько запрос может ждать свободное соединение.
+     */
+    private Duration pendingAcquireTimeout = Duration.ofSeconds(5);
+
+    /**
+     * Простаивающее соединение закрывается раньше, чем его закроет сервер по keep-alive таймауту.
+     */
+    private Duration maxIdleTime = Duration.ofSeconds(30);
+
+    private Duration maxLifeTime = Duration.ofMinutes(10);
+
+    private Duration connectTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Наибольшая пауза между порциями ответа; потоковые ответы ограничены ею же,
+     * а не общей длительностью.
+     */
+    private Duration responseTimeout = Duration.ofSeconds(30);
+
+    /**
+     * HTTP/2 без TLS (h2c) к серверу: все запросы идут по нескольким мультиплексированным
+     * соединениям. Сервер должен быть запущен с server.http2.enabled=true.
+     */
+    private boolean h2c = false;
+
+    private final Resilience resilience = new Resilience();
+
+    /**
+     * Защита шлюза от зависшего сервера; маршрут — первый сегмент пути запроса,
+     * а поиск вещей выделен отдельно: {@code items.search}.
+     */
+    @Data
+    public static class Resilience {
+        private final CircuitBreaker circuitBreaker = new CircuitBreaker();
+        private final Bulkhead bulkhead = new Bulkhead();
+        private final Retry retry = new Retry();
+    }
+
+    @Data
+    public static class CircuitBreaker {
+        /**
+         * Доля неудачных вызовов в окне, при которой вызовы маршрута на время перестают уходить на сервер.
+         */
+        private double failureRateThreshold = 0.5;
+
+        /**
+         * Сколько последних вызовов учитывается.
+         */
+        private int slidingWindowSize = 50;
+
+        /**
+         * Меньше вызовов в окне — доля ошибок ещё ничего не значит.
+         */
+        private int minimumCalls = 20;
+
+        private Duration openDuration = Duration.ofSeconds(10);
+
+        /**
+         * Пробных вызовов после паузы; все должны пройти успешно, чтобы маршрут снова заработал.
+         */
+        private int halfOpenCalls = 5;
+    }
+
+    @Data
+    public static class Bulkhead {
+        private int defaultMaxConcurrent = 250;
+
+        /**
+         * Лимиты отдельных маршрутов, например {@code items.search=50}.
+         */
+        private Map<String, Integer> maxConcurrent = new HashMap<>(Map.of("items.search", 50));
+    }
+
+    /**
+     * Повторяются только GET-запросы и только при сетевых ошибках и ответах 502, 503 и 504.
+     */
+    @Data
+    public static class Retry {
+        private int maxRetries = 2;
+
+        private Duration initialBackoff = Duration.ofMillis(50);
+
+        private Duration maxBackoff = Duration.ofMillis(500);
+
+        private double jitter = 0.5;
+
+        /**
+         * Повторов на один обычный запрос: при 0.1 повторы добавляют к нагрузке не больше 10%.
+         */
+        private double budgetRatio = 0.1;
+
+        /**
+         * Повторов в секунду, доступных даже при малом трафике.
+         */
+        private double minRetriesPerSecond = 10;
+    }
+}
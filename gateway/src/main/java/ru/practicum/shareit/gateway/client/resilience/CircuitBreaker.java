@@ -0,0 +1,124 @@
+package ru.practicum.shareit.gateway.client.resilience;
+
+import ru.practicum.shareit.gateway.client.ShareItServerProperties;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Автомат CLOSED → OPEN → HALF_OPEN по доле ошибок среди последних вызовов одного маршрута.
+ * <p>
+ * В OPEN вызовы отклоняются без обращения к серверу. По истечении паузы пропускается
+ * несколько пробных вызовов: если все успешны, окно сбрасывается и маршрут возвращается
+ * в CLOSED, при первой же ошибке снова начинается пауза.
+ */
+class CircuitBreaker {
+    enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final double failureRateThreshold;
+    private final int minimumCalls;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final LongSupplier clock;
+
+    private final boolean[] window;
+    private int position;
+    private int calls;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+
+    CircuitBreaker(ShareItServerProperties.CircuitBreaker properties, LongSupplier clock) {
+        this.failureRateThreshold = properties.getFailureRateThreshold();
+        this.minimumCalls = properties.getMinimumCalls();
+        this.openNanos = properties.getOpenDuration().toNanos();
+        this.halfOpenCalls = properties.getHalfOpenCalls();
+        this.clock = clock;
+        this.window = new boolean[properties.getSlidingWindowSize()];
+    }
+
+    synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (clock.getAsLong() - openedAt < openNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            halfOpenPermits = 0;
+            halfOpenSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits == halfOpenCalls) {
+                return false;
+            }
+            halfOpenPermits++;
+        }
+        return true;
+    }
+
+    synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++halfOpenSuccesses == halfOpenCalls) {
+                close();
+            }
+            return;
+        }
+        record(false);
+    }
+
+    synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        record(true);
+    }
+
+    /**
+     * Вызов отменён клиентом: результата нет, но пробное место в HALF_OPEN нужно вернуть.
+     */
+    synchronized void onCancel() {
+        if (state == State.HALF_OPEN && halfOpenPermits > halfOpenSuccesses) {
+            halfOpenPermits--;
+        }
+    }
+
+    synchronized State state() {
+        return state;
+    }
+
+    private void record(boolean failure) {
+        if (calls == window.length) {
+            if (window[position]) {
+                failures--;
+            }
+        } else {
+            calls++;
+        }
+        window[position] = failure;
+        if (failure) {
+            failures++;
+        }
+        position = (position + 1) % window.length;
+        // Доля проверяется после любого вызова: порог может впервые набраться на успешном,
+        // когда окно дорастает до minimumCalls
+        if (state == State.CLOSED && calls >= minimumCalls && (double) failures / calls >= failureRateThreshold) {
+            open();
+        }
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = clock.getAsLong();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        position = 0;
+        calls = 0;
+        failures = 0;
+    }
+}
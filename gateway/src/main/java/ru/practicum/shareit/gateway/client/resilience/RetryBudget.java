@@ -0,0 +1,52 @@
+package ru.practicum.shareit.gateway.client.resilience;
+
+import ru.practicum.shareit.gateway.client.ShareItServerProperties;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Общий на все маршруты запас повторов. Каждый запрос добавляет budgetRatio жетона,
+ * и ещё minRetriesPerSecond жетонов в секунду начисляется со временем. Каждый повтор
+ * тратит один жетон. Когда сервер лежит целиком, повторы быстро выбирают запас
+ * и перестают умножать нагрузку на него.
+ */
+class RetryBudget {
+    private static final int BURST_SECONDS = 10;
+
+    private final double ratio;
+    private final double tokensPerNano;
+    private final double maxTokens;
+    private final LongSupplier clock;
+
+    private double tokens;
+    private long refilledAt;
+
+    RetryBudget(ShareItServerProperties.Retry properties, LongSupplier clock) {
+        this.ratio = properties.getBudgetRatio();
+        this.tokensPerNano = properties.getMinRetriesPerSecond() / 1_000_000_000d;
+        this.maxTokens = Math.max(1, properties.getMinRetriesPerSecond() * BURST_SECONDS);
+        this.clock = clock;
+        this.tokens = maxTokens;
+        this.refilledAt = clock.getAsLong();
+    }
+
+    synchronized void onRequest() {
+        refill();
+        tokens = Math.min(maxTokens, tokens + ratio);
+    }
+
+    synchronized boolean tryRetry() {
+        refill();
+        if (tokens < 1) {
+            return false;
+        }
+        tokens--;
+        return true;
+    }
+
+    private void refill() {
+        long now = clock.getAsLong();
+        tokens = Math.min(maxTokens, tokens + (now - refilledAt) * tokensPerNano);
+        refilledAt = now;
+    }
+}
@@ -0,0 +1,186 @@
+package ru.practicum.shareit.gateway.client.resilience;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+import ru.practicum.shareit.gateway.client.ShareItServerProperties;
+import ru.practicum.shareit.gateway.exception.ServerUnavailableException;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Защита вызовов сервера в {@link ru.practicum.shareit.gateway.client.ShareItClient}:
+ * для каждого маршрута свой circuit breaker и свой лимит одновременных вызовов,
+ * поэтому зависший поиск не занимает соединения, нужные бронированиям.
+ * GET-запросы повторяются с экспоненциальной паузой и разбросом, пока хватает общего
+ * {@link RetryBudget}.
+ * <p>
+ * Ошибкой сервера считаются сетевые ошибки, таймауты и ответы 5xx; ответы 4xx означают,
+ * что сервер жив, и учитываются как успешные.
+ * <p>
+ * Метрики: shareit.client.circuit.state (0 — CLOSED, 1 — OPEN, 2 — HALF_OPEN),
+ * shareit.client.bulkhead.available, shareit.client.calls.rejected и shareit.client.retries,
+ * все с тегом route.
+ */
+public class ShareItResilience {
+    private final ShareItServerProperties.Resilience properties;
+    private final MeterRegistry meterRegistry;
+    private final LongSupplier clock;
+    private final RetryBudget retryBudget;
+    private final Map<String, RouteGuard> routes = new ConcurrentHashMap<>();
+
+    public ShareItResilience(ShareItServerProperties.Resilience properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    ShareItResilience(ShareItServerProperties.Resilience properties, MeterRegistry meterRegistry,
+                      LongSupplier clock) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.retryBudget = new RetryBudget(properties.getRetry(), clock);
+    }
+
+    public <T> Mono<T> guard(HttpMethod method, String path, Mono<T> call) {
+        RouteGuard route = route(path);
+        Mono<T> attempt = Mono.defer(() -> {
+            if (!route.breaker.tryAcquire()) {
+                return Mono.error(route.rejected("circuit_open"));
+            }
+            return call
+                    .doOnSuccess(value -> route.breaker.onSuccess())
+                    .doOnError(error -> route.onError(error))
+                    .doOnCancel(route.breaker::onCancel);
+        });
+        Mono<T> guarded = HttpMethod.GET.equals(method) ? withRetries(route, attempt) : attempt;
+        return Mono.defer(() -> {
+            retryBudget.onRequest();
+            if (!route.bulkhead.tryAcquire()) {
+                return Mono.error(route.rejected("bulkhead_full"));
+            }
+            return guarded.doFinally(signal -> route.bulkhead.release());
+        });
+    }
+
+    /**
+     * Потоковые ответы не повторяются: часть тела уже могла уйти клиенту.
+     */
+    public <T> Flux<T> guardStream(String path, Flux<T> call) {
+        RouteGuard route = route(path);
+        return Flux.defer(() -> {
+            retryBudget.onRequest();
+            if (!route.bulkhead.tryAcquire()) {
+                return Flux.error(route.rejected("bulkhead_full"));
+            }
+            if (!route.breaker.tryAcquire()) {
+                route.bulkhead.release();
+                return Flux.error(route.rejected("circuit_open"));
+            }
+            return call
+                    .doOnComplete(route.breaker::onSuccess)
+                    .doOnError(error -> route.onError(error))
+                    .doOnCancel(route.breaker::onCancel)
+                    .doFinally(signal -> route.bulkhead.release());
+        });
+    }
+
+    /**
+     * Маршрут — первый сегмент пути, а /items/search выделен в отдельный маршрут items.search.
+     */
+    static String routeOf(String path) {
+        int query = path.indexOf('?');
+        String[] segments = (query < 0 ? path : path.substring(0, query)).split("/");
+        String first = segments.length > 1 ? segments[1] : "";
+        if (segments.length > 2 && "search".equals(segments[2])) {
+            return first + ".search";
+        }
+        return first;
+    }
+
+    CircuitBreaker.State state(String route) {
+        RouteGuard guard = routes.get(route);
+        return guard == null ? CircuitBreaker.State.CLOSED : guard.breaker.state();
+    }
+
+    private <T> Mono<T> withRetries(RouteGuard route, Mono<T> attempt) {
+        ShareItServerProperties.Retry retry = properties.getRetry();
+        return Mono.defer(() -> {
+            AtomicInteger retries = new AtomicInteger();
+            return attempt.retryWhen(Retry.backoff(retry.getMaxRetries(), retry.getInitialBackoff())
+                    .maxBackoff(retry.getMaxBackoff())
+                    .jitter(retry.getJitter())
+                    .filter(error -> isRetryable(error) && retries.get() < retry.getMaxRetries()
+                            && route.takeRetry())
+                    .doBeforeRetry(signal -> retries.incrementAndGet())
+                    .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+        });
+    }
+
+    private RouteGuard route(String path) {
+        return routes.computeIfAbsent(routeOf(path), RouteGuard::new);
+    }
+
+    private static boolean isServerFailure(Throwable error) {
+        return error instanceof WebClientRequestException
+                || error instanceof WebClientResponseException response && response.getStatusCode().is5xxServerError();
+    }
+
+    private static boolean isRetryable(Throwable error) {
+        if (error instanceof WebClientRequestException) {
+            return true;
+        }
+        if (error instanceof WebClientResponseException response) {
+            int status = response.getStatusCode().value();
+            return status == 502 || status == 503 || status == 504;
+        }
+        return false;
+    }
+
+    private final class RouteGuard {
+        private final String name;
+        private final CircuitBreaker breaker;
+        private final Semaphore bulkhead;
+
+        private RouteGuard(String name) {
+            this.name = name;
+            this.breaker = new CircuitBreaker(properties.getCircuitBreaker(), clock);
+            this.bulkhead = new Semaphore(properties.getBulkhead().getMaxConcurrent()
+                    .getOrDefault(name, properties.getBulkhead().getDefaultMaxConcurrent()));
+            Gauge.builder("shareit.client.circuit.state", breaker, b -> b.state().ordinal())
+                    .tag("route", name)
+                    .register(meterRegistry);
+            Gauge.builder("shareit.client.bulkhead.available", bulkhead, Semaphore::availablePermits)
+                    .tag("route", name)
+                    .register(meterRegistry);
+        }
+
+        private void onError(Throwable error) {
+            if (isServerFailure(error)) {
+                breaker.onFailure();
+            } else {
+                breaker.onSuccess();
+            }
+        }
+
+        private boolean takeRetry() {
+            boolean allowed = retryBudget.tryRetry();
+            meterRegistry.counter("shareit.client.retries", "route", name,
+                    "outcome", allowed ? "retried" : "budget_exhausted").increment();
+            return allowed;
+        }
+
+        private ServerUnavailableException rejected(String reason) {
+            meterRegistry.counter("shareit.client.calls.rejected", "route", name, "reason", reason).increment();
+            return new ServerUnavailableException("Server is unavailable for " + name + " (" + reason + ")");
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package ru.practicum.shareit.gateway.exception;
 
+import io.netty.handler.timeout.ReadTimeoutException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 
 @Slf4j
@@ -28,6 +31,25 @@ public class GlobalErrorHandler {
                 .body(new ErrorResponse(ex.getMessage()));
     }
 
+    /**
+     * Сервер не ответил: нет свободного соединения в пуле, не удалось подключиться
+     * или истёк таймаут ответа.
+     */
+    @ExceptionHandler(WebClientRequestException.class)
+    public ResponseEntity<ErrorResponse> handleServerUnavailable(WebClientRequestException ex) {
+        log.warn("Server request failed: {}", ex.getMessage());
+        HttpStatus status = ex.getCause() instanceof ReadTimeoutException
+                ? HttpStatus.GATEWAY_TIMEOUT
+                : HttpStatus.SERVICE_UNAVAILABLE;
+        return ResponseEntity.status(status).body(new ErrorResponse("Server unavailable"));
+    }
+
+    @ExceptionHandler(ServerUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleServerUnavailable(ServerUnavailableException ex) {
+        log.warn("Request rejected by gateway: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(new ErrorResponse(ex.getMessage()));
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleException(Exception ex) {
         log.error("Internal server error: {}", ex.getMessage(), ex);
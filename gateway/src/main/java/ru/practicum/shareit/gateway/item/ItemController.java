@@ -4,14 +4,22 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import ru.practicum.shareit.gateway.client.ShareItClient;
+import ru.practicum.shareit.gateway.exception.ValidationException;
 import ru.practicum.shareit.gateway.item.dto.CommentDto;
+import ru.practicum.shareit.gateway.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.gateway.item.dto.ItemDto;
 import ru.practicum.shareit.gateway.util.GatewayConstants;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Slf4j
@@ -20,24 +28,45 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ItemController {
     private final ShareItClient shareItClient;
+    private final ItemSearchCache itemSearchCache;
+    private final ItemViewCoalescer itemViewCoalescer;
 
     @PostMapping
     public Mono<ResponseEntity<ItemDto>> createItem(
             @Valid @RequestBody ItemDto itemDto,
             @RequestHeader(GatewayConstants.USER_ID_HEADER) Long ownerId) {
-        log.info("Creating item for owner {}: {}", ownerId, itemDto);
+        log.debug("Creating item for owner {}: {}", ownerId, itemDto);
         return shareItClient.post("/items", itemDto, ItemDto.class, ownerId)
+                .doOnSuccess(item -> itemSearchCache.invalidateAll())
                 .map(ResponseEntity::ok)
                 .doOnError(error -> log.error("Error creating item: {}", error.getMessage()));
     }
 
+    /**
+     * Массовое создание вещей. Тело и построчные результаты проходят через шлюз потоком:
+     * строки проверяет сервер, иначе пришлось бы целиком разбирать и держать в памяти весь импорт.
+     */
+    @PostMapping(path = "/bulk",
+            consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<DataBuffer> createItems(
+            @RequestBody Flux<DataBuffer> body,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            @RequestHeader(GatewayConstants.USER_ID_HEADER) Long ownerId) {
+        log.debug("Bulk creating items for owner {}", ownerId);
+        return shareItClient.postStream("/items/bulk", body, contentType, ownerId)
+                .doFinally(signal -> itemSearchCache.invalidateAll())
+                .doOnError(error -> log.error("Error bulk creating items: {}", error.getMessage()));
+    }
+
     @PatchMapping("/{itemId}")
     public Mono<ResponseEntity<ItemDto>> updateItem(
             @PathVariable Long itemId,
             @RequestBody ItemDto itemDto,
             @RequestHeader(GatewayConstants.USER_ID_HEADER) Long ownerId) {
-        log.info("Updating item {} for owner {}: {}", itemId, ownerId, itemDto);
+        log.debug("Updating item {} for owner {}: {}", itemId, ownerId, itemDto);
         return shareItClient.patch("/items/" + itemId, itemDto, ItemDto.class, ownerId)
+                .doOnSuccess(item -> itemSearchCache.invalidateAll())
                 .map(ResponseEntity::ok)
                 .doOnError(error -> log.error("Error updating item: {}", error.getMessage()));
     }
@@ -45,19 +74,36 @@ public class ItemController {
     @GetMapping("/{itemId}")
     public Mono<ResponseEntity<ItemDto>> getItemById(
             @PathVariable Long itemId,
-            @RequestHeader(GatewayConstants.USER_ID_HEADER) Long userId) {
-        log.info("Getting item {} for user {}", itemId, userId);
-        return shareItClient.get("/items/" + itemId, ItemDto.class, userId)
-                .map(ResponseEntity::ok)
+            @RequestHeader(GatewayConstants.USER_ID_HEADER) Long userId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        log.debug("Getting item {} for user {}", itemId, userId);
+        return itemViewCoalescer.getItem(itemId, userId, ifNoneMatch, () -> shareItClient.getConditional(
+                        "/items/" + itemId, ItemDto.class, userId, ifNoneMatch))
                 .doOnError(error -> log.error("Error getting item: {}", error.getMessage()));
     }
 
+    @GetMapping("/{itemId}/availability")
+    public Mono<ResponseEntity<ItemAvailabilityDto>> getAvailability(
+            @PathVariable Long itemId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestHeader(value = GatewayConstants.USER_ID_HEADER, required = false) Long userId) {
+        log.debug("Checking availability of item {} from {} to {}", itemId, from, to);
+        if (!from.isBefore(to)) {
+            return Mono.error(new ValidationException("Start of the window must be before its end"));
+        }
+        String path = String.format("/items/%d/availability?from=%s&to=%s", itemId, from, to);
+        return shareItClient.get(path, ItemAvailabilityDto.class, userId)
+                .map(ResponseEntity::ok)
+                .doOnError(error -> log.error("Error checking item availability: {}", error.getMessage()));
+    }
+
     @GetMapping
     public Mono<ResponseEntity<List<ItemDto>>> getAllItemsByOwner(
             @RequestHeader(GatewayConstants.USER_ID_HEADER) Long ownerId,
             @RequestParam(defaultValue = "0") int from,
             @RequestParam(defaultValue = "10") int size) {
-        log.info("Getting all items for owner {} from {} size {}", ownerId, from, size);
+        log.debug("Getting all items for owner {} from {} size {}", ownerId, from, size);
         String path = String.format("/items?from=%d&size=%d", from, size);
         ParameterizedTypeReference<List<ItemDto>> typeReference =
                 new ParameterizedTypeReference<List<ItemDto>>() {
@@ -73,12 +119,13 @@ public class ItemController {
             @RequestParam(defaultValue = "0") int from,
             @RequestParam(defaultValue = "10") int size,
             @RequestHeader(value = GatewayConstants.USER_ID_HEADER, required = false) Long userId) {
-        log.info("Searching items with text: '{}'", text);
-        String path = String.format("/items/search?text=%s&from=%d&size=%d", text, from, size);
+        log.debug("Searching items with text: '{}'", text);
         ParameterizedTypeReference<List<ItemDto>> typeReference =
                 new ParameterizedTypeReference<List<ItemDto>>() {
                 };
-        return shareItClient.get(path, typeReference, userId)
+        return itemSearchCache.search(text, from, size, normalized -> shareItClient.getEntity(
+                        String.format("/items/search?text=%s&from=%d&size=%d", normalized, from, size),
+                        typeReference, userId))
                 .map(ResponseEntity::ok)
                 .doOnError(error -> log.error("Error searching items: {}", error.getMessage()));
     }
@@ -88,7 +135,7 @@ public class ItemController {
             @PathVariable Long itemId,
             @Valid @RequestBody CommentDto commentDto,
             @RequestHeader(GatewayConstants.USER_ID_HEADER) Long userId) {
-        log.info("Adding comment to item {} by user {}", itemId, userId);
+        log.debug("Adding comment to item {} by user {}", itemId, userId);
         return shareItClient.post("/items/" + itemId + "/comment", commentDto, CommentDto.class, userId)
                 .map(ResponseEntity::ok)
                 .doOnError(error -> log.error("Error adding comment: {}", error.getMessage()));
@@ -0,0 +1,104 @@
+package ru.practicum.shareit.gateway.item;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.gateway.item.dto.ItemDto;
+import ru.practicum.shareit.gateway.util.GatewayConstants;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Кэш результатов поиска вещей в шлюзе по (текст, from, size). Результаты поиска не зависят
+ * от того, кто ищет, поэтому кэш общий для всех пользователей.
+ * <p>
+ * Caffeine вытесняет записи по W-TinyLFU и держит их не дольше TTL. Пока запрос за ключом
+ * идёт на сервер, остальные одинаковые запросы ждут тот же ответ, а не уходят на сервер
+ * следом. Ошибки не кэшируются.
+ * <p>
+ * Сервер отдаёт версию каталога в заголовке {@link GatewayConstants#ITEMS_VERSION_HEADER}.
+ * Как только шлюз видит версию новее, записи с более старой версией выбрасываются,
+ * не дожидаясь TTL. Изменения вещей через этот же шлюз сбрасывают кэш сразу.
+ * <p>
+ * Метрики: cache.gets, cache.evictions, cache.size и другие с тегом cache=items.search.
+ */
+@Component
+public class ItemSearchCache {
+    private final AsyncCache<SearchKey, Entry> cache;
+    private final AtomicLong knownVersion = new AtomicLong(Long.MIN_VALUE);
+
+    public ItemSearchCache(MeterRegistry meterRegistry,
+                           @Value("${shareit.search-cache.max-size:10000}") long maxSize,
+                           @Value("${shareit.search-cache.ttl:PT10S}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "items.search");
+    }
+
+    /**
+     * @param upstream запрос к серверу по нормализованному тексту
+     */
+    public Mono<List<ItemDto>> search(String text, int from, int size,
+                                      Function<String, Mono<ResponseEntity<List<ItemDto>>>> upstream) {
+        String normalized = normalize(text);
+        SearchKey key = new SearchKey(normalized, from, size);
+        return Mono.defer(() -> {
+            dropIfStale(key);
+            CompletableFuture<Entry> entry = cache.get(key, (k, executor) ->
+                    upstream.apply(normalized).map(this::toEntry).toFuture());
+            // отмена одного ожидающего не должна отменять общий запрос к серверу
+            return Mono.fromFuture(entry, true).map(Entry::items);
+        });
+    }
+
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private Entry toEntry(ResponseEntity<List<ItemDto>> response) {
+        String header = response.getHeaders().getFirst(GatewayConstants.ITEMS_VERSION_HEADER);
+        long version = header != null ? Long.parseLong(header) : knownVersion.get();
+        if (knownVersion.getAndAccumulate(version, Math::max) < version) {
+            cache.asMap().values().removeIf(entry -> isOlderThan(entry, version));
+        }
+        List<ItemDto> items = response.getBody() != null ? response.getBody() : List.of();
+        return new Entry(items, version);
+    }
+
+    /**
+     * Запрос мог уйти на сервер до того, как стала известна более новая версия.
+     */
+    private void dropIfStale(SearchKey key) {
+        CompletableFuture<Entry> entry = cache.asMap().get(key);
+        if (entry != null && isOlderThan(entry, knownVersion.get())) {
+            cache.asMap().remove(key, entry);
+        }
+    }
+
+    private static boolean isOlderThan(CompletableFuture<Entry> entry, long version) {
+        return entry.isDone() && !entry.isCompletedExceptionally() && entry.join().version() < version;
+    }
+
+    private record SearchKey(String text, int from, int size) {
+    }
+
+    private record Entry(List<ItemDto> items, long version) {
+    }
+}
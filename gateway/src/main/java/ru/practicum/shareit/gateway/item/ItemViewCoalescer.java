@@ -0,0 +1,109 @@
+package ru.practicum.shareit.gateway.item;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.gateway.item.dto.ItemDto;
+import ru.practicum.shareit.gateway.util.ConditionalResponses;
+import ru.practicum.shareit.gateway.util.GatewayConstants;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Объединяет одновременные запросы GET /items/{id}: пока запрос к серверу за вещью идёт,
+ * остальные пользователи с тем же видом вещи ждут его ответ. Ответ не кэшируется —
+ * следующий запрос после ответа снова идёт на сервер.
+ * <p>
+ * Владелец видит вещь с ближайшими бронированиями, остальные — одинаковую вещь без них.
+ * Сервер сообщает владельца в заголовке {@link GatewayConstants#ITEM_OWNER_ID_HEADER},
+ * шлюз его запоминает (владелец вещи не меняется). Пока владелец неизвестен, объединяются
+ * только запросы одного пользователя. Условные запросы объединяются только с запросами
+ * с тем же If-None-Match, иначе кто-то получил бы 304 вместо вещи.
+ * <p>
+ * Метрики: shareit.items.get.requests с тегом outcome (upstream — ушёл на сервер,
+ * coalesced — получил чужой ответ) и shareit.items.get.in.flight.
+ */
+@Component
+public class ItemViewCoalescer {
+    private final Map<ViewKey, CompletableFuture<ResponseEntity<ItemDto>>> inFlight = new ConcurrentHashMap<>();
+    private final Cache<Long, Long> owners;
+    private final Counter upstreamCalls;
+    private final Counter coalescedCalls;
+
+    public ItemViewCoalescer(MeterRegistry meterRegistry,
+                             @Value("${shareit.item-coalescing.owners-max-size:100000}") long ownersMaxSize) {
+        this.owners = Caffeine.newBuilder()
+                .maximumSize(ownersMaxSize)
+                .build();
+        this.upstreamCalls = meterRegistry.counter("shareit.items.get.requests", "outcome", "upstream");
+        this.coalescedCalls = meterRegistry.counter("shareit.items.get.requests", "outcome", "coalesced");
+        Gauge.builder("shareit.items.get.in.flight", inFlight, Map::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param upstream запрос вещи к серверу от имени userId с тем же If-None-Match
+     * @return ответ сервера со статусом и ETag
+     */
+    public Mono<ResponseEntity<ItemDto>> getItem(Long itemId, Long userId, String ifNoneMatch,
+                                                 Supplier<Mono<ResponseEntity<ItemDto>>> upstream) {
+        return Mono.defer(() -> {
+            ViewKey key = keyOf(itemId, userId, ifNoneMatch);
+            CompletableFuture<ResponseEntity<ItemDto>> created = new CompletableFuture<>();
+            CompletableFuture<ResponseEntity<ItemDto>> flight = inFlight.putIfAbsent(key, created);
+            if (flight == null) {
+                upstreamCalls.increment();
+                flight = created;
+                Mono.defer(upstream)
+                        .doOnNext(response -> rememberOwner(itemId, response))
+                        .toFuture()
+                        .whenComplete((response, error) -> {
+                            inFlight.remove(key, created);
+                            if (error != null) {
+                                created.completeExceptionally(error);
+                            } else {
+                                created.complete(response);
+                            }
+                        });
+            } else {
+                coalescedCalls.increment();
+            }
+            // отмена одного ожидающего не должна отменять общий запрос к серверу
+            return Mono.fromFuture(flight, true).map(ConditionalResponses::relay);
+        });
+    }
+
+    private ViewKey keyOf(Long itemId, Long userId, String ifNoneMatch) {
+        Long ownerId = owners.getIfPresent(itemId);
+        if (ownerId == null) {
+            return new ViewKey(itemId, View.USER, userId, ifNoneMatch);
+        }
+        return Objects.equals(ownerId, userId)
+                ? new ViewKey(itemId, View.OWNER, null, ifNoneMatch)
+                : new ViewKey(itemId, View.PUBLIC, null, ifNoneMatch);
+    }
+
+    private void rememberOwner(Long itemId, ResponseEntity<ItemDto> response) {
+        String ownerId = response.getHeaders().getFirst(GatewayConstants.ITEM_OWNER_ID_HEADER);
+        if (ownerId != null) {
+            owners.put(itemId, Long.valueOf(ownerId));
+        }
+    }
+
+    private enum View {
+        OWNER, PUBLIC, USER
+    }
+
+    private record ViewKey(Long itemId, View view, Long userId, String ifNoneMatch) {
+    }
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.gateway.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemAvailabilityDto {
+    private Long itemId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private boolean available;
+}
@@ -0,0 +1,127 @@
+package ru.practicum.shareit.gateway.logging;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import ru.practicum.shareit.gateway.util.GatewayConstants;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Журнал доступа шлюза: одна строка JSON на запрос в логгер {@code shareit.access},
+ * который в logback-spring.xml пишет асинхронно.
+ * <p>
+ * Пишется только доля sample-rate запросов, а ответы 5xx и запросы дольше slow-threshold —
+ * всегда. Поле sampleRate в строке — вероятность, с которой она попала в журнал, чтобы
+ * при подсчётах по маршрутам выборку можно было взвесить обратно. Строка собирается только
+ * для попавших в журнал запросов; остальные стоят замер времени и одно случайное число.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.access-log.enabled", havingValue = "true", matchIfMissing = true)
+public class AccessLogFilter implements WebFilter {
+    private static final Logger ACCESS_LOG = LoggerFactory.getLogger("shareit.access");
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+    private final DoubleSupplier random;
+    private final Consumer<String> sink;
+
+    @Autowired
+    public AccessLogFilter(@Value("${shareit.access-log.sample-rate:0.01}") double sampleRate,
+                           @Value("${shareit.access-log.slow-threshold:PT1S}") Duration slowThreshold) {
+        this(sampleRate, slowThreshold, () -> ThreadLocalRandom.current().nextDouble(), ACCESS_LOG::info);
+    }
+
+    AccessLogFilter(double sampleRate, Duration slowThreshold, DoubleSupplier random, Consumer<String> sink) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("Access log sample rate must be within [0, 1]: " + sampleRate);
+        }
+        this.sampleRate = sampleRate;
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.random = random;
+        this.sink = sink;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        if (!ACCESS_LOG.isInfoEnabled()) {
+            return chain.filter(exchange);
+        }
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> complete(exchange, signal, System.nanoTime() - start));
+    }
+
+    private void complete(ServerWebExchange exchange, SignalType signal, long durationNanos) {
+        int status = status(exchange, signal);
+        double rate;
+        if (status >= 500 || durationNanos >= slowThresholdNanos) {
+            rate = 1.0;
+        } else if (random.getAsDouble() < sampleRate) {
+            rate = sampleRate;
+        } else {
+            return;
+        }
+        sink.accept(render(exchange, status, durationNanos, rate));
+    }
+
+    /**
+     * Ошибка, которую не обработал ни один обработчик контроллеров, превращается в ответ
+     * уже за фильтром, поэтому без выставленного статуса считается 500; оборванный клиентом
+     * запрос записывается как 499, как принято в nginx.
+     */
+    private static int status(ServerWebExchange exchange, SignalType signal) {
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        if (status != null) {
+            return status.value();
+        }
+        return switch (signal) {
+            case ON_ERROR -> 500;
+            case CANCEL -> 499;
+            default -> 200;
+        };
+    }
+
+    private static String render(ServerWebExchange exchange, int status, long durationNanos, double rate) {
+        Object pattern = exchange.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String userId = exchange.getRequest().getHeaders().getFirst(GatewayConstants.USER_ID_HEADER);
+        StringWriter out = new StringWriter(256);
+        try (JsonGenerator json = JSON.createGenerator(out)) {
+            json.writeStartObject();
+            json.writeStringField("ts", Instant.now().toString());
+            json.writeStringField("method", exchange.getRequest().getMethod().name());
+            json.writeStringField("route", pattern == null ? "UNMATCHED" : pattern.toString());
+            json.writeStringField("path", exchange.getRequest().getPath().value());
+            json.writeNumberField("status", status);
+            json.writeNumberField("durationMs", durationNanos / 1_000_000.0);
+            if (userId != null) {
+                json.writeStringField("userId", userId);
+            }
+            json.writeNumberField("sampleRate", rate);
+            json.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+}
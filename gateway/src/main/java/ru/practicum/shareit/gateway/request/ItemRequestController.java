@@ -4,11 +4,13 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Mono;
 import ru.practicum.shareit.gateway.client.ShareItClient;
 import ru.practicum.shareit.gateway.request.dto.ItemRequestDto;
+import ru.practicum.shareit.gateway.util.ConditionalResponses;
 import ru.practicum.shareit.gateway.util.GatewayConstants;
 
 import java.util.List;
@@ -24,7 +26,7 @@ public class ItemRequestController {
     public Mono<ResponseEntity<ItemRequestDto>> createItemRequest(
             @Valid @RequestBody ItemRequestDto.ItemRequestCreateDto itemRequestDto,
             @RequestHeader(GatewayConstants.USER_ID_HEADER) Long userId) {
-        log.info("Creating item request for user {}: {}", userId, itemRequestDto);
+        log.debug("Creating item request for user {}: {}", userId, itemRequestDto);
         return shareItClient.post("/requests", itemRequestDto, ItemRequestDto.class, userId)
                 .map(ResponseEntity::ok)
                 .doOnError(error -> log.error("Error creating item request: {}", error.getMessage()));
@@ -33,7 +35,7 @@ public class ItemRequestController {
     @GetMapping
     public Mono<ResponseEntity<List<ItemRequestDto>>> getUserItemRequests(
             @RequestHeader(GatewayConstants.USER_ID_HEADER) Long userId) {
-        log.info("Getting item requests for user {}", userId);
+        log.debug("Getting item requests for user {}", userId);
         ParameterizedTypeReference<List<ItemRequestDto>> typeReference =
                 new ParameterizedTypeReference<List<ItemRequestDto>>() {
                 };
@@ -47,7 +49,7 @@ public class ItemRequestController {
             @RequestHeader(GatewayConstants.USER_ID_HEADER) Long userId,
             @RequestParam(defaultValue = "0") int from,
             @RequestParam(defaultValue = "10") int size) {
-        log.info("Getting other users item requests for user {} from {} size {}", userId, from, size);
+        log.debug("Getting other users item requests for user {} from {} size {}", userId, from, size);
         String path = String.format("/requests/all?from=%d&size=%d", from, size);
         ParameterizedTypeReference<List<ItemRequestDto>> typeReference =
                 new ParameterizedTypeReference<List<ItemRequestDto>>() {
@@ -60,10 +62,11 @@ public class ItemRequestController {
     @GetMapping("/{requestId}")
     public Mono<ResponseEntity<ItemRequestDto>> getItemRequestById(
             @PathVariable Long requestId,
-            @RequestHeader(GatewayConstants.USER_ID_HEADER) Long userId) {
-        log.info("Getting item request {} for user {}", requestId, userId);
-        return shareItClient.get("/requests/" + requestId, ItemRequestDto.class, userId)
-                .map(ResponseEntity::ok)
+            @RequestHeader(GatewayConstants.USER_ID_HEADER) Long userId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        log.debug("Getting item request {} for user {}", requestId, userId);
+        return shareItClient.getConditional("/requests/" + requestId, ItemRequestDto.class, userId, ifNoneMatch)
+                .map(ConditionalResponses::relay)
                 .doOnError(error -> log.error("Error getting item request: {}", error.getMessage()));
     }
 }
\ No newline at end of file
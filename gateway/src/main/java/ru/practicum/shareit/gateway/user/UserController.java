@@ -21,7 +21,7 @@ public class UserController {
 
     @PostMapping
     public Mono<ResponseEntity<UserDto>> createUser(@Valid @RequestBody UserDto userDto) {
-        log.info("Creating user: {}", userDto);
+        log.debug("Creating user: {}", userDto);
         return shareItClient.post("/users", userDto, UserDto.class, null)
                 .map(ResponseEntity::ok)
                 .doOnError(error -> log.error("Error creating user: {}", error.getMessage()));
@@ -31,7 +31,7 @@ public class UserController {
     public Mono<ResponseEntity<UserDto>> updateUser(
             @PathVariable Long userId,
             @RequestBody UserDto userDto) {
-        log.info("Updating user {} with data: {}", userId, userDto);
+        log.debug("Updating user {} with data: {}", userId, userDto);
         return shareItClient.patch("/users/" + userId, userDto, UserDto.class, null)
                 .map(ResponseEntity::ok)
                 .doOnError(error -> log.error("Error updating user: {}", error.getMessage()));
@@ -39,7 +39,7 @@ public class UserController {
 
     @GetMapping("/{userId}")
     public Mono<ResponseEntity<UserDto>> getUserById(@PathVariable Long userId) {
-        log.info("Getting user by id: {}", userId);
+        log.debug("Getting user by id: {}", userId);
         return shareItClient.get("/users/" + userId, UserDto.class, null)
                 .map(ResponseEntity::ok)
                 .doOnError(error -> log.error("Error getting user: {}", error.getMessage()));
@@ -47,7 +47,7 @@ public class UserController {
 
     @GetMapping
     public Mono<ResponseEntity<List<UserDto>>> getAllUsers() {
-        log.info("Getting all users");
+        log.debug("Getting all users");
         ParameterizedTypeReference<List<UserDto>> typeReference =
                 new ParameterizedTypeReference<List<UserDto>>() {
                 };
@@ -58,7 +58,7 @@ public class UserController {
 
     @DeleteMapping("/{userId}")
     public Mono<ResponseEntity<Object>> deleteUser(@PathVariable Long userId) {
-        log.info("Deleting user: {}", userId);
+        log.debug("Deleting user: {}", userId);
         return shareItClient.delete("/users/" + userId, null)
                 .then(Mono.just(ResponseEntity.ok().build()))
                 .doOnError(error -> log.error("Error deleting user: {}", error.getMessage()));
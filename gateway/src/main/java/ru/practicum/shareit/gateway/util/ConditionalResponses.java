@@ -0,0 +1,21 @@
+package ru.practicum.shareit.gateway.util;
+
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Ответ сервера на условный GET в виде ответа шлюза: статус (в том числе 304), тело и ETag.
+ * Остальные заголовки сервера клиенту не передаются.
+ */
+public class ConditionalResponses {
+    private ConditionalResponses() {
+    }
+
+    public static <T> ResponseEntity<T> relay(ResponseEntity<T> upstream) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(upstream.getStatusCode());
+        String eTag = upstream.getHeaders().getETag();
+        if (eTag != null) {
+            response.eTag(eTag);
+        }
+        return response.body(upstream.getBody());
+    }
+}
@@ -2,6 +2,9 @@ package ru.practicum.shareit.gateway.util;
 
 public class GatewayConstants {
     public static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String ITEMS_VERSION_HEADER = "X-Items-Version";
+    public static final String ITEM_OWNER_ID_HEADER = "X-Item-Owner-Id";
 
     private GatewayConstants() {
     }
@@ -0,0 +1,133 @@
+package ru.practicum.shareit.gateway;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Нагрузочная проверка шлюза на Netty против заглушки сервера с медленными ответами.
+ * <p>
+ * Одновременно открывается больше соединений, чем потоков у Tomcat по умолчанию (200).
+ * Заглушка не отвечает, пока до неё не дойдут все запросы, так что проверка не зависит
+ * от скорости машины: шлюз либо держит их все разом, либо тест упирается в таймаут.
+ * У шлюза при этом должны остаться только потоки event loop. Число потоков здесь заменяет замер памяти: стек каждого
+ * servlet-потока стоит около мегабайта.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "logging.level.org.springframework.web=INFO",
+        // проверяется event loop, а не лимит одновременных вызовов одного маршрута
+        "shareit-server.resilience.bulkhead.default-max-concurrent=500",
+        // очередь входящих соединений MockWebServer — 50, лишние SYN ядро повторяет через секунду
+        "shareit-server.connect-timeout=10s"
+})
+class GatewayLoadTest {
+    private static final int CONCURRENCY = 400;
+    private static final long ARRIVAL_TIMEOUT_SECONDS = 20;
+
+    private static final MockWebServer SERVER = new MockWebServer();
+    private static final SlowDispatcher DISPATCHER = new SlowDispatcher();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) throws IOException {
+        SERVER.setDispatcher(DISPATCHER);
+        SERVER.start();
+        registry.add("shareit-server.url", () -> SERVER.url("/").toString());
+    }
+
+    @AfterAll
+    static void tearDown() throws IOException {
+        SERVER.shutdown();
+    }
+
+    @Test
+    void gateway_shouldHoldManyConcurrentRequestsOnEventLoopThreads() {
+        ConnectionProvider provider = ConnectionProvider.builder("load-test")
+                .maxConnections(CONCURRENCY)
+                .build();
+        WebClient client = WebClient.builder()
+                .baseUrl("http://localhost:" + port)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(provider)))
+                .build();
+
+        long started = System.nanoTime();
+        List<HttpStatusCode> statuses = Flux.range(0, CONCURRENCY)
+                .flatMap(i -> client.get()
+                        .uri("/users/{id}", i + 1)
+                        .retrieve()
+                        .toBodilessEntity()
+                        .map(ResponseEntity::getStatusCode), CONCURRENCY)
+                .collectList()
+                .block(Duration.ofSeconds(60));
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+        provider.dispose();
+
+        assertThat(context).isInstanceOf(ReactiveWebServerApplicationContext.class);
+        assertThat(statuses).hasSize(CONCURRENCY).allMatch(HttpStatusCode::is2xxSuccessful);
+        assertThat(DISPATCHER.peak.get()).isEqualTo(CONCURRENCY);
+        assertThat(elapsed).isLessThan(Duration.ofSeconds(ARRIVAL_TIMEOUT_SECONDS));
+
+        int eventLoops = Math.max(Runtime.getRuntime().availableProcessors(), 4);
+        assertThat(threadsNamed("reactor-http")).isLessThanOrEqualTo(eventLoops * 2);
+        assertThat(threadsNamed("http-nio")).isZero();
+    }
+
+    private static long threadsNamed(String prefix) {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().startsWith(prefix))
+                .count();
+    }
+
+    private static final class SlowDispatcher extends Dispatcher {
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger peak = new AtomicInteger();
+        private final CountDownLatch arrived = new CountDownLatch(CONCURRENCY);
+
+        @Override
+        public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+            peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            arrived.countDown();
+            try {
+                arrived.await(ARRIVAL_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            return new MockResponse()
+                    .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .setBody("{\"id\":1,\"name\":\"User\",\"email\":\"user@email.com\"}");
+        }
+    }
+}
@@ -6,13 +6,19 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import ru.practicum.shareit.gateway.booking.dto.BookingDto;
 import ru.practicum.shareit.gateway.client.ShareItClient;
 import ru.practicum.shareit.gateway.util.GatewayConstants;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -154,8 +160,8 @@ class BookingControllerGatewayTest {
                 new BookingDto.Booker(1L, "Booker"),
                 new BookingDto.Item(1L, "Item"));
 
-        when(shareItClient.get(eq("/bookings/1"), eq(BookingDto.class), anyLong()))
-                .thenReturn(Mono.just(bookingDto));
+        when(shareItClient.getConditional(eq("/bookings/1"), eq(BookingDto.class), anyLong(), isNull()))
+                .thenReturn(Mono.just(ResponseEntity.ok().eTag("booking-1-0-0").body(bookingDto)));
 
         // When & Then
         webTestClient.get()
@@ -163,10 +169,28 @@ class BookingControllerGatewayTest {
                 .header(GatewayConstants.USER_ID_HEADER, "1")
                 .exchange()
                 .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"booking-1-0-0\"")
                 .expectBody()
                 .jsonPath("$.id").isEqualTo(1);
 
-        verify(shareItClient, times(1)).get(eq("/bookings/1"), eq(BookingDto.class), eq(1L));
+        verify(shareItClient, times(1)).getConditional(eq("/bookings/1"), eq(BookingDto.class), eq(1L), isNull());
+    }
+
+    @Test
+    void getBooking_shouldRelayNotModified() {
+        when(shareItClient.getConditional("/bookings/1", BookingDto.class, 1L, "\"booking-1-0-0\""))
+                .thenReturn(Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag("booking-1-0-0")
+                        .build()));
+
+        webTestClient.get()
+                .uri("/bookings/1")
+                .header(GatewayConstants.USER_ID_HEADER, "1")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"booking-1-0-0\"")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"booking-1-0-0\"")
+                .expectBody().isEmpty();
     }
 
     @Test
@@ -267,7 +291,7 @@ class BookingControllerGatewayTest {
     @Test
     void getBooking_whenNotFound_shouldReturnError() {
         // Given
-        when(shareItClient.get(eq("/bookings/999"), eq(BookingDto.class), anyLong()))
+        when(shareItClient.getConditional(eq("/bookings/999"), eq(BookingDto.class), anyLong(), isNull()))
                 .thenReturn(Mono.error(new RuntimeException("Not found")));
 
         // When & Then
@@ -277,6 +301,53 @@ class BookingControllerGatewayTest {
                 .exchange()
                 .expectStatus().is5xxServerError();
 
-        verify(shareItClient, times(1)).get(eq("/bookings/999"), eq(BookingDto.class), eq(1L));
+        verify(shareItClient, times(1)).getConditional(eq("/bookings/999"), eq(BookingDto.class), eq(1L), isNull());
+    }
+
+    @Test
+    void getOwnerBookings_withCursor_shouldPassCursorAndRelayNextCursor() {
+        // Given
+        BookingDto booking = new BookingDto(1L,
+                LocalDateTime.now().plusDays(1),
+                LocalDateTime.now().plusDays(2),
+                "WAITING",
+                new BookingDto.Booker(1L, "Booker"),
+                new BookingDto.Item(1L, "Item"));
+
+        ParameterizedTypeReference<List<BookingDto>> typeRef = new ParameterizedTypeReference<>() {
+        };
+        when(shareItClient.getEntity(eq("/bookings/owner?state=ALL&size=1&cursor=abc_-1"), eq(typeRef), anyLong()))
+                .thenReturn(Mono.just(ResponseEntity.ok()
+                        .header(GatewayConstants.NEXT_CURSOR_HEADER, "next_-2")
+                        .body(List.of(booking))));
+
+        // When & Then
+        webTestClient.get()
+                .uri("/bookings/owner?state=ALL&size=1&cursor=abc_-1")
+                .header(GatewayConstants.USER_ID_HEADER, "1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(GatewayConstants.NEXT_CURSOR_HEADER, "next_-2")
+                .expectBodyList(BookingDto.class)
+                .hasSize(1);
+
+        verify(shareItClient, never()).get(anyString(), eq(typeRef), anyLong());
+    }
+
+    @Test
+    void exportOwnerBookings_shouldRelayEveryChunk() {
+        DefaultDataBufferFactory buffers = DefaultDataBufferFactory.sharedInstance;
+        when(shareItClient.getStream("/bookings/owner/export", 1L))
+                .thenReturn(Flux.just(
+                        buffers.wrap("{\"id\":2}\n{\"id\":".getBytes(StandardCharsets.UTF_8)),
+                        buffers.wrap("1}\n".getBytes(StandardCharsets.UTF_8))));
+
+        webTestClient.get()
+                .uri("/bookings/owner/export")
+                .header(GatewayConstants.USER_ID_HEADER, "1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class).isEqualTo("{\"id\":2}\n{\"id\":1}\n");
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,125 @@
+package ru.practicum.shareit.gateway.client;
+
+import io.micrometer.core.instrument.Metrics;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Поведение шлюза, когда сервер перестаёт успевать: пул из {@link #POOL} соединений
+ * и очередь из {@link #PENDING} ожидающих, а запросов приходит в несколько раз больше.
+ * <p>
+ * Без ограничений все {@link #REQUESTS} запросов висели бы в памяти шлюза до ответа сервера.
+ * С ограничениями до сервера доходит не больше {@link #POOL} запросов одновременно,
+ * очередь обслуживается следующей волной, а остальные сразу получают 503.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "shareit-server.max-connections=20",
+        "shareit-server.pending-acquire-max-count=20",
+        "shareit-server.pending-acquire-timeout=5s",
+        // повторы проверяются отдельно, здесь каждый запрос должен один раз дойти до пула
+        "shareit-server.resilience.retry.max-retries=0",
+        "logging.level.org.springframework.web=INFO"
+})
+class ShareItClientSaturationTest {
+    private static final int POOL = 20;
+    private static final int PENDING = 20;
+    private static final int REQUESTS = 200;
+    // Ответ заметно дольше, чем нужно на открытие всех соединений даже на одном ядре
+    private static final long DELAY_MS = 2000;
+
+    private static final MockWebServer SERVER = new MockWebServer();
+    private static final SlowDispatcher DISPATCHER = new SlowDispatcher();
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void serverUrl(DynamicPropertyRegistry registry) throws IOException {
+        SERVER.setDispatcher(DISPATCHER);
+        SERVER.start();
+        registry.add("shareit-server.url", () -> SERVER.url("/").toString());
+    }
+
+    @AfterAll
+    static void tearDown() throws IOException {
+        SERVER.shutdown();
+    }
+
+    @Test
+    void gateway_shouldBoundInFlightRequestsAndShedTheRest() {
+        ConnectionProvider provider = ConnectionProvider.builder("saturation-test")
+                .maxConnections(REQUESTS)
+                .build();
+        WebClient client = WebClient.builder()
+                .baseUrl("http://localhost:" + port)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(provider)))
+                .build();
+
+        long started = System.nanoTime();
+        List<HttpStatusCode> statuses = Flux.range(0, REQUESTS)
+                .flatMap(i -> client.get()
+                        .uri("/users/{id}", i + 1)
+                        .exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode())),
+                        REQUESTS)
+                .collectList()
+                .block(Duration.ofSeconds(30));
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+        provider.dispose();
+
+        long served = statuses.stream().filter(HttpStatusCode::is2xxSuccessful).count();
+        long shed = statuses.stream().filter(status -> status.value() == HttpStatus.SERVICE_UNAVAILABLE.value())
+                .count();
+        assertThat(served + shed).isEqualTo(REQUESTS);
+        assertThat(served).isGreaterThanOrEqualTo(POOL).isLessThanOrEqualTo(POOL + PENDING + POOL / 2);
+        assertThat(DISPATCHER.peak.get()).isLessThanOrEqualTo(POOL);
+        assertThat(elapsed).isLessThan(Duration.ofMillis(DELAY_MS * 6));
+
+        assertThat(Metrics.globalRegistry.find("reactor.netty.connection.provider.max.connections")
+                .tag("name", "shareit-server")
+                .gauge())
+                .isNotNull()
+                .satisfies(gauge -> assertThat(gauge.value()).isEqualTo(POOL));
+    }
+
+    private static final class SlowDispatcher extends Dispatcher {
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger peak = new AtomicInteger();
+
+        @Override
+        public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+            peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(DELAY_MS);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+            return new MockResponse()
+                    .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .setBody("{\"id\":1,\"name\":\"User\",\"email\":\"user@email.com\"}");
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package ru.practicum.shareit.gateway.client.resilience;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.gateway.client.ShareItServerProperties;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+    private final AtomicLong now = new AtomicLong();
+    private CircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        ShareItServerProperties.CircuitBreaker properties = new ShareItServerProperties.CircuitBreaker();
+        properties.setSlidingWindowSize(10);
+        properties.setMinimumCalls(4);
+        properties.setFailureRateThreshold(0.5);
+        properties.setOpenDuration(Duration.ofSeconds(10));
+        properties.setHalfOpenCalls(2);
+        breaker = new CircuitBreaker(properties, now::get);
+    }
+
+    @Test
+    void shouldStayClosedBelowMinimumCalls() {
+        call(false);
+        call(false);
+        call(false);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void shouldOpenWhenFailureRateReachesThreshold() {
+        call(true);
+        call(true);
+        call(false);
+        call(false);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void shouldForgetFailuresThatLeftTheWindow() {
+        call(true);
+        for (int i = 0; i < 10; i++) {
+            call(false);
+        }
+        for (int i = 0; i < 4; i++) {
+            call(true);
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        call(true);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+    }
+
+    @Test
+    void shouldCloseAfterSuccessfulTrialCalls() {
+        openBreaker();
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.state());
+
+        breaker.onSuccess();
+        breaker.onSuccess();
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+        call(true);
+        call(true);
+        call(true);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+    }
+
+    @Test
+    void shouldReopenWhenTrialCallFails() {
+        openBreaker();
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+        now.addAndGet(Duration.ofSeconds(9).toNanos());
+        assertFalse(breaker.tryAcquire());
+    }
+
+    @Test
+    void shouldReturnTrialPermitOnCancel() {
+        openBreaker();
+        now.addAndGet(Duration.ofSeconds(10).toNanos());
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+
+        breaker.onCancel();
+
+        assertTrue(breaker.tryAcquire());
+    }
+
+    private void openBreaker() {
+        for (int i = 0; i < 4; i++) {
+            call(true);
+        }
+        assertEquals(CircuitBreaker.State.OPEN, breaker.state());
+    }
+
+    private void call(boolean failure) {
+        if (!breaker.tryAcquire()) {
+            return;
+        }
+        if (failure) {
+            breaker.onFailure();
+        } else {
+            breaker.onSuccess();
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package ru.practicum.shareit.gateway.client.resilience;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import ru.practicum.shareit.gateway.client.ShareItServerProperties;
+import ru.practicum.shareit.gateway.exception.ServerUnavailableException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ShareItResilienceTest {
+    private MockWebServer server;
+    private WebClient webClient;
+    private ShareItServerProperties.Resilience properties;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        webClient = WebClient.create(server.url("/").toString());
+        properties = new ShareItServerProperties.Resilience();
+        properties.getRetry().setInitialBackoff(Duration.ofMillis(1));
+        properties.getCircuitBreaker().setMinimumCalls(4);
+        properties.getCircuitBreaker().setSlidingWindowSize(10);
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    void get_shouldRetryUnavailableServer() {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setResponseCode(200).setBody("ok"));
+
+        StepVerifier.create(resilience().guard(HttpMethod.GET, "/users/1", get("/users/1")))
+                .expectNext("ok")
+                .verifyComplete();
+        assertEquals(2, server.getRequestCount());
+        assertEquals(1, meterRegistry.counter("shareit.client.retries",
+                "route", "users", "outcome", "retried").count());
+    }
+
+    @Test
+    void post_shouldNotBeRetried() {
+        server.enqueue(new MockResponse().setResponseCode(503));
+
+        Mono<String> call = webClient.post().uri("/bookings").retrieve().bodyToMono(String.class);
+
+        StepVerifier.create(resilience().guard(HttpMethod.POST, "/bookings", call))
+                .expectError(WebClientResponseException.ServiceUnavailable.class)
+                .verify();
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    void get_shouldNotRetryClientError() {
+        server.enqueue(new MockResponse().setResponseCode(404));
+
+        StepVerifier.create(resilience().guard(HttpMethod.GET, "/items/1", get("/items/1")))
+                .expectError(WebClientResponseException.NotFound.class)
+                .verify();
+        assertEquals(1, server.getRequestCount());
+    }
+
+    @Test
+    void get_shouldStopRetryingWhenBudgetIsSpent() {
+        properties.getRetry().setBudgetRatio(0);
+        properties.getRetry().setMinRetriesPerSecond(0);
+        for (int i = 0; i < 3; i++) {
+            server.enqueue(new MockResponse().setResponseCode(503));
+        }
+        ShareItResilience resilience = resilience();
+
+        StepVerifier.create(resilience.guard(HttpMethod.GET, "/users/1", get("/users/1")))
+                .expectError(WebClientResponseException.ServiceUnavailable.class)
+                .verify();
+        StepVerifier.create(resilience.guard(HttpMethod.GET, "/users/1", get("/users/1")))
+                .expectError(WebClientResponseException.ServiceUnavailable.class)
+                .verify();
+
+        assertEquals(3, server.getRequestCount());
+        assertEquals(2, meterRegistry.counter("shareit.client.retries",
+                "route", "users", "outcome", "budget_exhausted").count());
+    }
+
+    @Test
+    void circuitBreaker_shouldRejectCallsWithoutReachingServer() {
+        properties.getRetry().setMaxRetries(0);
+        for (int i = 0; i < 4; i++) {
+            server.enqueue(new MockResponse().setResponseCode(500));
+        }
+        ShareItResilience resilience = resilience();
+        for (int i = 0; i < 4; i++) {
+            StepVerifier.create(resilience.guard(HttpMethod.GET, "/requests/1", get("/requests/1")))
+                    .expectError(WebClientResponseException.InternalServerError.class)
+                    .verify();
+        }
+
+        StepVerifier.create(resilience.guard(HttpMethod.GET, "/requests/1", get("/requests/1")))
+                .expectError(ServerUnavailableException.class)
+                .verify();
+
+        assertEquals(4, server.getRequestCount());
+        assertEquals(CircuitBreaker.State.OPEN, resilience.state("requests"));
+        assertEquals(CircuitBreaker.State.CLOSED, resilience.state("users"));
+        assertEquals(1, meterRegistry.counter("shareit.client.calls.rejected",
+                "route", "requests", "reason", "circuit_open").count());
+    }
+
+    @Test
+    void bulkhead_shouldKeepSlowSearchFromBlockingBookings() throws InterruptedException {
+        properties.getBulkhead().setMaxConcurrent(Map.of("items.search", 1));
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                MockResponse response = new MockResponse().setResponseCode(200).setBody("ok");
+                if (request.getPath().startsWith("/items/search")) {
+                    response.setHeadersDelay(500, TimeUnit.MILLISECONDS);
+                }
+                return response;
+            }
+        });
+        ShareItResilience resilience = resilience();
+
+        Mono<String> slowSearch = resilience.guard(HttpMethod.GET, "/items/search?text=drill",
+                get("/items/search?text=drill")).cache();
+        slowSearch.subscribe();
+        server.takeRequest(1, TimeUnit.SECONDS);
+
+        StepVerifier.create(resilience.guard(HttpMethod.GET, "/items/search?text=saw",
+                        get("/items/search?text=saw")))
+                .expectError(ServerUnavailableException.class)
+                .verify();
+        StepVerifier.create(resilience.guard(HttpMethod.GET, "/bookings/1", get("/bookings/1")))
+                .expectNext("ok")
+                .verifyComplete();
+        StepVerifier.create(slowSearch)
+                .expectNext("ok")
+                .verifyComplete();
+        assertEquals(1, meterRegistry.counter("shareit.client.calls.rejected",
+                "route", "items.search", "reason", "bulkhead_full").count());
+    }
+
+    @Test
+    void routeOf_shouldSeparateSearchFromOtherItemCalls() {
+        assertEquals("items.search", ShareItResilience.routeOf("/items/search?text=a&from=0&size=10"));
+        assertEquals("items", ShareItResilience.routeOf("/items/1/comment"));
+        assertEquals("bookings", ShareItResilience.routeOf("/bookings/owner?state=ALL"));
+        assertEquals("users", ShareItResilience.routeOf("/users"));
+    }
+
+    private ShareItResilience resilience() {
+        return new ShareItResilience(properties, meterRegistry);
+    }
+
+    private Mono<String> get(String path) {
+        return webClient.get().uri(path).retrieve().bodyToMono(String.class);
+    }
+}
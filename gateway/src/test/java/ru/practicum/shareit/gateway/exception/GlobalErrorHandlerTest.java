@@ -1,13 +1,19 @@
 package ru.practicum.shareit.gateway.exception;
 
+import io.netty.handler.timeout.ReadTimeoutException;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 
+import java.net.ConnectException;
+import java.net.URI;
 import java.util.Collections;
 import java.util.List;
 
@@ -158,4 +164,28 @@ class GlobalErrorHandlerTest {
         assertNotEquals(response1, response3);
         assertEquals(response1.hashCode(), response2.hashCode());
     }
-}
\ No newline at end of file
+
+    @Test
+    void handleServerUnavailable_withResponseTimeout_shouldReturnGatewayTimeout() {
+        WebClientRequestException ex = requestException(ReadTimeoutException.INSTANCE);
+
+        ResponseEntity<GlobalErrorHandler.ErrorResponse> response = handler.handleServerUnavailable(ex);
+
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, response.getStatusCode());
+    }
+
+    @Test
+    void handleServerUnavailable_withRefusedConnection_shouldReturnServiceUnavailable() {
+        WebClientRequestException ex = requestException(new ConnectException("Connection refused"));
+
+        ResponseEntity<GlobalErrorHandler.ErrorResponse> response = handler.handleServerUnavailable(ex);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("Server unavailable", response.getBody().error());
+    }
+
+    private WebClientRequestException requestException(Throwable cause) {
+        return new WebClientRequestException(cause, HttpMethod.GET, URI.create("http://localhost/items"),
+                new HttpHeaders());
+    }
+}
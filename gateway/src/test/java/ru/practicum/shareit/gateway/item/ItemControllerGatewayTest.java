@@ -1,27 +1,41 @@
 package ru.practicum.shareit.gateway.item;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import ru.practicum.shareit.gateway.client.ShareItClient;
 import ru.practicum.shareit.gateway.item.dto.CommentDto;
+import ru.practicum.shareit.gateway.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.gateway.item.dto.ItemDto;
 import ru.practicum.shareit.gateway.util.GatewayConstants;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @WebFluxTest(ItemController.class)
+@Import({ItemSearchCache.class, ItemViewCoalescer.class})
 class ItemControllerGatewayTest {
 
     @Autowired
@@ -82,8 +96,10 @@ class ItemControllerGatewayTest {
     void getItemById_shouldReturnItem() {
         ItemDto item = new ItemDto(1L, "Item1", "Desc", true, null, null, null, null);
 
-        when(shareItClient.get(eq("/items/1"), eq(ItemDto.class), eq(1L)))
-                .thenReturn(Mono.just(item));
+        when(shareItClient.getConditional(eq("/items/1"), eq(ItemDto.class), eq(1L), isNull()))
+                .thenReturn(Mono.just(ResponseEntity.ok()
+                        .header(GatewayConstants.ITEM_OWNER_ID_HEADER, "1")
+                        .body(item)));
 
         webTestClient.get()
                 .uri("/items/1")
@@ -94,7 +110,7 @@ class ItemControllerGatewayTest {
                 .jsonPath("$.id").isEqualTo(1)
                 .jsonPath("$.name").isEqualTo("Item1");
 
-        verify(shareItClient, times(1)).get(eq("/items/1"), eq(ItemDto.class), eq(1L));
+        verify(shareItClient, times(1)).getConditional(eq("/items/1"), eq(ItemDto.class), eq(1L), isNull());
     }
 
     @Test
@@ -127,8 +143,8 @@ class ItemControllerGatewayTest {
 
         ParameterizedTypeReference<List<ItemDto>> typeRef = new ParameterizedTypeReference<>() {
         };
-        when(shareItClient.get(eq("/items/search?text=Search&from=0&size=10"), eq(typeRef), eq(1L)))
-                .thenReturn(Mono.just(items));
+        when(shareItClient.getEntity(eq("/items/search?text=search&from=0&size=10"), eq(typeRef), eq(1L)))
+                .thenReturn(Mono.just(ResponseEntity.ok(items)));
 
         webTestClient.get()
                 .uri("/items/search?text=Search&from=0&size=10")
@@ -139,7 +155,40 @@ class ItemControllerGatewayTest {
                 .hasSize(1)
                 .contains(item);
 
-        verify(shareItClient, times(1)).get(eq("/items/search?text=Search&from=0&size=10"), eq(typeRef), eq(1L));
+        verify(shareItClient, times(1)).getEntity(eq("/items/search?text=search&from=0&size=10"), eq(typeRef), eq(1L));
+    }
+
+    @Test
+    void searchItems_shouldServeRepeatedSearchFromCacheUntilItemChanges() {
+        ItemDto item = new ItemDto(1L, "Drill", "Desc", true, null, null, null, null);
+        when(shareItClient.getEntity(eq("/items/search?text=drill&from=0&size=10"), any(), any()))
+                .thenReturn(Mono.just(ResponseEntity.ok(List.of(item))));
+        when(shareItClient.patch(eq("/items/1"), any(ItemDto.class), eq(ItemDto.class), eq(1L)))
+                .thenReturn(Mono.just(item));
+
+        for (String text : List.of("drill", " Drill ", "DRILL")) {
+            webTestClient.get()
+                    .uri("/items/search?text={text}&from=0&size=10", text)
+                    .exchange()
+                    .expectStatus().isOk()
+                    .expectBodyList(ItemDto.class)
+                    .contains(item);
+        }
+        verify(shareItClient, times(1)).getEntity(eq("/items/search?text=drill&from=0&size=10"), any(), any());
+
+        webTestClient.patch()
+                .uri("/items/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(item)
+                .header(GatewayConstants.USER_ID_HEADER, "1")
+                .exchange()
+                .expectStatus().isOk();
+        webTestClient.get()
+                .uri("/items/search?text=drill&from=0&size=10")
+                .exchange()
+                .expectStatus().isOk();
+
+        verify(shareItClient, times(2)).getEntity(eq("/items/search?text=drill&from=0&size=10"), any(), any());
     }
 
     @Test
@@ -176,7 +225,7 @@ class ItemControllerGatewayTest {
 
     @Test
     void getItemById_whenItemNotFound_shouldReturnEmptyBody() {
-        when(shareItClient.get("/items/99", ItemDto.class, 1L))
+        when(shareItClient.getConditional(eq("/items/99"), eq(ItemDto.class), eq(1L), isNull()))
                 .thenReturn(Mono.empty());
 
         webTestClient.get()
@@ -187,4 +236,58 @@ class ItemControllerGatewayTest {
                 .expectBody().isEmpty();
     }
 
+    @Test
+    void getAvailability_shouldProxyWindowToServer() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime to = LocalDateTime.of(2030, 1, 2, 10, 0);
+        when(shareItClient.get("/items/1/availability?from=2030-01-01T10:00&to=2030-01-02T10:00",
+                ItemAvailabilityDto.class, 1L))
+                .thenReturn(Mono.just(new ItemAvailabilityDto(1L, from, to, true)));
+
+        webTestClient.get()
+                .uri("/items/1/availability?from=2030-01-01T10:00:00&to=2030-01-02T10:00:00")
+                .header(GatewayConstants.USER_ID_HEADER, "1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.itemId").isEqualTo(1)
+                .jsonPath("$.available").isEqualTo(true);
+    }
+
+    @Test
+    void getAvailability_withInvertedWindow_shouldReturnBadRequest() {
+        webTestClient.get()
+                .uri("/items/1/availability?from=2030-01-02T10:00:00&to=2030-01-01T10:00:00")
+                .header(GatewayConstants.USER_ID_HEADER, "1")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verifyNoInteractions(shareItClient);
+    }
+
+    @Test
+    void createItems_shouldRelayNdjsonStream() {
+        String results = "{\"row\":0,\"id\":1}\n{\"row\":1,\"error\":\"Name cannot be empty\"}\n";
+        DataBuffer buffer = DefaultDataBufferFactory.sharedInstance.wrap(results.getBytes(StandardCharsets.UTF_8));
+        when(shareItClient.postStream(eq("/items/bulk"), any(), eq(MediaType.APPLICATION_NDJSON), eq(1L)))
+                .thenReturn(Flux.just(buffer));
+
+        webTestClient.post()
+                .uri("/items/bulk")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue("{\"name\":\"Item1\",\"description\":\"Desc\",\"available\":true}\n{\"name\":\"\"}\n")
+                .header(GatewayConstants.USER_ID_HEADER, "1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class).isEqualTo(results);
+    }
+
+    @TestConfiguration
+    static class MetricsConfig {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
 }
@@ -0,0 +1,133 @@
+package ru.practicum.shareit.gateway.item;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+import ru.practicum.shareit.gateway.item.dto.ItemDto;
+import ru.practicum.shareit.gateway.util.GatewayConstants;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ItemSearchCacheTest {
+    private static final ItemDto DRILL = new ItemDto(1L, "Drill", "Desc", true, null, null, null, null);
+
+    private SimpleMeterRegistry meterRegistry;
+    private ItemSearchCache cache;
+    private AtomicInteger upstreamCalls;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new ItemSearchCache(meterRegistry, 100, Duration.ofMinutes(1));
+        upstreamCalls = new AtomicInteger();
+    }
+
+    @Test
+    void search_shouldSendOneRequestForConcurrentIdenticalSearches() {
+        Sinks.One<ResponseEntity<List<ItemDto>>> response = Sinks.one();
+
+        List<Mono<List<ItemDto>>> searches = Flux.range(0, 50)
+                .map(i -> cache.search("drill", 0, 10, text -> {
+                    upstreamCalls.incrementAndGet();
+                    return response.asMono();
+                }))
+                .collectList()
+                .block();
+        Mono<List<List<ItemDto>>> all = Flux.merge(searches).collectList();
+
+        StepVerifier.create(all)
+                .then(() -> response.tryEmitValue(version(1, DRILL)))
+                .assertNext(results -> {
+                    assertEquals(50, results.size());
+                    results.forEach(items -> assertEquals(List.of(DRILL), items));
+                })
+                .verifyComplete();
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    void search_shouldShareEntryForSameNormalizedText() {
+        for (String text : List.of("Drill", "  drill ", "DRILL")) {
+            StepVerifier.create(cache.search(text, 0, 10, this::upstream))
+                    .expectNext(List.of(DRILL))
+                    .verifyComplete();
+        }
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(2, meterRegistry.get("cache.gets").tag("cache", "items.search")
+                .tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void search_shouldKeepPagesApart() {
+        cache.search("drill", 0, 10, this::upstream).block();
+        cache.search("drill", 10, 10, this::upstream).block();
+
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void search_shouldDropEntriesOlderThanServerVersion() {
+        cache.search("drill", 0, 10, text -> upstreamWithVersion(1)).block();
+        cache.search("saw", 0, 10, text -> upstreamWithVersion(2)).block();
+
+        cache.search("drill", 0, 10, text -> upstreamWithVersion(2)).block();
+        cache.search("saw", 0, 10, text -> upstreamWithVersion(2)).block();
+
+        assertEquals(3, upstreamCalls.get());
+    }
+
+    @Test
+    void search_shouldNotCacheErrors() {
+        StepVerifier.create(cache.search("drill", 0, 10,
+                        text -> Mono.error(new IllegalStateException("Server is down"))))
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        StepVerifier.create(cache.search("drill", 0, 10, this::upstream))
+                .expectNext(List.of(DRILL))
+                .verifyComplete();
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    void invalidateAll_shouldForceNextSearchToServer() {
+        cache.search("drill", 0, 10, this::upstream).block();
+        cache.invalidateAll();
+        cache.search("drill", 0, 10, this::upstream).block();
+
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void normalize_shouldTrimAndLowerCase() {
+        assertEquals("drill", ItemSearchCache.normalize("  DrILL "));
+        assertEquals("", ItemSearchCache.normalize(null));
+    }
+
+    private Mono<ResponseEntity<List<ItemDto>>> upstream(String text) {
+        return upstreamWithVersion(1);
+    }
+
+    private Mono<ResponseEntity<List<ItemDto>>> upstreamWithVersion(long version) {
+        return Mono.fromSupplier(() -> {
+            upstreamCalls.incrementAndGet();
+            return version(version, DRILL);
+        });
+    }
+
+    private static ResponseEntity<List<ItemDto>> version(long version, ItemDto... items) {
+        return ResponseEntity.ok()
+                .header(GatewayConstants.ITEMS_VERSION_HEADER, String.valueOf(version))
+                .body(List.of(items));
+    }
+}
@@ -0,0 +1,198 @@
+package ru.practicum.shareit.gateway.item;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+import ru.practicum.shareit.gateway.item.dto.ItemDto;
+import ru.practicum.shareit.gateway.util.GatewayConstants;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ItemViewCoalescerTest {
+    private static final long OWNER_ID = 1L;
+    private static final ItemDto PUBLIC_VIEW = new ItemDto(10L, "Drill", "Desc", true, null, null, null, null);
+    private static final ItemDto OWNER_VIEW = new ItemDto(10L, "Drill", "Desc", true, null,
+            new ItemDto.BookingShortDto(5L, 2L), null, null);
+
+    private SimpleMeterRegistry meterRegistry;
+    private ItemViewCoalescer coalescer;
+    private ConcurrentMap<Long, AtomicInteger> upstreamCalls;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        coalescer = new ItemViewCoalescer(meterRegistry, 1000);
+        upstreamCalls = new ConcurrentHashMap<>();
+    }
+
+    @Test
+    void getItem_shouldCollapseConcurrentNonOwnerRequestsIntoOneUpstreamCall() {
+        coalescer.getItem(10L, 2L, null, immediate(2L)).block();
+        Sinks.One<ResponseEntity<ItemDto>> slow = Sinks.one();
+
+        Mono<List<ItemDto>> viral = Flux.range(100, 200)
+                .flatMap(userId -> coalescer.getItem(10L, (long) userId, null, delayed((long) userId, slow))
+                        .map(ResponseEntity::getBody)
+                        .subscribeOn(Schedulers.parallel()), 200)
+                .collectList();
+
+        StepVerifier.create(viral)
+                .then(() -> {
+                    awaitInFlight();
+                    slow.tryEmitValue(response(PUBLIC_VIEW));
+                })
+                .assertNext(items -> {
+                    assertEquals(200, items.size());
+                    items.forEach(item -> assertEquals(PUBLIC_VIEW, item));
+                })
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        int upstream = upstreamCalls.values().stream().mapToInt(AtomicInteger::get).sum();
+        assertEquals(2, upstream);
+        assertEquals(199, meterRegistry.counter("shareit.items.get.requests", "outcome", "coalesced").count());
+        assertEquals(2, meterRegistry.counter("shareit.items.get.requests", "outcome", "upstream").count());
+    }
+
+    @Test
+    void getItem_shouldNotShareOwnerViewWithOtherUsers() {
+        coalescer.getItem(10L, 2L, null, immediate(2L)).block();
+        Sinks.One<ResponseEntity<ItemDto>> ownerResponse = Sinks.one();
+        Sinks.One<ResponseEntity<ItemDto>> publicResponse = Sinks.one();
+
+        Mono<ResponseEntity<ItemDto>> owner = coalescer.getItem(10L, OWNER_ID, null,
+                delayed(OWNER_ID, ownerResponse));
+        Mono<ResponseEntity<ItemDto>> other = coalescer.getItem(10L, 3L, null, delayed(3L, publicResponse));
+
+        StepVerifier.create(Mono.zip(owner.map(ResponseEntity::getBody), other.map(ResponseEntity::getBody)))
+                .then(() -> {
+                    ownerResponse.tryEmitValue(response(OWNER_VIEW));
+                    publicResponse.tryEmitValue(response(PUBLIC_VIEW));
+                })
+                .assertNext(views -> {
+                    assertEquals(OWNER_VIEW, views.getT1());
+                    assertEquals(PUBLIC_VIEW, views.getT2());
+                })
+                .verifyComplete();
+        assertEquals(1, upstreamCalls.get(OWNER_ID).get());
+        assertEquals(1, upstreamCalls.get(3L).get());
+    }
+
+    @Test
+    void getItem_shouldNotCollapseDifferentUsersWhileOwnerIsUnknown() {
+        coalescer.getItem(10L, 2L, null, immediate(2L)).block();
+        coalescer.getItem(11L, 2L, null, immediate(2L)).block();
+        coalescer.getItem(11L, 3L, null, immediate(3L)).block();
+
+        assertEquals(2, upstreamCalls.get(2L).get());
+        assertEquals(1, upstreamCalls.get(3L).get());
+    }
+
+    @Test
+    void getItem_shouldGoUpstreamAgainAfterResponse() {
+        coalescer.getItem(10L, 2L, null, immediate(2L)).block();
+        coalescer.getItem(10L, 2L, null, immediate(2L)).block();
+
+        assertEquals(2, upstreamCalls.get(2L).get());
+    }
+
+    @Test
+    void getItem_shouldPropagateErrorToAllWaitersWithoutKeepingIt() {
+        Sinks.One<ResponseEntity<ItemDto>> failing = Sinks.one();
+        Mono<ResponseEntity<ItemDto>> first = coalescer.getItem(10L, 2L, null, delayed(2L, failing));
+        Mono<ResponseEntity<ItemDto>> second = coalescer.getItem(10L, 2L, null, delayed(2L, failing));
+
+        StepVerifier.create(Flux.merge(first, second))
+                .then(() -> failing.tryEmitError(new IllegalStateException("Server is down")))
+                .expectError(IllegalStateException.class)
+                .verify();
+        StepVerifier.create(coalescer.getItem(10L, 2L, null, immediate(2L)).map(ResponseEntity::getBody))
+                .expectNext(PUBLIC_VIEW)
+                .verifyComplete();
+
+        assertEquals(2, upstreamCalls.get(2L).get());
+    }
+
+    @Test
+    void getItem_shouldKeepSharedCallWhenOneWaiterCancels() {
+        Sinks.One<ResponseEntity<ItemDto>> slow = Sinks.one();
+        Mono<ResponseEntity<ItemDto>> first = coalescer.getItem(10L, 2L, null, delayed(2L, slow));
+        Mono<ResponseEntity<ItemDto>> second = coalescer.getItem(10L, 2L, null, delayed(2L, slow));
+
+        first.subscribe().dispose();
+        StepVerifier.create(second.map(ResponseEntity::getBody))
+                .then(() -> slow.tryEmitValue(response(PUBLIC_VIEW)))
+                .expectNext(PUBLIC_VIEW)
+                .verifyComplete();
+        assertEquals(1, upstreamCalls.get(2L).get());
+    }
+
+    @Test
+    void getItem_shouldNotShareNotModifiedWithUnconditionalRequests() {
+        coalescer.getItem(10L, 2L, null, immediate(2L)).block();
+        Sinks.One<ResponseEntity<ItemDto>> notModified = Sinks.one();
+        Sinks.One<ResponseEntity<ItemDto>> full = Sinks.one();
+
+        Mono<ResponseEntity<ItemDto>> conditional = coalescer.getItem(10L, 3L, "\"item-10-1\"",
+                delayed(3L, notModified));
+        Mono<ResponseEntity<ItemDto>> unconditional = coalescer.getItem(10L, 4L, null, delayed(4L, full));
+
+        StepVerifier.create(Mono.zip(conditional, unconditional))
+                .then(() -> {
+                    notModified.tryEmitValue(ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                            .eTag("item-10-1")
+                            .build());
+                    full.tryEmitValue(response(PUBLIC_VIEW));
+                })
+                .assertNext(responses -> {
+                    assertEquals(HttpStatus.NOT_MODIFIED, responses.getT1().getStatusCode());
+                    assertEquals("\"item-10-1\"", responses.getT1().getHeaders().getETag());
+                    assertEquals(PUBLIC_VIEW, responses.getT2().getBody());
+                })
+                .verifyComplete();
+        assertEquals(1, upstreamCalls.get(3L).get());
+        assertEquals(1, upstreamCalls.get(4L).get());
+    }
+
+    private void awaitInFlight() {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (meterRegistry.counter("shareit.items.get.requests", "outcome", "coalesced").count() < 199
+                && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private Supplier<Mono<ResponseEntity<ItemDto>>> immediate(Long userId) {
+        return () -> {
+            upstreamCalls.computeIfAbsent(userId, id -> new AtomicInteger()).incrementAndGet();
+            return Mono.just(response(PUBLIC_VIEW));
+        };
+    }
+
+    private Supplier<Mono<ResponseEntity<ItemDto>>> delayed(Long userId, Sinks.One<ResponseEntity<ItemDto>> sink) {
+        return () -> {
+            upstreamCalls.computeIfAbsent(userId, id -> new AtomicInteger()).incrementAndGet();
+            return sink.asMono();
+        };
+    }
+
+    private static ResponseEntity<ItemDto> response(ItemDto item) {
+        return ResponseEntity.ok()
+                .header(GatewayConstants.ITEM_OWNER_ID_HEADER, String.valueOf(OWNER_ID))
+                .body(item);
+    }
+}
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.gateway.logging;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import ru.practicum.shareit.gateway.util.GatewayConstants;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AccessLogFilterTest {
+    private static final Duration NEVER_SLOW = Duration.ofHours(1);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<String> lines = new ArrayList<>();
+
+    @Test
+    void sampledRequest_shouldBeWrittenAsJsonWithRoute() throws Exception {
+        AccessLogFilter filter = new AccessLogFilter(0.1, NEVER_SLOW, () -> 0.05, lines::add);
+
+        run(filter, HttpStatus.OK);
+
+        assertEquals(1, lines.size());
+        JsonNode line = objectMapper.readTree(lines.get(0));
+        assertEquals("GET", line.get("method").asText());
+        assertEquals("/items/{itemId}", line.get("route").asText());
+        assertEquals("/items/42", line.get("path").asText());
+        assertEquals(200, line.get("status").asInt());
+        assertEquals("7", line.get("userId").asText());
+        assertEquals(0.1, line.get("sampleRate").asDouble());
+        assertTrue(line.get("durationMs").asDouble() >= 0);
+        assertTrue(line.hasNonNull("ts"));
+    }
+
+    @Test
+    void requestOutsideSample_shouldNotBeRendered() {
+        AccessLogFilter filter = new AccessLogFilter(0.1, NEVER_SLOW, () -> 0.5, lines::add);
+
+        run(filter, HttpStatus.OK);
+        run(filter, HttpStatus.NOT_FOUND);
+
+        assertTrue(lines.isEmpty());
+    }
+
+    @Test
+    void serverErrorsAndSlowRequests_shouldAlwaysBeWritten() throws Exception {
+        run(new AccessLogFilter(0.0, NEVER_SLOW, () -> 0.5, lines::add), HttpStatus.SERVICE_UNAVAILABLE);
+        run(new AccessLogFilter(0.0, Duration.ZERO, () -> 0.5, lines::add), HttpStatus.OK);
+
+        assertEquals(2, lines.size());
+        assertEquals(503, objectMapper.readTree(lines.get(0)).get("status").asInt());
+        assertEquals(1.0, objectMapper.readTree(lines.get(0)).get("sampleRate").asDouble());
+        assertEquals(200, objectMapper.readTree(lines.get(1)).get("status").asInt());
+        assertEquals(1.0, objectMapper.readTree(lines.get(1)).get("sampleRate").asDouble());
+    }
+
+    @Test
+    void unhandledError_shouldBeWrittenAs500() throws Exception {
+        AccessLogFilter filter = new AccessLogFilter(0.0, NEVER_SLOW, () -> 0.5, lines::add);
+        WebFilterChain chain = exchange -> Mono.error(new IllegalStateException("boom"));
+
+        StepVerifier.create(filter.filter(exchange(), chain))
+                .verifyError(IllegalStateException.class);
+
+        assertEquals(1, lines.size());
+        JsonNode line = objectMapper.readTree(lines.get(0));
+        assertEquals(500, line.get("status").asInt());
+        assertEquals("UNMATCHED", line.get("route").asText());
+    }
+
+    @Test
+    void invalidSampleRate_shouldBeRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new AccessLogFilter(1.5, NEVER_SLOW, () -> 0.5, lines::add));
+    }
+
+    private void run(AccessLogFilter filter, HttpStatus status) {
+        WebFilterChain chain = exchange -> {
+            // так атрибут выставляет DispatcherHandler при выборе метода контроллера
+            exchange.getAttributes().put(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE,
+                    PathPatternParser.defaultInstance.parse("/items/{itemId}"));
+            exchange.getResponse().setStatusCode(status);
+            return Mono.empty();
+        };
+        StepVerifier.create(filter.filter(exchange(), chain)).verifyComplete();
+    }
+
+    private static MockServerWebExchange exchange() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/items/42")
+                .header(GatewayConstants.USER_ID_HEADER, "7"));
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import reactor.core.publisher.Mono;
 import ru.practicum.shareit.gateway.client.ShareItClient;
@@ -16,6 +17,7 @@ import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.when;
 
 @WebFluxTest(ItemRequestController.class)
@@ -82,8 +84,8 @@ class ItemRequestControllerGatewayTest {
     void getRequestById_shouldReturnRequest() {
         ItemRequestDto request = new ItemRequestDto(1L, "Need item", null, null);
 
-        when(shareItClient.get(eq("/requests/1"), eq(ItemRequestDto.class), eq(1L)))
-                .thenReturn(Mono.just(request));
+        when(shareItClient.getConditional(eq("/requests/1"), eq(ItemRequestDto.class), eq(1L), isNull()))
+                .thenReturn(Mono.just(ResponseEntity.ok(request)));
 
         webTestClient.get()
                 .uri("/requests/1")
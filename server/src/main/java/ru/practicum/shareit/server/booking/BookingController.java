@@ -1,17 +1,28 @@
 package ru.practicum.shareit.server.booking;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.server.booking.dto.BookingCursor;
 import ru.practicum.shareit.server.booking.dto.BookingDto;
+import ru.practicum.shareit.server.booking.dto.BookingImportResult;
+import ru.practicum.shareit.server.booking.dto.BookingPage;
+import ru.practicum.shareit.server.booking.service.BookingExporter;
 import ru.practicum.shareit.server.booking.service.BookingService;
+import ru.practicum.shareit.server.metrics.SqlStatementBudget;
 
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
 public class BookingController {
     private final BookingService bookingService;
+    private final BookingExporter bookingExporter;
 
     @PostMapping
     public BookingDto createBooking(@RequestBody BookingDto.BookingRequest bookingRequest,
@@ -19,6 +30,12 @@ public class BookingController {
         return bookingService.createBooking(bookingRequest, userId);
     }
 
+    @PostMapping("/import")
+    public BookingImportResult importBookings(@RequestBody List<BookingDto.BookingImport> bookings,
+                                              @RequestHeader("X-Sharer-User-Id") Long ownerId) {
+        return bookingService.importBookings(bookings, ownerId);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDto approveBooking(@PathVariable Long bookingId,
                                      @RequestParam Boolean approved,
@@ -27,24 +44,67 @@ public class BookingController {
     }
 
     @GetMapping("/{bookingId}")
-    public BookingDto getBookingById(@PathVariable Long bookingId,
-                                     @RequestHeader("X-Sharer-User-Id") Long userId) {
-        return bookingService.getBookingById(bookingId, userId);
+    public ResponseEntity<BookingDto> getBookingById(@PathVariable Long bookingId,
+                                                     @RequestHeader("X-Sharer-User-Id") Long userId,
+                                                     WebRequest request) {
+        Optional<String> eTag = bookingService.getBookingETag(bookingId, userId);
+        if (eTag.isPresent() && request.checkNotModified(eTag.get())) {
+            return null;
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        eTag.ifPresent(response::eTag);
+        return response.body(bookingService.getBookingById(bookingId, userId));
     }
 
+    /**
+     * Без параметра cursor работает постранично по from/size. С параметром cursor
+     * (пустым для первой страницы) отдаёт страницу по ключу, а курсор следующей
+     * страницы возвращает в заголовке X-Next-Cursor.
+     */
     @GetMapping
-    public List<BookingDto> getUserBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                            @RequestParam(defaultValue = "ALL") String state,
-                                            @RequestParam(defaultValue = "0") int from,
-                                            @RequestParam(defaultValue = "10") int size) {
-        return bookingService.getUserBookings(userId, state, from, size);
+    @SqlStatementBudget(2)
+    public ResponseEntity<List<BookingDto>> getUserBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                            @RequestParam(defaultValue = "ALL") String state,
+                                                            @RequestParam(defaultValue = "0") int from,
+                                                            @RequestParam(defaultValue = "10") int size,
+                                                            @RequestParam(required = false) String cursor) {
+        if (cursor == null) {
+            return ResponseEntity.ok(bookingService.getUserBookings(userId, state, from, size));
+        }
+        return toResponse(bookingService.getUserBookingsPage(userId, state, BookingCursor.decode(cursor), size));
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                             @RequestParam(defaultValue = "ALL") String state,
-                                             @RequestParam(defaultValue = "0") int from,
-                                             @RequestParam(defaultValue = "10") int size) {
-        return bookingService.getOwnerBookings(userId, state, from, size);
+    @SqlStatementBudget(2)
+    public ResponseEntity<List<BookingDto>> getOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                             @RequestParam(defaultValue = "ALL") String state,
+                                                             @RequestParam(defaultValue = "0") int from,
+                                                             @RequestParam(defaultValue = "10") int size,
+                                                             @RequestParam(required = false) String cursor) {
+        if (cursor == null) {
+            return ResponseEntity.ok(bookingService.getOwnerBookings(userId, state, from, size));
+        }
+        return toResponse(bookingService.getOwnerBookingsPage(userId, state, BookingCursor.decode(cursor), size));
+    }
+
+    /**
+     * Вся история бронирований пользователя одним потоком NDJSON, от новых к старым.
+     */
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody exportUserBookings(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        return bookingExporter.exportUserBookings(userId);
+    }
+
+    @GetMapping(path = "/owner/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody exportOwnerBookings(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        return bookingExporter.exportOwnerBookings(userId);
+    }
+
+    private ResponseEntity<List<BookingDto>> toResponse(BookingPage page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(BookingCursor.NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.bookings());
     }
 }
\ No newline at end of file
@@ -0,0 +1,136 @@
+package ru.practicum.shareit.server.booking.availability;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.server.booking.Booking;
+import ru.practicum.shareit.server.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.server.booking.repository.BookingRepository;
+import ru.practicum.shareit.server.exception.NotFoundException;
+import ru.practicum.shareit.server.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Кэш расписаний вещей для быстрых проверок «свободна ли вещь в окне».
+ * <p>
+ * Расписание загружается из БД при первом обращении к вещи (текущие и будущие брони),
+ * хранится в LRU-кэше ограниченного размера и дальше обновляется на месте после коммита
+ * создания и отклонения бронирований. Загрузка и обновления одной вещи идут под одной
+ * полосой блокировок, поэтому изменение, закоммиченное во время загрузки, не теряется.
+ */
+@Component
+public class ItemAvailabilityCache {
+    private static final int STRIPES = 64;
+
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final Map<Long, ItemTimeline> timelines;
+    private final Object[] stripes = new Object[STRIPES];
+
+    public ItemAvailabilityCache(BookingRepository bookingRepository,
+                                 ItemRepository itemRepository,
+                                 @Value("${shareit.availability.cache-size:10000}") int maxSize) {
+        this.bookingRepository = bookingRepository;
+        this.itemRepository = itemRepository;
+        this.timelines = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, ItemTimeline> eldest) {
+                return size() > maxSize;
+            }
+        });
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Object();
+        }
+    }
+
+    /**
+     * Окна, начинающиеся раньше горизонта расписания (в прошлом или до его загрузки),
+     * проверяются запросом в БД: прошедших броней в расписании нет.
+     */
+    public boolean isFree(Long itemId, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime now = LocalDateTime.now();
+        ItemTimeline.Occupancy occupancy = timeline(itemId, now).check(from, to, now);
+        if (occupancy == ItemTimeline.Occupancy.UNKNOWN) {
+            return !bookingRepository.existsOverlapping(itemId, from, to);
+        }
+        return occupancy == ItemTimeline.Occupancy.FREE;
+    }
+
+    /**
+     * Проверка без обращения к БД: true, только если расписание вещи уже в кэше и окно занято.
+     */
+    public boolean isKnownBusy(Long itemId, LocalDateTime from, LocalDateTime to) {
+        ItemTimeline timeline = timelines.get(itemId);
+        return timeline != null && timeline.check(from, to, LocalDateTime.now()) == ItemTimeline.Occupancy.BUSY;
+    }
+
+    public void bookingCreated(Booking booking) {
+        ItemTimeline.Interval interval =
+                new ItemTimeline.Interval(booking.getId(), booking.getStart(), booking.getEnd());
+        afterCommit(booking.getItem().getId(), timeline -> timeline.add(interval));
+    }
+
+    public void bookingReleased(Booking booking) {
+        long bookingId = booking.getId();
+        afterCommit(booking.getItem().getId(), timeline -> timeline.remove(bookingId));
+    }
+
+    int size() {
+        return timelines.size();
+    }
+
+    private ItemTimeline timeline(Long itemId, LocalDateTime now) {
+        ItemTimeline timeline = timelines.get(itemId);
+        if (timeline != null) {
+            return timeline;
+        }
+
+        synchronized (stripe(itemId)) {
+            timeline = timelines.get(itemId);
+            if (timeline == null) {
+                if (!itemRepository.existsById(itemId)) {
+                    throw new NotFoundException("Item not found");
+                }
+                timeline = new ItemTimeline(now);
+                for (BookingIntervalView booking : bookingRepository.findActiveIntervals(itemId, now)) {
+                    timeline.add(new ItemTimeline.Interval(booking.getId(), booking.getStart(), booking.getEnd()));
+                }
+                timelines.put(itemId, timeline);
+            }
+            return timeline;
+        }
+    }
+
+    private void afterCommit(Long itemId, Consumer<ItemTimeline> change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(itemId, change);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(itemId, change);
+            }
+        });
+    }
+
+    private void apply(Long itemId, Consumer<ItemTimeline> change) {
+        synchronized (stripe(itemId)) {
+            ItemTimeline timeline = timelines.get(itemId);
+            if (timeline != null) {
+                change.accept(timeline);
+            }
+        }
+    }
+
+    private Object stripe(Long itemId) {
+        return stripes[Math.floorMod(itemId.hashCode(), STRIPES)];
+    }
+}
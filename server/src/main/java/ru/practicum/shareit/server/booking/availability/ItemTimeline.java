@@ -0,0 +1,83 @@
+package ru.practicum.shareit.server.booking.availability;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Занятые интервалы одной вещи (WAITING и APPROVED), отсортированные по началу.
+ * <p>
+ * Инвариант: интервалы не пересекаются. Его обеспечивают все пути записи бронирований —
+ * createBooking, importBookings и ограничение booking_no_overlap в БД, — и только при нём
+ * для проверки окна достаточно последнего интервала, начавшегося до его конца. Из него же
+ * следует, что по началу интервалы упорядочены и по концу, поэтому завершившиеся брони
+ * всегда лежат в голове множества.
+ * <p>
+ * Расписание отвечает только за окна, начинающиеся не раньше горизонта: из БД загружаются
+ * брони, заканчивающиеся после момента загрузки, а завершившиеся интервалы выбрасываются
+ * при обращении, и горизонт сдвигается вслед за ними.
+ */
+final class ItemTimeline {
+    private static final Comparator<Interval> ORDER = Comparator.comparing(Interval::start)
+            .thenComparingLong(Interval::bookingId);
+
+    private final NavigableSet<Interval> intervals = new TreeSet<>(ORDER);
+    private final Map<Long, Interval> byBookingId = new HashMap<>();
+    private LocalDateTime horizon;
+
+    ItemTimeline(LocalDateTime loadedAt) {
+        this.horizon = loadedAt;
+    }
+
+    synchronized void add(Interval interval) {
+        Interval previous = byBookingId.put(interval.bookingId(), interval);
+        if (previous != null) {
+            intervals.remove(previous);
+        }
+        intervals.add(interval);
+    }
+
+    synchronized void remove(long bookingId) {
+        Interval interval = byBookingId.remove(bookingId);
+        if (interval != null) {
+            intervals.remove(interval);
+        }
+    }
+
+    /**
+     * Отвечает на вопрос о занятости окна, предварительно выбросив брони, закончившиеся
+     * к моменту now. Окно, начинающееся раньше горизонта, получает UNKNOWN: брони до
+     * горизонта в расписании нет, и ответ нужно брать из БД.
+     */
+    synchronized Occupancy check(LocalDateTime from, LocalDateTime to, LocalDateTime now) {
+        prune(now);
+        if (from.isBefore(horizon)) {
+            return Occupancy.UNKNOWN;
+        }
+        Interval candidate = intervals.lower(new Interval(Long.MIN_VALUE, to, to));
+        return candidate != null && candidate.end().isAfter(from) ? Occupancy.BUSY : Occupancy.FREE;
+    }
+
+    synchronized int size() {
+        return intervals.size();
+    }
+
+    private void prune(LocalDateTime now) {
+        while (!intervals.isEmpty() && !intervals.first().end().isAfter(now)) {
+            byBookingId.remove(intervals.pollFirst().bookingId());
+        }
+        if (now.isAfter(horizon)) {
+            horizon = now;
+        }
+    }
+
+    enum Occupancy {
+        FREE, BUSY, UNKNOWN
+    }
+
+    record Interval(long bookingId, LocalDateTime start, LocalDateTime end) {
+    }
+}
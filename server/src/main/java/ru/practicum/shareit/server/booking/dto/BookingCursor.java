@@ -0,0 +1,44 @@
+package ru.practicum.shareit.server.booking.dto;
+
+import ru.practicum.shareit.server.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Позиция последнего отданного бронирования для постраничной выдачи по ключу (start, id).
+ * Клиенту передаётся в виде непрозрачной строки; пустая строка означает первую страницу.
+ */
+public record BookingCursor(LocalDateTime start, Long id) {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final BookingCursor FIRST =
+            new BookingCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+    private static final char SEPARATOR = '|';
+
+    public static BookingCursor of(BookingDto booking) {
+        return new BookingCursor(booking.getStart(), booking.getId());
+    }
+
+    public static BookingCursor decode(String value) {
+        if (value == null || value.isBlank()) {
+            return FIRST;
+        }
+
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = decoded.lastIndexOf(SEPARATOR);
+            return new BookingCursor(LocalDateTime.parse(decoded.substring(0, separator)),
+                    Long.parseLong(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeException | IndexOutOfBoundsException e) {
+            throw new ValidationException("Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = start.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -43,4 +43,15 @@ public class BookingDto {
         private LocalDateTime start;
         private LocalDateTime end;
     }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BookingImport {
+        private Long itemId;
+        private Long bookerId;
+        private LocalDateTime start;
+        private LocalDateTime end;
+        private BookingStatus status;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,4 @@
+package ru.practicum.shareit.server.booking.dto;
+
+public record BookingImportResult(int imported) {
+}
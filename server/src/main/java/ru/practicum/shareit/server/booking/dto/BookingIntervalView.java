@@ -0,0 +1,11 @@
+package ru.practicum.shareit.server.booking.dto;
+
+import java.time.LocalDateTime;
+
+public interface BookingIntervalView {
+    Long getId();
+
+    LocalDateTime getStart();
+
+    LocalDateTime getEnd();
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.server.booking.dto;
+
+public interface BookingVersionView {
+    Long getBookerId();
+
+    Long getOwnerId();
+
+    Long getVersion();
+
+    Long getItemVersion();
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.server.booking.dto;
+
+public interface ItemBookingView extends BookingShortView {
+    Long getItemId();
+
+    Boolean getPast();
+}
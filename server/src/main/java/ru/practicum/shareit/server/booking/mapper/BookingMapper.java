@@ -3,6 +3,7 @@ package ru.practicum.shareit.server.booking.mapper;
 import ru.practicum.shareit.server.booking.Booking;
 import ru.practicum.shareit.server.booking.BookingStatus;
 import ru.practicum.shareit.server.booking.dto.BookingDto;
+import ru.practicum.shareit.server.booking.dto.BookingShortView;
 import ru.practicum.shareit.server.item.dto.ItemDto;
 
 public class BookingMapper {
@@ -46,4 +47,12 @@ public class BookingMapper {
         }
         return dto;
     }
+
+    public static ItemDto.BookingShortDto toBookingShortDto(BookingShortView booking) {
+        if (booking == null) {
+            return null;
+        }
+
+        return new ItemDto.BookingShortDto(booking.getId(), booking.getBookerId());
+    }
 }
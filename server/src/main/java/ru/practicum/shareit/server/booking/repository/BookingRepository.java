@@ -1,43 +1,83 @@
 package ru.practicum.shareit.server.booking.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.server.booking.Booking;
 import ru.practicum.shareit.server.booking.BookingStatus;
+import ru.practicum.shareit.server.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.server.booking.dto.BookingShortView;
+import ru.practicum.shareit.server.booking.dto.BookingVersionView;
+import ru.practicum.shareit.server.booking.dto.ItemBookingView;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
+    String BEFORE_CURSOR = "(b.start < :start OR (b.start = :start AND b.id < :id)) " +
+            "ORDER BY b.start DESC, b.id DESC";
+    String EXPORT_FETCH_SIZE = "500";
+
+    @EntityGraph(attributePaths = {"item", "booker"})
     List<Booking> findByBookerId(Long bookerId, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     List<Booking> findByBookerIdAndStartBeforeAndEndAfter(
             Long bookerId, LocalDateTime start, LocalDateTime end, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     List<Booking> findByBookerIdAndEndBefore(Long bookerId, LocalDateTime end, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     List<Booking> findByBookerIdAndStartAfter(Long bookerId, LocalDateTime start, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     List<Booking> findByItemOwnerId(Long ownerId, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     List<Booking> findByItemOwnerIdAndStartBeforeAndEndAfter(
             Long ownerId, LocalDateTime start, LocalDateTime end, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     List<Booking> findByItemOwnerIdAndEndBefore(Long ownerId, LocalDateTime end, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     List<Booking> findByItemOwnerIdAndStartAfter(Long ownerId, LocalDateTime start, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     List<Booking> findByItemOwnerIdAndStatus(Long ownerId, BookingStatus status, Pageable pageable);
 
-    @Query("SELECT b FROM Booking b WHERE b.item.id = :itemId AND b.status = 'APPROVED' " +
-            "AND b.end > :now ORDER BY b.start ASC")
-    List<Booking> findNextBookings(@Param("itemId") Long itemId, @Param("now") LocalDateTime now);
+    @Query("SELECT b.booker.id AS bookerId, b.item.owner.id AS ownerId, b.version AS version, " +
+            "b.item.version AS itemVersion FROM Booking b WHERE b.id = :id")
+    Optional<BookingVersionView> findVersionById(@Param("id") Long id);
+
+    @Query("SELECT b.id AS id, b.booker.id AS bookerId FROM Booking b WHERE b.item.id = :itemId " +
+            "AND b.status = 'APPROVED' AND b.end > :now ORDER BY b.start ASC")
+    List<BookingShortView> findNextBookings(@Param("itemId") Long itemId,
+                                            @Param("now") LocalDateTime now,
+                                            Pageable pageable);
 
-    @Query("SELECT b FROM Booking b WHERE b.item.id = :itemId AND b.status = 'APPROVED' " +
-            "AND b.end < :now ORDER BY b.end DESC")
-    List<Booking> findLastBookings(@Param("itemId") Long itemId, @Param("now") LocalDateTime now);
+    @Query("SELECT b.id AS id, b.booker.id AS bookerId FROM Booking b WHERE b.item.id = :itemId " +
+            "AND b.status = 'APPROVED' AND b.end < :now ORDER BY b.end DESC")
+    List<BookingShortView> findLastBookings(@Param("itemId") Long itemId,
+                                            @Param("now") LocalDateTime now,
+                                            Pageable pageable);
+
+    @Query(value = "SELECT t.id AS id, t.item_id AS itemId, t.booker_id AS bookerId, t.past AS past FROM (" +
+            "SELECT b.id, b.item_id, b.booker_id, b.end_date < :now AS past, " +
+            "ROW_NUMBER() OVER (PARTITION BY b.item_id, b.end_date < :now " +
+            "ORDER BY CASE WHEN b.end_date < :now THEN b.end_date END DESC, b.start_date ASC) AS rn " +
+            "FROM booking b WHERE b.item_id IN (:itemIds) AND b.status = 'APPROVED' AND b.end_date <> :now) t " +
+            "WHERE t.rn = 1", nativeQuery = true)
+    List<ItemBookingView> findLastAndNextBookings(@Param("itemIds") List<Long> itemIds,
+                                                  @Param("now") LocalDateTime now);
 
     @Query("SELECT COUNT(b) > 0 FROM Booking b WHERE b.item.id = :itemId AND b.booker.id = :userId " +
             "AND b.status = 'APPROVED' AND b.end < :now")
@@ -45,54 +85,158 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
                                       @Param("userId") Long userId,
                                       @Param("now") LocalDateTime now);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     @Query("SELECT b FROM Booking b WHERE b.booker.id = :bookerId " +
             "AND b.start < :now AND b.end > :now ORDER BY b.start DESC")
     List<Booking> findCurrentByBookerId(@Param("bookerId") Long bookerId,
                                         @Param("now") LocalDateTime now,
                                         Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     @Query("SELECT b FROM Booking b WHERE b.booker.id = :bookerId " +
             "AND b.end < :now ORDER BY b.start DESC")
     List<Booking> findPastByBookerId(@Param("bookerId") Long bookerId,
                                      @Param("now") LocalDateTime now,
                                      Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     @Query("SELECT b FROM Booking b WHERE b.booker.id = :bookerId " +
             "AND b.start > :now ORDER BY b.start DESC")
     List<Booking> findFutureByBookerId(@Param("bookerId") Long bookerId,
                                        @Param("now") LocalDateTime now,
                                        Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     @Query("SELECT b FROM Booking b WHERE b.booker.id = :bookerId " +
             "AND b.status = :status ORDER BY b.start DESC")
     List<Booking> findByBookerIdAndStatus(@Param("bookerId") Long bookerId,
                                           @Param("status") BookingStatus status,
                                           Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :ownerId " +
             "AND b.start < :now AND b.end > :now ORDER BY b.start DESC")
     List<Booking> findCurrentByOwnerId(@Param("ownerId") Long ownerId,
                                        @Param("now") LocalDateTime now,
                                        Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :ownerId " +
             "AND b.end < :now ORDER BY b.start DESC")
     List<Booking> findPastByOwnerId(@Param("ownerId") Long ownerId,
                                     @Param("now") LocalDateTime now,
                                     Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :ownerId " +
             "AND b.start > :now ORDER BY b.start DESC")
     List<Booking> findFutureByOwnerId(@Param("ownerId") Long ownerId,
                                       @Param("now") LocalDateTime now,
                                       Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :ownerId " +
             "AND b.status = :status ORDER BY b.start DESC")
     List<Booking> findByOwnerIdAndStatus(@Param("ownerId") Long ownerId,
                                          @Param("status") BookingStatus status,
                                          Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.booker.id = :bookerId AND " + BEFORE_CURSOR)
+    List<Booking> findByBookerIdBefore(@Param("bookerId") Long bookerId,
+                                       @Param("start") LocalDateTime start,
+                                       @Param("id") Long id,
+                                       Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.booker.id = :bookerId " +
+            "AND b.start < :now AND b.end > :now AND " + BEFORE_CURSOR)
+    List<Booking> findCurrentByBookerIdBefore(@Param("bookerId") Long bookerId,
+                                              @Param("now") LocalDateTime now,
+                                              @Param("start") LocalDateTime start,
+                                              @Param("id") Long id,
+                                              Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.booker.id = :bookerId " +
+            "AND b.end < :now AND " + BEFORE_CURSOR)
+    List<Booking> findPastByBookerIdBefore(@Param("bookerId") Long bookerId,
+                                           @Param("now") LocalDateTime now,
+                                           @Param("start") LocalDateTime start,
+                                           @Param("id") Long id,
+                                           Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.booker.id = :bookerId " +
+            "AND b.start > :now AND " + BEFORE_CURSOR)
+    List<Booking> findFutureByBookerIdBefore(@Param("bookerId") Long bookerId,
+                                             @Param("now") LocalDateTime now,
+                                             @Param("start") LocalDateTime start,
+                                             @Param("id") Long id,
+                                             Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.booker.id = :bookerId " +
+            "AND b.status = :status AND " + BEFORE_CURSOR)
+    List<Booking> findByBookerIdAndStatusBefore(@Param("bookerId") Long bookerId,
+                                                @Param("status") BookingStatus status,
+                                                @Param("start") LocalDateTime start,
+                                                @Param("id") Long id,
+                                                Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :ownerId AND " + BEFORE_CURSOR)
+    List<Booking> findByOwnerIdBefore(@Param("ownerId") Long ownerId,
+                                      @Param("start") LocalDateTime start,
+                                      @Param("id") Long id,
+                                      Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :ownerId " +
+            "AND b.start < :now AND b.end > :now AND " + BEFORE_CURSOR)
+    List<Booking> findCurrentByOwnerIdBefore(@Param("ownerId") Long ownerId,
+                                             @Param("now") LocalDateTime now,
+                                             @Param("start") LocalDateTime start,
+                                             @Param("id") Long id,
+                                             Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :ownerId " +
+            "AND b.end < :now AND " + BEFORE_CURSOR)
+    List<Booking> findPastByOwnerIdBefore(@Param("ownerId") Long ownerId,
+                                          @Param("now") LocalDateTime now,
+                                          @Param("start") LocalDateTime start,
+                                          @Param("id") Long id,
+                                          Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :ownerId " +
+            "AND b.start > :now AND " + BEFORE_CURSOR)
+    List<Booking> findFutureByOwnerIdBefore(@Param("ownerId") Long ownerId,
+                                            @Param("now") LocalDateTime now,
+                                            @Param("start") LocalDateTime start,
+                                            @Param("id") Long id,
+                                            Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("SELECT b FROM Booking b WHERE b.item.owner.id = :ownerId " +
+            "AND b.status = :status AND " + BEFORE_CURSOR)
+    List<Booking> findByOwnerIdAndStatusBefore(@Param("ownerId") Long ownerId,
+                                               @Param("status") BookingStatus status,
+                                               @Param("start") LocalDateTime start,
+                                               @Param("id") Long id,
+                                               Pageable pageable);
+
+    @Query("SELECT b.id AS id, b.start AS start, b.end AS end FROM Booking b WHERE b.item.id = :itemId " +
+            "AND b.status IN ('WAITING', 'APPROVED') AND b.end > :now")
+    List<BookingIntervalView> findActiveIntervals(@Param("itemId") Long itemId, @Param("now") LocalDateTime now);
+
+    @Query("SELECT COUNT(b) > 0 FROM Booking b WHERE b.item.id = :itemId " +
+            "AND b.status IN ('WAITING', 'APPROVED') AND b.start < :end AND b.end > :start")
+    boolean existsOverlapping(@Param("itemId") Long itemId,
+                              @Param("start") LocalDateTime start,
+                              @Param("end") LocalDateTime end);
+
     @Query("SELECT CASE WHEN COUNT(b) > 0 THEN true ELSE false END FROM Booking b " +
             "WHERE b.item.id = :itemId AND b.booker.id = :userId " +
             "AND b.status = :status AND b.end < :now")
@@ -102,4 +246,23 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             @Param("status") BookingStatus status,
             @Param("now") LocalDateTime now);
 
+    /**
+     * Вся история бронирований пользователя для выгрузки. Строки читаются курсором порциями
+     * по {@link #EXPORT_FETCH_SIZE}; поток нужно закрыть и читать внутри транзакции.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item JOIN FETCH b.booker " +
+            "WHERE b.booker.id = :bookerId ORDER BY b.start DESC, b.id DESC")
+    Stream<Booking> streamByBookerId(@Param("bookerId") Long bookerId);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT b FROM Booking b JOIN FETCH b.item i JOIN FETCH b.booker " +
+            "WHERE i.owner.id = :ownerId ORDER BY b.start DESC, b.id DESC")
+    Stream<Booking> streamByItemOwnerId(@Param("ownerId") Long ownerId);
 }
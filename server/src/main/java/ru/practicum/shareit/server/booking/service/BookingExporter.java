@@ -0,0 +1,95 @@
+package ru.practicum.shareit.server.booking.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.server.booking.Booking;
+import ru.practicum.shareit.server.booking.mapper.BookingMapper;
+import ru.practicum.shareit.server.booking.repository.BookingRepository;
+import ru.practicum.shareit.server.user.service.UserService;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Выгрузка всей истории бронирований в NDJSON. Брони читаются курсором из
+ * {@link BookingRepository} и пишутся в ответ по мере чтения; контекст персистентности
+ * очищается после каждой порции, поэтому память не растёт с длиной истории.
+ */
+@Component
+public class BookingExporter {
+    private static final int CLEAR_EVERY = Integer.parseInt(BookingRepository.EXPORT_FETCH_SIZE);
+
+    private final BookingRepository bookingRepository;
+    private final UserService userService;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public BookingExporter(BookingRepository bookingRepository,
+                           UserService userService,
+                           ObjectMapper objectMapper,
+                           EntityManager entityManager,
+                           PlatformTransactionManager transactionManager) {
+        this.bookingRepository = bookingRepository;
+        this.userService = userService;
+        this.objectMapper = objectMapper;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Пользователь проверяется до начала ответа, чтобы неизвестный пользователь получил 404,
+     * а не пустую выгрузку.
+     */
+    public StreamingResponseBody exportUserBookings(Long userId) {
+        userService.checkUserExists(userId);
+        return out -> export(bookingRepository::streamByBookerId, userId, out);
+    }
+
+    public StreamingResponseBody exportOwnerBookings(Long ownerId) {
+        userService.checkUserExists(ownerId);
+        return out -> export(bookingRepository::streamByItemOwnerId, ownerId, out);
+    }
+
+    /**
+     * Курсор живёт только внутри транзакции, а тело ответа пишется уже в потоке асинхронной
+     * обработки, поэтому транзакция открывается здесь, а не аннотацией на сервисе.
+     */
+    private void export(Function<Long, Stream<Booking>> query, Long userId, OutputStream out) throws IOException {
+        OutputStream buffered = new BufferedOutputStream(out);
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<Booking> bookings = query.apply(userId)) {
+                    writeAll(bookings.iterator(), buffered);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        buffered.flush();
+    }
+
+    private void writeAll(Iterator<Booking> bookings, OutputStream out) throws IOException {
+        int written = 0;
+        while (bookings.hasNext()) {
+            out.write(objectMapper.writeValueAsBytes(BookingMapper.toBookingDto(bookings.next())));
+            out.write('\n');
+            if (++written % CLEAR_EVERY == 0) {
+                entityManager.clear();
+                out.flush();
+            }
+        }
+    }
+}
@@ -1,8 +1,12 @@
 package ru.practicum.shareit.server.booking.service;
 
+import ru.practicum.shareit.server.booking.dto.BookingCursor;
 import ru.practicum.shareit.server.booking.dto.BookingDto;
+import ru.practicum.shareit.server.booking.dto.BookingImportResult;
+import ru.practicum.shareit.server.booking.dto.BookingPage;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface BookingService {
     BookingDto createBooking(BookingDto.BookingRequest bookingRequest, Long userId);
@@ -11,7 +15,19 @@ public interface BookingService {
 
     BookingDto getBookingById(Long bookingId, Long userId);
 
+    /**
+     * ETag бронирования из версий бронирования и вещи; пусто, если бронирования нет
+     * или пользователь не может его видеть.
+     */
+    Optional<String> getBookingETag(Long bookingId, Long userId);
+
     List<BookingDto> getUserBookings(Long userId, String state, int from, int size);
 
     List<BookingDto> getOwnerBookings(Long userId, String state, int from, int size);
+
+    BookingPage getUserBookingsPage(Long userId, String state, BookingCursor cursor, int size);
+
+    BookingPage getOwnerBookingsPage(Long userId, String state, BookingCursor cursor, int size);
+
+    BookingImportResult importBookings(List<BookingDto.BookingImport> bookings, Long ownerId);
 }
\ No newline at end of file
@@ -1,6 +1,11 @@
 package ru.practicum.shareit.server.booking.service;
 
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.aop.MeterTag;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -8,45 +13,76 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.server.booking.Booking;
 import ru.practicum.shareit.server.booking.BookingStatus;
+import ru.practicum.shareit.server.booking.availability.ItemAvailabilityCache;
+import ru.practicum.shareit.server.booking.dto.BookingCursor;
 import ru.practicum.shareit.server.booking.dto.BookingDto;
+import ru.practicum.shareit.server.booking.dto.BookingImportResult;
+import ru.practicum.shareit.server.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.server.booking.dto.BookingPage;
 import ru.practicum.shareit.server.booking.mapper.BookingMapper;
 import ru.practicum.shareit.server.booking.repository.BookingRepository;
+import ru.practicum.shareit.server.exception.ConflictException;
 import ru.practicum.shareit.server.exception.ForbiddenException;
 import ru.practicum.shareit.server.exception.NotFoundException;
 import ru.practicum.shareit.server.exception.ValidationException;
 import ru.practicum.shareit.server.item.model.Item;
 import ru.practicum.shareit.server.item.repository.ItemRepository;
+import ru.practicum.shareit.server.metrics.BookingStateTagResolver;
+import ru.practicum.shareit.server.metrics.MetricNames;
 import ru.practicum.shareit.server.user.User;
 import ru.practicum.shareit.server.user.mapper.UserMapper;
 import ru.practicum.shareit.server.user.service.UserService;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Timed(MetricNames.SERVICE)
 public class BookingServiceImpl implements BookingService {
+    // Кратно hibernate.jdbc.batch_size: после каждой порции контекст сбрасывается в БД и очищается
+    private static final int IMPORT_CHUNK_SIZE = 500;
+    private static final String NO_OVERLAP_CONSTRAINT = "booking_no_overlap";
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
     private final UserService userService;
+    private final ItemAvailabilityCache availabilityCache;
+    private final EntityManager entityManager;
 
     @Override
     @Transactional
     public BookingDto createBooking(BookingDto.BookingRequest bookingRequest, Long userId) {
         User booker = getUser(userId);
-        Item item = itemRepository.findById(bookingRequest.getItemId())
-                .orElseThrow(() -> new NotFoundException("Item not found"));
+        validateBookingDates(bookingRequest.getStart(), bookingRequest.getEnd());
 
-        if (!item.getAvailable()) {
-            throw new ValidationException("Item is not available for booking");
+        // Занятость из кэша — 409 без блокировки, но только если остальные проверки вещи пройдены:
+        // иначе ответ был бы 409 вместо 404/400
+        if (availabilityCache.isKnownBusy(bookingRequest.getItemId(),
+                bookingRequest.getStart(), bookingRequest.getEnd())) {
+            checkBookable(itemRepository.findById(bookingRequest.getItemId()), userId);
+            throw new ConflictException("Item is already booked for these dates");
         }
 
-        if (item.getOwner().getId().equals(userId)) {
-            throw new NotFoundException("Owner cannot book their own item");
-        }
+        // Блокировка строки вещи сериализует только бронирования этой вещи
+        Item item = checkBookable(itemRepository.findByIdForUpdate(bookingRequest.getItemId()), userId);
 
-        validateBookingDates(bookingRequest.getStart(), bookingRequest.getEnd());
+        if (bookingRepository.existsOverlapping(item.getId(), bookingRequest.getStart(), bookingRequest.getEnd())) {
+            throw new ConflictException("Item is already booked for these dates");
+        }
 
         Booking booking = new Booking();
         booking.setStart(bookingRequest.getStart());
@@ -55,7 +91,16 @@ public class BookingServiceImpl implements BookingService {
         booking.setBooker(booker);
         booking.setStatus(BookingStatus.WAITING);
 
-        Booking savedBooking = bookingRepository.save(booking);
+        Booking savedBooking;
+        try {
+            savedBooking = bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            if (isOverlapViolation(e)) {
+                throw new ConflictException("Item is already booked for these dates");
+            }
+            throw e;
+        }
+        availabilityCache.bookingCreated(savedBooking);
         return BookingMapper.toBookingDto(savedBooking);
     }
 
@@ -75,6 +120,9 @@ public class BookingServiceImpl implements BookingService {
 
         booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
         Booking updatedBooking = bookingRepository.save(booking);
+        if (!approved) {
+            availabilityCache.bookingReleased(booking);
+        }
         return BookingMapper.toBookingDto(updatedBooking);
     }
 
@@ -94,8 +142,19 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<BookingDto> getUserBookings(Long userId, String state, int from, int size) {
-        getUser(userId);
+    public Optional<String> getBookingETag(Long bookingId, Long userId) {
+        return bookingRepository.findVersionById(bookingId)
+                .filter(version -> version.getBookerId().equals(userId) || version.getOwnerId().equals(userId))
+                .map(version -> "booking-" + bookingId + "-" + version.getVersion() + "-" + version.getItemVersion());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingDto> getUserBookings(
+            Long userId,
+            @MeterTag(key = "state", resolver = BookingStateTagResolver.class) String state,
+            int from, int size) {
+        userService.checkUserExists(userId);
         Pageable pageable = PageRequest.of(from / size, size, Sort.by(Sort.Direction.DESC, "start"));
 
         LocalDateTime now = LocalDateTime.now();
@@ -128,8 +187,11 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<BookingDto> getOwnerBookings(Long userId, String state, int from, int size) {
-        getUser(userId);
+    public List<BookingDto> getOwnerBookings(
+            Long userId,
+            @MeterTag(key = "state", resolver = BookingStateTagResolver.class) String state,
+            int from, int size) {
+        userService.checkUserExists(userId);
         Pageable pageable = PageRequest.of(from / size, size, Sort.by(Sort.Direction.DESC, "start"));
 
         LocalDateTime now = LocalDateTime.now();
@@ -160,10 +222,213 @@ public class BookingServiceImpl implements BookingService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public BookingPage getUserBookingsPage(
+            Long userId,
+            @MeterTag(key = "state", resolver = BookingStateTagResolver.class) String state,
+            BookingCursor cursor, int size) {
+        userService.checkUserExists(userId);
+        Pageable limit = PageRequest.of(0, size);
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime start = cursor.start();
+        Long id = cursor.id();
+        List<Booking> bookings;
+
+        switch (state.toUpperCase()) {
+            case "CURRENT":
+                bookings = bookingRepository.findCurrentByBookerIdBefore(userId, now, start, id, limit);
+                break;
+            case "PAST":
+                bookings = bookingRepository.findPastByBookerIdBefore(userId, now, start, id, limit);
+                break;
+            case "FUTURE":
+                bookings = bookingRepository.findFutureByBookerIdBefore(userId, now, start, id, limit);
+                break;
+            case "WAITING":
+                bookings = bookingRepository.findByBookerIdAndStatusBefore(
+                        userId, BookingStatus.WAITING, start, id, limit);
+                break;
+            case "REJECTED":
+                bookings = bookingRepository.findByBookerIdAndStatusBefore(
+                        userId, BookingStatus.REJECTED, start, id, limit);
+                break;
+            default:
+                bookings = bookingRepository.findByBookerIdBefore(userId, start, id, limit);
+        }
+
+        return toPage(bookings, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookingPage getOwnerBookingsPage(
+            Long userId,
+            @MeterTag(key = "state", resolver = BookingStateTagResolver.class) String state,
+            BookingCursor cursor, int size) {
+        userService.checkUserExists(userId);
+        Pageable limit = PageRequest.of(0, size);
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime start = cursor.start();
+        Long id = cursor.id();
+        List<Booking> bookings;
+
+        switch (state.toUpperCase()) {
+            case "CURRENT":
+                bookings = bookingRepository.findCurrentByOwnerIdBefore(userId, now, start, id, limit);
+                break;
+            case "PAST":
+                bookings = bookingRepository.findPastByOwnerIdBefore(userId, now, start, id, limit);
+                break;
+            case "FUTURE":
+                bookings = bookingRepository.findFutureByOwnerIdBefore(userId, now, start, id, limit);
+                break;
+            case "WAITING":
+                bookings = bookingRepository.findByOwnerIdAndStatusBefore(
+                        userId, BookingStatus.WAITING, start, id, limit);
+                break;
+            case "REJECTED":
+                bookings = bookingRepository.findByOwnerIdAndStatusBefore(
+                        userId, BookingStatus.REJECTED, start, id, limit);
+                break;
+            default:
+                bookings = bookingRepository.findByOwnerIdBefore(userId, start, id, limit);
+        }
+
+        return toPage(bookings, size);
+    }
+
+    @Override
+    @Transactional
+    public BookingImportResult importBookings(List<BookingDto.BookingImport> bookings, Long ownerId) {
+        userService.checkUserExists(ownerId);
+
+        Set<Long> itemIds = new HashSet<>();
+        Set<Long> bookerIds = new HashSet<>();
+        for (BookingDto.BookingImport booking : bookings) {
+            if (booking.getItemId() == null || booking.getBookerId() == null || booking.getStatus() == null) {
+                throw new ValidationException("Item, booker and status are required");
+            }
+            validateBookingDates(booking.getStart(), booking.getEnd());
+            itemIds.add(booking.getItemId());
+            bookerIds.add(booking.getBookerId());
+        }
+
+        // Блокировка вещей, как в createBooking: проверка пересечений ниже не устареет до вставки
+        Map<Long, Item> items = itemRepository.findAllByIdForUpdate(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        for (Long itemId : itemIds) {
+            Item item = items.get(itemId);
+            if (item == null || !item.getOwner().getId().equals(ownerId)) {
+                throw new NotFoundException("Item not found");
+            }
+        }
+        userService.checkUsersExist(bookerIds);
+        checkImportOverlaps(bookings);
+
+        List<Booking> chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+        for (BookingDto.BookingImport row : bookings) {
+            User booker = new User();
+            booker.setId(row.getBookerId());
+            chunk.add(new Booking(null, row.getStart(), row.getEnd(), items.get(row.getItemId()), booker,
+                    row.getStatus()));
+            if (chunk.size() == IMPORT_CHUNK_SIZE) {
+                flushImported(chunk);
+            }
+        }
+        flushImported(chunk);
+        return new BookingImportResult(bookings.size());
+    }
+
+    /**
+     * Активные строки (WAITING, APPROVED) одной вещи не должны пересекаться ни между собой,
+     * ни с активными бронированиями в БД — на этом держатся booking_no_overlap и ItemTimeline.
+     * Строки и существующие интервалы вещи сортируются по началу и проходятся один раз с
+     * интервалом, заканчивающимся позже всех пройденных: всё, что начинается раньше его конца,
+     * пересекается с ним. На вещь уходит один запрос, а не по запросу на строку.
+     */
+    private void checkImportOverlaps(List<BookingDto.BookingImport> bookings) {
+        Map<Long, List<ImportSpan>> spansByItem = new HashMap<>();
+        for (int row = 0; row < bookings.size(); row++) {
+            BookingDto.BookingImport booking = bookings.get(row);
+            if (isActive(booking.getStatus())) {
+                spansByItem.computeIfAbsent(booking.getItemId(), id -> new ArrayList<>())
+                        .add(new ImportSpan(row, booking.getStart(), booking.getEnd()));
+            }
+        }
+
+        SortedSet<Integer> conflicting = new TreeSet<>();
+        spansByItem.forEach((itemId, spans) -> {
+            LocalDateTime from = spans.stream().map(ImportSpan::start).min(Comparator.naturalOrder()).orElseThrow();
+            for (BookingIntervalView existing : bookingRepository.findActiveIntervals(itemId, from)) {
+                spans.add(new ImportSpan(ImportSpan.EXISTING, existing.getStart(), existing.getEnd()));
+            }
+            spans.sort(Comparator.comparing(ImportSpan::start));
+
+            ImportSpan latest = null;
+            for (ImportSpan span : spans) {
+                if (latest != null && span.start().isBefore(latest.end())) {
+                    span.addRowTo(conflicting);
+                    latest.addRowTo(conflicting);
+                }
+                if (latest == null || span.end().isAfter(latest.end())) {
+                    latest = span;
+                }
+            }
+        });
+        if (!conflicting.isEmpty()) {
+            throw new ConflictException("Imported bookings overlap each other or existing ones, rows: " + conflicting);
+        }
+    }
+
+    private void flushImported(List<Booking> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            bookingRepository.saveAllAndFlush(chunk);
+        } catch (DataIntegrityViolationException e) {
+            if (isOverlapViolation(e)) {
+                throw new ConflictException("Imported bookings overlap existing ones");
+            }
+            throw e;
+        }
+        chunk.stream()
+                .filter(booking -> isActive(booking.getStatus()))
+                .forEach(availabilityCache::bookingCreated);
+        chunk.clear();
+        entityManager.clear();
+    }
+
+    private static boolean isActive(BookingStatus status) {
+        return status == BookingStatus.WAITING || status == BookingStatus.APPROVED;
+    }
+
+    private BookingPage toPage(List<Booking> bookings, int size) {
+        List<BookingDto> dtos = bookings.stream()
+                .map(BookingMapper::toBookingDto)
+                .collect(Collectors.toList());
+        String nextCursor = dtos.size() < size ? null : BookingCursor.of(dtos.get(dtos.size() - 1)).encode();
+        return new BookingPage(dtos, nextCursor);
+    }
+
     private User getUser(Long userId) {
         return UserMapper.toUser(userService.getUserById(userId));
     }
 
+    private Item checkBookable(Optional<Item> found, Long userId) {
+        Item item = found.orElseThrow(() -> new NotFoundException("Item not found"));
+        if (!item.getAvailable()) {
+            throw new ValidationException("Item is not available for booking");
+        }
+        if (item.getOwner().getId().equals(userId)) {
+            throw new NotFoundException("Owner cannot book their own item");
+        }
+        return item;
+    }
+
     private void validateBookingDates(LocalDateTime start, LocalDateTime end) {
         if (start == null || end == null) {
             throw new ValidationException("Start and end dates are required");
@@ -175,4 +440,35 @@ public class BookingServiceImpl implements BookingService {
             throw new ValidationException("Start and end dates cannot be equal");
         }
     }
+
+    /**
+     * Конфликтом считается только нарушение booking_no_overlap; прочие ошибки целостности
+     * (внешние ключи, NOT NULL) пробрасываются как есть. Диалект PostgreSQL не извлекает имя
+     * ограничения исключения (SQLState 23P01), поэтому тогда оно ищется в тексте ошибки драйвера.
+     */
+    private static boolean isOverlapViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation
+                    && violation.getConstraintName() != null) {
+                return NO_OVERLAP_CONSTRAINT.equalsIgnoreCase(violation.getConstraintName());
+            }
+            if (cause instanceof SQLException sql && EXCLUSION_VIOLATION.equals(sql.getSQLState())) {
+                return sql.getMessage() != null && sql.getMessage().contains(NO_OVERLAP_CONSTRAINT);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Интервал для проверки импорта: строка запроса или уже сохранённое бронирование (EXISTING).
+     */
+    private record ImportSpan(int row, LocalDateTime start, LocalDateTime end) {
+        static final int EXISTING = -1;
+
+        void addRowTo(Set<Integer> rows) {
+            if (row != EXISTING) {
+                rows.add(row);
+            }
+        }
+    }
 }
\ No newline at end of file
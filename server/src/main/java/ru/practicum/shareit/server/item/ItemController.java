@@ -2,18 +2,39 @@ package ru.practicum.shareit.server.item;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.server.item.dto.CommentDto;
+import ru.practicum.shareit.server.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.server.item.dto.ItemDto;
+import ru.practicum.shareit.server.item.dto.ItemView;
+import ru.practicum.shareit.server.item.search.ItemCatalogVersion;
+import ru.practicum.shareit.server.item.service.ItemBulkImporter;
 import ru.practicum.shareit.server.item.service.ItemService;
+import ru.practicum.shareit.server.metrics.SqlStatementBudget;
 
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/items")
 @RequiredArgsConstructor
 public class ItemController {
+    /**
+     * Владелец видит вещь с ближайшими бронированиями, остальные — без них. По этому
+     * заголовку шлюз объединяет одновременные запросы одной вещи от разных пользователей.
+     */
+    public static final String OWNER_ID_HEADER = "X-Item-Owner-Id";
+
     private final ItemService itemService;
+    private final ItemBulkImporter itemBulkImporter;
+    private final ItemCatalogVersion catalogVersion;
 
     @PostMapping
     public ItemDto createItem(@Valid @RequestBody ItemDto itemDto,
@@ -21,6 +42,14 @@ public class ItemController {
         return itemService.createItem(itemDto, ownerId);
     }
 
+    @PostMapping(path = "/bulk",
+            consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody createItems(InputStream body,
+                                             @RequestHeader("X-Sharer-User-Id") Long ownerId) {
+        return itemBulkImporter.importItems(body, ownerId);
+    }
+
     @PatchMapping("/{itemId}")
     public ItemDto updateItem(@PathVariable Long itemId,
                               @RequestBody ItemDto itemDto,
@@ -29,23 +58,53 @@ public class ItemController {
     }
 
     @GetMapping("/{itemId}")
-    public ItemDto getItemById(@PathVariable Long itemId,
-                               @RequestHeader("X-Sharer-User-Id") Long userId) {
-        return itemService.getItemById(itemId, userId);
+    @SqlStatementBudget(6)
+    public ResponseEntity<ItemDto> getItemById(@PathVariable Long itemId,
+                                               @RequestHeader("X-Sharer-User-Id") Long userId,
+                                               WebRequest request) {
+        // ETag читается до загрузки вещи: если вещь успеет измениться, клиент получит
+        // более новые данные со старым ETag и при следующем запросе просто скачает их снова
+        Optional<String> eTag = itemService.getItemETag(itemId, userId);
+        if (eTag.isPresent() && request.checkNotModified(eTag.get())) {
+            return null;
+        }
+        ItemView view = itemService.getItemView(itemId, userId);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        eTag.ifPresent(response::eTag);
+        if (view.ownerId() != null) {
+            response.header(OWNER_ID_HEADER, String.valueOf(view.ownerId()));
+        }
+        return response.body(view.item());
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getAvailability(@PathVariable Long itemId,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                               LocalDateTime from,
+                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                               LocalDateTime to) {
+        return itemService.getAvailability(itemId, from, to);
     }
 
     @GetMapping
+    @SqlStatementBudget(3)
     public List<ItemDto> getAllItemsByOwner(@RequestHeader("X-Sharer-User-Id") Long ownerId,
                                             @RequestParam(defaultValue = "0") int from,
                                             @RequestParam(defaultValue = "10") int size) {
         return itemService.getAllItemsByOwner(ownerId, from, size);
     }
 
+    /**
+     * Версия каталога читается до поиска: результат может оказаться свежее версии, но не старше.
+     */
     @GetMapping("/search")
-    public List<ItemDto> searchItems(@RequestParam String text,
-                                     @RequestParam(defaultValue = "0") int from,
-                                     @RequestParam(defaultValue = "10") int size) {
-        return itemService.searchItems(text, from, size);
+    public ResponseEntity<List<ItemDto>> searchItems(@RequestParam String text,
+                                                     @RequestParam(defaultValue = "0") int from,
+                                                     @RequestParam(defaultValue = "10") int size) {
+        long version = catalogVersion.current();
+        return ResponseEntity.ok()
+                .header(ItemCatalogVersion.HEADER, String.valueOf(version))
+                .body(itemService.searchItems(text, from, size));
     }
 
     @PostMapping("/{itemId}/comment")
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.server.item.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Результат одной строки массового импорта: id созданной вещи либо текст ошибки.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ItemImportResult(int row, Long id, String error) {
+    public static ItemImportResult created(int row, Long id) {
+        return new ItemImportResult(row, id, null);
+    }
+
+    public static ItemImportResult failed(int row, String error) {
+        return new ItemImportResult(row, null, error);
+    }
+}
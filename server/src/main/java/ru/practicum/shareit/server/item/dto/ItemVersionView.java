@@ -0,0 +1,7 @@
+package ru.practicum.shareit.server.item.dto;
+
+public interface ItemVersionView {
+    Long getOwnerId();
+
+    Long getVersion();
+}
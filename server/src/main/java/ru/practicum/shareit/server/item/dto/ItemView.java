@@ -0,0 +1,8 @@
+package ru.practicum.shareit.server.item.dto;
+
+/**
+ * Вещь в том виде, в каком её видит пользователь, вместе с id владельца.
+ * По id владельца шлюз понимает, кому из пользователей можно отдать тот же ответ.
+ */
+public record ItemView(ItemDto item, Long ownerId) {
+}
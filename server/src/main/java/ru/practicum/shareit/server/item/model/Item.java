@@ -14,7 +14,8 @@ import ru.practicum.shareit.server.user.User;
 @Table(name = "items")
 public class Item {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "name", nullable = false)
@@ -37,6 +38,13 @@ public class Item {
     @Column(name = "request_id", insertable = false, updatable = false)
     private Long requestId;
 
+    /**
+     * Растёт при каждом изменении вещи и при каждом новом отзыве к ней; из неё строится ETag.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
     public Long getRequestId() {
         return request != null ? request.getId() : null;
     }
@@ -1,12 +1,15 @@
 package ru.practicum.shareit.server.item.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import ru.practicum.shareit.server.item.model.Comment;
 
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    @EntityGraph(attributePaths = "author")
     List<Comment> findByItemId(Long itemId);
 
+    @EntityGraph(attributePaths = "author")
     List<Comment> findByItemIdIn(List<Long> itemIds);
 }
@@ -1,14 +1,41 @@
 package ru.practicum.shareit.server.item.repository;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.server.item.dto.ItemVersionView;
 import ru.practicum.shareit.server.item.model.Item;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id = :id")
+    Optional<Item> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Блокирует вещи в порядке id, чтобы два импорта с общими вещами не ждали друг друга по кругу.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id IN :ids ORDER BY i.id")
+    List<Item> findAllByIdForUpdate(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT i.owner.id AS ownerId, i.version AS version FROM Item i WHERE i.id = :id")
+    Optional<ItemVersionView> findVersionById(@Param("id") Long id);
+
+    /**
+     * Отзывы входят в ответ GET /items/{id}, поэтому новый отзыв меняет версию вещи.
+     */
+    @Modifying
+    @Query("UPDATE Item i SET i.version = i.version + 1 WHERE i.id = :id")
+    int incrementVersion(@Param("id") Long id);
+
     List<Item> findByOwnerIdOrderById(Long ownerId, Pageable pageable);
 
     @Query("SELECT i FROM Item i WHERE i.available = true AND " +
@@ -16,6 +43,15 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
             "LOWER(i.description) LIKE LOWER(CONCAT('%', :text, '%')))")
     List<Item> searchAvailableItems(@Param("text") String text, Pageable pageable);
 
+    @Query(value = "SELECT i.* FROM items i WHERE i.is_available = TRUE AND " +
+            "(LOWER(i.name) LIKE :pattern OR LOWER(i.description) LIKE :pattern) " +
+            "ORDER BY similarity(LOWER(i.name), :text) DESC, i.id", nativeQuery = true)
+    List<Item> searchAvailableItemsByTrigram(@Param("pattern") String pattern,
+                                             @Param("text") String text,
+                                             Pageable pageable);
+
+    List<Item> findByAvailableTrueAndIdGreaterThanOrderById(Long id, Pageable pageable);
+
     List<Item> findByRequestIdIn(List<Long> requestIds);
 
     List<Item> findByRequestId(Long requestId);
@@ -0,0 +1,232 @@
+package ru.practicum.shareit.server.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.item.repository.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Поиск по инвертированному индексу в памяти сервера.
+ * <p>
+ * Индекс строится при старте из {@link ItemRepository} и обновляется после коммита
+ * через {@link #itemSaved}. Построение идёт в новую карту без блокировки, пока сервер уже
+ * принимает запросы; изменения, пришедшие за это время, копятся и накатываются на новую
+ * карту перед подменой, иначе пачка, прочитанная до изменения, вернула бы в индекс
+ * устаревшие слова или уже недоступную вещь. Слова названия и описания доступных вещей отображаются
+ * в отсортированные списки id; каждое слово запроса ищется как префикс слова вещи,
+ * результаты по разным словам пересекаются. Пока индекс не построен, поиск идёт через LIKE.
+ * Из БД по первичному ключу читается только найденная страница вещей.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "inverted")
+public class InvertedIndexItemSearchEngine implements ItemSearchEngine {
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int LOAD_BATCH_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private NavigableMap<String, PostingList> postings = new TreeMap<>();
+    /**
+     * Изменения, пришедшие во время построения; null, когда построение не идёт.
+     */
+    private List<ItemDocument[]> pendingChanges = new ArrayList<>();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            if (pendingChanges == null) {
+                pendingChanges = new ArrayList<>();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        NavigableMap<String, PostingList> fresh = new TreeMap<>();
+        long lastId = 0;
+        int indexed = 0;
+        List<Item> batch;
+        do {
+            batch = itemRepository.findByAvailableTrueAndIdGreaterThanOrderById(lastId,
+                    PageRequest.of(0, LOAD_BATCH_SIZE));
+            for (Item item : batch) {
+                addDocument(fresh, ItemDocument.of(item));
+                lastId = item.getId();
+            }
+            indexed += batch.size();
+        } while (batch.size() == LOAD_BATCH_SIZE);
+
+        int replayed;
+        lock.writeLock().lock();
+        try {
+            replayed = pendingChanges.size();
+            for (ItemDocument[] change : pendingChanges) {
+                apply(fresh, change[0], change[1]);
+            }
+            pendingChanges = null;
+            postings = fresh;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Item search index built: {} items, {} changes replayed, {} terms",
+                indexed, replayed, termCount());
+    }
+
+    @Override
+    public List<Item> search(String text, Pageable pageable) {
+        if (!ready) {
+            return itemRepository.searchAvailableItems(text, pageable);
+        }
+
+        long[] matches = findIds(text);
+        int from = (int) Math.min(pageable.getOffset(), matches.length);
+        int to = Math.min(from + pageable.getPageSize(), matches.length);
+        if (from >= to) {
+            return Collections.emptyList();
+        }
+
+        // индекс обновляется после коммита, поэтому вещь могла стать недоступной после поиска по нему
+        List<Long> ids = Arrays.stream(matches, from, to).boxed().collect(Collectors.toList());
+        Map<Long, Item> items = itemRepository.findAllById(ids).stream()
+                .filter(item -> Boolean.TRUE.equals(item.getAvailable()))
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return ids.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void itemSaved(ItemDocument previous, ItemDocument current) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(previous, current);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                apply(previous, current);
+            }
+        });
+    }
+
+    long[] findIds(String text) {
+        Set<String> words = tokenize(text);
+        if (words.isEmpty()) {
+            return new long[0];
+        }
+
+        lock.readLock().lock();
+        try {
+            long[] matches = null;
+            for (String word : words) {
+                long[] wordMatches = PostingList.union(
+                        postings.subMap(word, true, word + Character.MAX_VALUE, false).values());
+                matches = matches == null ? wordMatches : PostingList.intersect(matches, wordMatches);
+                if (matches.length == 0) {
+                    break;
+                }
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int termCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(ItemDocument previous, ItemDocument current) {
+        lock.writeLock().lock();
+        try {
+            if (pendingChanges != null) {
+                pendingChanges.add(new ItemDocument[]{previous, current});
+            }
+            apply(postings, previous, current);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static void apply(NavigableMap<String, PostingList> postings,
+                              ItemDocument previous, ItemDocument current) {
+        if (previous != null && previous.available()) {
+            removeDocument(postings, previous);
+        }
+        if (current.available()) {
+            addDocument(postings, current);
+        }
+    }
+
+    private static void addDocument(NavigableMap<String, PostingList> postings, ItemDocument document) {
+        for (String term : terms(document)) {
+            postings.computeIfAbsent(term, key -> new PostingList()).add(document.id());
+        }
+    }
+
+    private static void removeDocument(NavigableMap<String, PostingList> postings, ItemDocument document) {
+        for (String term : terms(document)) {
+            PostingList list = postings.get(term);
+            if (list != null) {
+                list.remove(document.id());
+                if (list.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private static Set<String> terms(ItemDocument document) {
+        Set<String> terms = tokenize(document.name());
+        terms.addAll(tokenize(document.description()));
+        return terms;
+    }
+
+    private static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase())) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
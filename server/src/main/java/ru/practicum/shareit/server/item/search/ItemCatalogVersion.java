@@ -0,0 +1,40 @@
+package ru.practicum.shareit.server.item.search;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Версия каталога вещей для кэшей результатов поиска вне сервера. Отдаётся в заголовке
+ * {@link #HEADER} ответа на поиск: запись кэша с меньшей версией, чем последняя увиденная,
+ * устарела.
+ * <p>
+ * Версия растёт только после коммита изменения, поэтому ответ с версией V не может
+ * содержать данные старше изменений, поднявших её до V. Начальное значение берётся от часов,
+ * чтобы после перезапуска сервера версия не откатилась назад.
+ */
+@Component
+public class ItemCatalogVersion {
+    public static final String HEADER = "X-Items-Version";
+
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+
+    public long current() {
+        return version.get();
+    }
+
+    public void itemsChanged() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    version.incrementAndGet();
+                }
+            });
+        } else {
+            version.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.server.item.search;
+
+import ru.practicum.shareit.server.item.model.Item;
+
+/**
+ * Снимок полей вещи, по которым строится поисковый индекс.
+ */
+public record ItemDocument(Long id, String name, String description, boolean available) {
+    public static ItemDocument of(Item item) {
+        return new ItemDocument(item.getId(), item.getName(), item.getDescription(),
+                Boolean.TRUE.equals(item.getAvailable()));
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.server.item.search;
+
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.server.item.model.Item;
+
+import java.util.List;
+
+/**
+ * Поиск доступных вещей по названию и описанию.
+ * Реализация выбирается свойством {@code shareit.search.engine}.
+ */
+public interface ItemSearchEngine {
+    List<Item> search(String text, Pageable pageable);
+
+    /**
+     * Сообщает движку о сохранённой вещи. {@code previous} равен null для новой вещи.
+     * Движкам, которые ищут прямо в БД, делать ничего не нужно.
+     */
+    default void itemSaved(ItemDocument previous, ItemDocument current) {
+    }
+}
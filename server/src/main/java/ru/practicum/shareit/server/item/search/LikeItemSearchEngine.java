@@ -0,0 +1,25 @@
+package ru.practicum.shareit.server.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.item.repository.ItemRepository;
+
+import java.util.List;
+
+/**
+ * Переносимый поиск через LIKE. Работает на любой БД, в том числе на H2 в тестах.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "like", matchIfMissing = true)
+public class LikeItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> search(String text, Pageable pageable) {
+        return itemRepository.searchAvailableItems(text, pageable);
+    }
+}
@@ -0,0 +1,129 @@
+package ru.practicum.shareit.server.item.search;
+
+import java.util.Arrays;
+
+/**
+ * Отсортированный список id вещей поверх примитивного массива long[].
+ * Не потокобезопасен: синхронизацию обеспечивает владелец индекса.
+ */
+final class PostingList {
+    private static final long[] EMPTY = new long[0];
+
+    private long[] ids = EMPTY;
+    private int size;
+
+    static PostingList of(long... ids) {
+        PostingList list = new PostingList();
+        for (long id : ids) {
+            list.add(id);
+        }
+        return list;
+    }
+
+    void add(long id) {
+        if (size > 0 && ids[size - 1] < id) {
+            append(id);
+            return;
+        }
+
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos >= 0) {
+            return;
+        }
+
+        int insertAt = -pos - 1;
+        ensureCapacity(size + 1);
+        System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+        ids[insertAt] = id;
+        size++;
+    }
+
+    void remove(long id) {
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos < 0) {
+            return;
+        }
+
+        System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+        size--;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    /**
+     * Объединение отсортированных списков в один отсортированный массив без повторов.
+     * Короткое слово запроса совпадает как префикс с тысячами слов индекса, поэтому списки
+     * не сливаются попарно (это квадратично по числу списков), а копируются один раз,
+     * сортируются и прореживаются: O(N log N) от общего числа id.
+     */
+    static long[] union(Iterable<PostingList> lists) {
+        int total = 0;
+        int count = 0;
+        for (PostingList list : lists) {
+            total += list.size;
+            count++;
+        }
+
+        long[] all = new long[total];
+        int offset = 0;
+        for (PostingList list : lists) {
+            System.arraycopy(list.ids, 0, all, offset, list.size);
+            offset += list.size;
+        }
+        if (count < 2) {
+            return all;
+        }
+
+        Arrays.sort(all);
+        int unique = 0;
+        for (int i = 0; i < all.length; i++) {
+            if (unique == 0 || all[unique - 1] != all[i]) {
+                all[unique++] = all[i];
+            }
+        }
+        return unique == all.length ? all : Arrays.copyOf(all, unique);
+    }
+
+    /**
+     * Пересечение двух отсортированных массивов.
+     */
+    static long[] intersect(long[] left, long[] right) {
+        long[] result = new long[Math.min(left.length, right.length)];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                result[k++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, k);
+    }
+
+    private void append(long id) {
+        ensureCapacity(size + 1);
+        ids[size++] = id;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > ids.length) {
+            ids = Arrays.copyOf(ids, Math.max(capacity, ids.length + (ids.length >> 1) + 1));
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.server.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.item.repository.ItemRepository;
+
+import java.util.List;
+
+/**
+ * Поиск для PostgreSQL по GIN-индексам pg_trgm (schema-postgresql.sql).
+ * Семантика совпадает с LIKE-поиском, результаты ранжируются по похожести названия.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "trigram")
+public class TrigramItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> search(String text, Pageable pageable) {
+        String query = text.toLowerCase();
+        return itemRepository.searchAvailableItemsByTrigram(toLikePattern(query), query, pageable);
+    }
+
+    static String toLikePattern(String text) {
+        String escaped = text.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+}
@@ -0,0 +1,147 @@
+package ru.practicum.shareit.server.item.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.server.item.dto.ItemDto;
+import ru.practicum.shareit.server.item.dto.ItemImportResult;
+import ru.practicum.shareit.server.user.service.UserService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Потоковый импорт вещей: тело (NDJSON или JSON-массив) читается парсером Jackson по одной
+ * строке, строки копятся в порции фиксированного размера, каждая порция пишется своей
+ * транзакцией через {@link ItemService#createItems}, а результаты по строкам сразу уходят
+ * клиенту в NDJSON. В памяти одновременно находится не больше одной порции.
+ * <p>
+ * Строка с полем не того типа отмечается ошибкой, и импорт идёт дальше; синтаксически
+ * битый JSON останавливает его, потому что дальше границы строк уже не найти.
+ */
+@Slf4j
+@Component
+public class ItemBulkImporter {
+    private final ItemService itemService;
+    private final UserService userService;
+    private final ObjectReader itemReader;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+
+    public ItemBulkImporter(ItemService itemService,
+                            UserService userService,
+                            ObjectMapper objectMapper,
+                            @Value("${shareit.items.bulk-chunk-size:500}") int chunkSize) {
+        this.itemService = itemService;
+        this.userService = userService;
+        this.objectMapper = objectMapper;
+        this.itemReader = objectMapper.readerFor(ItemDto.class);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Владелец проверяется до начала ответа, чтобы неизвестный пользователь получил 404,
+     * а не поток ошибок по каждой строке.
+     */
+    public StreamingResponseBody importItems(InputStream body, Long ownerId) {
+        userService.checkUserExists(ownerId);
+        return out -> importItems(body, ownerId, out);
+    }
+
+    void importItems(InputStream body, Long ownerId, OutputStream out) throws IOException {
+        List<ItemDto> chunk = new ArrayList<>(chunkSize);
+        int nextRow = 0;
+        // readValues сам разворачивает JSON-массив и так же читает значения подряд (NDJSON)
+        try (MappingIterator<ItemDto> rows = itemReader.readValues(body)) {
+            while (rows.hasNextValue()) {
+                ItemDto row;
+                try {
+                    row = rows.nextValue();
+                } catch (JsonMappingException e) {
+                    // Синтаксическую ошибку внутри значения Jackson тоже заворачивает в JsonMappingException
+                    if (e.getCause() instanceof JsonParseException parseError) {
+                        throw parseError;
+                    }
+                    // Строка синтаксически цела, но не ложится на ItemDto: итератор сам пропускает её
+                    // до конца, и чтение продолжается со следующей
+                    nextRow = writeChunk(chunk, nextRow, ownerId, out);
+                    write(out, ItemImportResult.failed(nextRow++, "Invalid row: " + e.getOriginalMessage()));
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    nextRow = writeChunk(chunk, nextRow, ownerId, out);
+                }
+            }
+        } catch (JsonProcessingException e) {
+            nextRow = writeChunk(chunk, nextRow, ownerId, out);
+            write(out, ItemImportResult.failed(nextRow, "Malformed JSON: " + e.getOriginalMessage()));
+            out.flush();
+            return;
+        }
+        writeChunk(chunk, nextRow, ownerId, out);
+    }
+
+    private int writeChunk(List<ItemDto> chunk, int firstRow, Long ownerId, OutputStream out) throws IOException {
+        if (chunk.isEmpty()) {
+            return firstRow;
+        }
+
+        List<ItemImportResult> results;
+        try {
+            results = createOrBisect(chunk, firstRow, ownerId);
+        } catch (RuntimeException e) {
+            // Ответ уже идёт потоком: вместо обрыва NDJSON каждая строка порции получает ошибку
+            log.warn("Bulk import chunk starting at row {} failed: {}", firstRow, e.getMessage());
+            results = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                results.add(ItemImportResult.failed(firstRow + i, e.getMessage()));
+            }
+        }
+        for (ItemImportResult result : results) {
+            write(out, result);
+        }
+        out.flush();
+
+        int nextRow = firstRow + chunk.size();
+        chunk.clear();
+        return nextRow;
+    }
+
+    /**
+     * Порцию, которую отвергла БД, делит пополам и повторяет половины, пока отвергнутой
+     * не останется одна строка: сохраняется всё, кроме неё, а транзакций уходит
+     * порядка k·log(n) на k плохих строк.
+     */
+    private List<ItemImportResult> createOrBisect(List<ItemDto> rows, int firstRow, Long ownerId) {
+        try {
+            return itemService.createItems(rows, firstRow, ownerId);
+        } catch (DataIntegrityViolationException e) {
+            if (rows.size() == 1) {
+                log.warn("Bulk import row {} rejected: {}", firstRow, e.getMostSpecificCause().getMessage());
+                return List.of(ItemImportResult.failed(firstRow, "Rejected by database"));
+            }
+            int half = rows.size() / 2;
+            List<ItemImportResult> results = new ArrayList<>(rows.size());
+            results.addAll(createOrBisect(rows.subList(0, half), firstRow, ownerId));
+            results.addAll(createOrBisect(rows.subList(half, rows.size()), firstRow + half, ownerId));
+            return results;
+        }
+    }
+
+    private void write(OutputStream out, ItemImportResult result) throws IOException {
+        out.write(objectMapper.writeValueAsBytes(result));
+        out.write('\n');
+    }
+}
@@ -1,20 +1,44 @@
 package ru.practicum.shareit.server.item.service;
 
 import ru.practicum.shareit.server.item.dto.CommentDto;
+import ru.practicum.shareit.server.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.server.item.dto.ItemDto;
+import ru.practicum.shareit.server.item.dto.ItemImportResult;
+import ru.practicum.shareit.server.item.dto.ItemView;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemService {
     ItemDto createItem(ItemDto itemDto, Long ownerId);
 
+    /**
+     * Создаёт порцию вещей одной транзакцией. Невалидные строки не сохраняются и
+     * возвращаются с ошибкой; нумерация результатов начинается с firstRow.
+     */
+    List<ItemImportResult> createItems(List<ItemDto> items, int firstRow, Long ownerId);
+
     ItemDto updateItem(Long itemId, ItemDto itemDto, Long ownerId);
 
     ItemDto getItemById(Long itemId, Long userId);
 
+    /**
+     * То же, что {@link #getItemById}, но дополнительно возвращает id владельца вещи.
+     */
+    ItemView getItemView(Long itemId, Long userId);
+
+    /**
+     * ETag вещи без загрузки отзывов. Владельцу ETag не выдаётся: его вид вещи включает
+     * ближайшие бронирования, а они меняются без изменения самой вещи.
+     */
+    Optional<String> getItemETag(Long itemId, Long userId);
+
     List<ItemDto> getAllItemsByOwner(Long ownerId, int from, int size);
 
     List<ItemDto> searchItems(String text, int from, int size);
 
     CommentDto addComment(Long itemId, CommentDto commentDto, Long userId);
+
+    ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to);
 }
\ No newline at end of file
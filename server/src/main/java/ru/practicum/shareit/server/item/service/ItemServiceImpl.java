@@ -1,49 +1,72 @@
 package ru.practicum.shareit.server.item.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.hibernate.Hibernate;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.shareit.server.booking.Booking;
 import ru.practicum.shareit.server.booking.BookingStatus;
+import ru.practicum.shareit.server.booking.availability.ItemAvailabilityCache;
+import ru.practicum.shareit.server.booking.dto.BookingShortView;
+import ru.practicum.shareit.server.booking.dto.ItemBookingView;
 import ru.practicum.shareit.server.booking.mapper.BookingMapper;
 import ru.practicum.shareit.server.booking.repository.BookingRepository;
 import ru.practicum.shareit.server.exception.NotFoundException;
 import ru.practicum.shareit.server.exception.ValidationException;
 import ru.practicum.shareit.server.item.dto.CommentDto;
+import ru.practicum.shareit.server.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.server.item.dto.ItemDto;
+import ru.practicum.shareit.server.item.dto.ItemImportResult;
+import ru.practicum.shareit.server.item.dto.ItemView;
 import ru.practicum.shareit.server.item.mapper.CommentMapper;
 import ru.practicum.shareit.server.item.mapper.ItemMapper;
 import ru.practicum.shareit.server.item.model.Comment;
 import ru.practicum.shareit.server.item.model.Item;
 import ru.practicum.shareit.server.item.repository.CommentRepository;
 import ru.practicum.shareit.server.item.repository.ItemRepository;
+import ru.practicum.shareit.server.item.search.ItemCatalogVersion;
+import ru.practicum.shareit.server.item.search.ItemDocument;
+import ru.practicum.shareit.server.item.search.ItemSearchEngine;
+import ru.practicum.shareit.server.metrics.MetricNames;
+import ru.practicum.shareit.server.request.model.ItemRequest;
 import ru.practicum.shareit.server.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.server.user.User;
 import ru.practicum.shareit.server.user.mapper.UserMapper;
 import ru.practicum.shareit.server.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Timed(MetricNames.SERVICE)
 public class ItemServiceImpl implements ItemService {
     private final ItemRepository itemRepository;
     private final UserService userService;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchEngine itemSearchEngine;
+    private final ItemAvailabilityCache availabilityCache;
+    private final ItemCatalogVersion catalogVersion;
 
     @Override
     @Transactional
     public ItemDto createItem(ItemDto itemDto, Long ownerId) {
         validateItemDto(itemDto);
-        getUser(ownerId);
+        userService.checkUserExists(ownerId);
 
         Item item = ItemMapper.toItem(itemDto);
         User owner = new User();
@@ -57,9 +80,62 @@ public class ItemServiceImpl implements ItemService {
         }
 
         Item savedItem = itemRepository.save(item);
+        itemSearchEngine.itemSaved(null, ItemDocument.of(savedItem));
+        catalogVersion.itemsChanged();
         return ItemMapper.toItemDto(savedItem);
     }
 
+    @Override
+    @Transactional
+    public List<ItemImportResult> createItems(List<ItemDto> items, int firstRow, Long ownerId) {
+        userService.checkUserExists(ownerId);
+        User owner = new User();
+        owner.setId(ownerId);
+
+        Set<Long> requestIds = items.stream()
+                .map(ItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, ItemRequest> requests = requestIds.isEmpty() ? Collections.emptyMap() :
+                itemRequestRepository.findAllById(requestIds).stream()
+                        .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+
+        ItemImportResult[] results = new ItemImportResult[items.size()];
+        List<Item> toSave = new ArrayList<>(items.size());
+        List<Integer> positions = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            ItemDto itemDto = items.get(i);
+            try {
+                validateItemDto(itemDto);
+            } catch (ValidationException e) {
+                results[i] = ItemImportResult.failed(firstRow + i, e.getMessage());
+                continue;
+            }
+            if (itemDto.getRequestId() != null && !requests.containsKey(itemDto.getRequestId())) {
+                results[i] = ItemImportResult.failed(firstRow + i, "Item request not found");
+                continue;
+            }
+
+            Item item = ItemMapper.toItem(itemDto);
+            item.setId(null);
+            item.setOwner(owner);
+            item.setRequest(requests.get(itemDto.getRequestId()));
+            toSave.add(item);
+            positions.add(i);
+        }
+
+        List<Item> saved = itemRepository.saveAllAndFlush(toSave);
+        for (int j = 0; j < saved.size(); j++) {
+            Item item = saved.get(j);
+            itemSearchEngine.itemSaved(null, ItemDocument.of(item));
+            results[positions.get(j)] = ItemImportResult.created(firstRow + positions.get(j), item.getId());
+        }
+        if (!saved.isEmpty()) {
+            catalogVersion.itemsChanged();
+        }
+        return Arrays.asList(results);
+    }
+
     @Override
     @Transactional
     public ItemDto updateItem(Long itemId, ItemDto itemDto, Long ownerId) {
@@ -69,6 +145,7 @@ public class ItemServiceImpl implements ItemService {
         if (!existingItem.getOwner().getId().equals(ownerId)) {
             throw new NotFoundException("Only owner can update item");
         }
+        ItemDocument previous = ItemDocument.of(existingItem);
 
         if (itemDto.getName() != null) {
             if (itemDto.getName().isBlank()) {
@@ -87,12 +164,28 @@ public class ItemServiceImpl implements ItemService {
         }
 
         Item updatedItem = itemRepository.save(existingItem);
+        itemSearchEngine.itemSaved(previous, ItemDocument.of(updatedItem));
+        catalogVersion.itemsChanged();
         return ItemMapper.toItemDto(updatedItem);
     }
 
     @Override
     @Transactional(readOnly = true)
     public ItemDto getItemById(Long itemId, Long userId) {
+        return getItemView(itemId, userId).item();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<String> getItemETag(Long itemId, Long userId) {
+        return itemRepository.findVersionById(itemId)
+                .filter(version -> !version.getOwnerId().equals(userId))
+                .map(version -> "item-" + itemId + "-" + version.getVersion());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ItemView getItemView(Long itemId, Long userId) {
         Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new NotFoundException("Item not found"));
 
@@ -102,13 +195,14 @@ public class ItemServiceImpl implements ItemService {
 
         if (item.getOwner() != null && item.getOwner().getId().equals(userId)) {
             LocalDateTime now = LocalDateTime.now();
+            Pageable first = PageRequest.of(0, 1);
 
-            List<Booking> lastBookings = bookingRepository.findLastBookings(itemId, now);
+            List<BookingShortView> lastBookings = bookingRepository.findLastBookings(itemId, now, first);
             if (lastBookings != null && !lastBookings.isEmpty()) {
                 itemDto.setLastBooking(BookingMapper.toBookingShortDto(lastBookings.get(0)));
             }
 
-            List<Booking> nextBookings = bookingRepository.findNextBookings(itemId, now);
+            List<BookingShortView> nextBookings = bookingRepository.findNextBookings(itemId, now, first);
             if (nextBookings != null && !nextBookings.isEmpty()) {
                 itemDto.setNextBooking(BookingMapper.toBookingShortDto(nextBookings.get(0)));
             }
@@ -121,7 +215,7 @@ public class ItemServiceImpl implements ItemService {
                     .collect(Collectors.toList()));
         }
 
-        return itemDto;
+        return new ItemView(itemDto, item.getOwner() != null ? item.getOwner().getId() : null);
     }
 
     @Override
@@ -129,26 +223,31 @@ public class ItemServiceImpl implements ItemService {
     public List<ItemDto> getAllItemsByOwner(Long ownerId, int from, int size) {
         Pageable pageable = PageRequest.of(from / size, size);
         List<Item> items = itemRepository.findByOwnerIdOrderById(ownerId, pageable);
-        LocalDateTime now = LocalDateTime.now();
-
-        return items.stream().map(item -> {
-            ItemDto itemDto = ItemMapper.toItemDto(item);
+        if (items.isEmpty()) {
+            return Collections.emptyList();
+        }
 
-            List<Booking> lastBookings = bookingRepository.findLastBookings(item.getId(), now);
-            if (!lastBookings.isEmpty()) {
-                itemDto.setLastBooking(BookingMapper.toBookingShortDto(lastBookings.get(0)));
-            }
+        List<Long> itemIds = items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        LocalDateTime now = LocalDateTime.now();
 
-            List<Booking> nextBookings = bookingRepository.findNextBookings(item.getId(), now);
-            if (!nextBookings.isEmpty()) {
-                itemDto.setNextBooking(BookingMapper.toBookingShortDto(nextBookings.get(0)));
-            }
+        Map<Long, ItemDto.BookingShortDto> lastBookings = new HashMap<>();
+        Map<Long, ItemDto.BookingShortDto> nextBookings = new HashMap<>();
+        for (ItemBookingView booking : bookingRepository.findLastAndNextBookings(itemIds, now)) {
+            Map<Long, ItemDto.BookingShortDto> target = booking.getPast() ? lastBookings : nextBookings;
+            target.put(booking.getItemId(), BookingMapper.toBookingShortDto(booking));
+        }
 
-            List<Comment> comments = commentRepository.findByItemId(item.getId());
-            itemDto.setComments(comments.stream()
-                    .map(CommentMapper::toCommentDto)
-                    .collect(Collectors.toList()));
+        Map<Long, List<CommentDto>> comments = commentRepository.findByItemIdIn(itemIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(CommentMapper::toCommentDto, Collectors.toList())));
 
+        return items.stream().map(item -> {
+            ItemDto itemDto = ItemMapper.toItemDto(item);
+            itemDto.setLastBooking(lastBookings.get(item.getId()));
+            itemDto.setNextBooking(nextBookings.get(item.getId()));
+            itemDto.setComments(comments.getOrDefault(item.getId(), Collections.emptyList()));
             return itemDto;
         }).collect(Collectors.toList());
     }
@@ -161,7 +260,7 @@ public class ItemServiceImpl implements ItemService {
         }
 
         Pageable pageable = PageRequest.of(from / size, size);
-        return itemRepository.searchAvailableItems(text, pageable).stream()
+        return itemSearchEngine.search(text, pageable).stream()
                 .map(ItemMapper::toItemDto)
                 .collect(Collectors.toList());
     }
@@ -192,9 +291,19 @@ public class ItemServiceImpl implements ItemService {
         comment.setCreated(now);
 
         Comment savedComment = commentRepository.save(comment);
+        itemRepository.incrementVersion(itemId);
         return CommentMapper.toCommentDto(savedComment);
     }
 
+    @Override
+    public ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new ValidationException("Start of the window must be before its end");
+        }
+
+        return new ItemAvailabilityDto(itemId, from, to, availabilityCache.isFree(itemId, from, to));
+    }
+
     private User getUser(Long userId) {
         return UserMapper.toUser(userService.getUserById(userId));
     }
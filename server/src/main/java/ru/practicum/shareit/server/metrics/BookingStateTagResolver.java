@@ -0,0 +1,23 @@
+package ru.practicum.shareit.server.metrics;
+
+import io.micrometer.common.annotation.ValueResolver;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Значение тега state — ветка, по которой сервис выбирает бронирования. Неизвестные
+ * состояния сервис обрабатывает как ALL, поэтому и в тег они попадают как ALL:
+ * произвольная строка из запроса не плодит новые временные ряды.
+ */
+@Component
+public class BookingStateTagResolver implements ValueResolver {
+    private static final Set<String> BRANCHES = Set.of("CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED");
+
+    @Override
+    public String resolve(Object parameter) {
+        String state = parameter == null ? "" : parameter.toString().toUpperCase(Locale.ROOT);
+        return BRANCHES.contains(state) ? state : "ALL";
+    }
+}
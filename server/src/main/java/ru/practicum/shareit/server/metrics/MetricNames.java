@@ -0,0 +1,35 @@
+package ru.practicum.shareit.server.metrics;
+
+/**
+ * Имена метрик сервера. Гистограмма для перцентилей включена в application.properties только у SERVICE.
+ */
+public final class MetricNames {
+    /**
+     * Таймер методов сервисов с тегами class, method и exception; его пишет {@link ServiceTimerAspect}.
+     */
+    public static final String SERVICE = "shareit.service";
+
+    /**
+     * Таймер методов репозиториев с тегами repository, method, state и exception;
+     * его пишет {@link RepositoryTimerListener}, имя задаётся management.metrics.data.repository.metric-name.
+     */
+    public static final String REPOSITORY = "shareit.repository";
+
+    /**
+     * Число SQL-запросов за HTTP-запрос с тегами method и uri (шаблон пути).
+     */
+    public static final String SQL_STATEMENTS = "shareit.sql.statements";
+
+    /**
+     * Время выполнения SQL в JDBC за HTTP-запрос с тегами method и uri.
+     */
+    public static final String SQL_TIME = "shareit.sql.time";
+
+    /**
+     * Счётчик повторов одного и того же SELECT внутри HTTP-запроса (вероятный N+1) с тегами method и uri.
+     */
+    public static final String SQL_REPEATED = "shareit.sql.repeated";
+
+    private MetricNames() {
+    }
+}
@@ -0,0 +1,26 @@
+package ru.practicum.shareit.server.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsProperties;
+import org.springframework.boot.actuate.autoconfigure.metrics.PropertiesAutoTimer;
+import org.springframework.boot.actuate.metrics.data.RepositoryTagsProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Подменяет стандартный слушатель таймеров репозиториев Spring Boot на {@link RepositoryTimerListener}
+ * с кэшем таймеров. Имя метрики и autotime по-прежнему задаются свойствами
+ * management.metrics.data.repository.*.
+ */
+@Configuration
+public class RepositoryMetricsConfig {
+    @Bean
+    public RepositoryTimerListener repositoryTimerListener(ObjectProvider<MeterRegistry> meterRegistry,
+                                                           RepositoryTagsProvider tagsProvider,
+                                                           MetricsProperties properties) {
+        MetricsProperties.Data.Repository repository = properties.getData().getRepository();
+        return new RepositoryTimerListener(meterRegistry::getObject, tagsProvider, repository.getMetricName(),
+                new PropertiesAutoTimer(repository.getAutotime()));
+    }
+}
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.server.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.actuate.metrics.AutoTimer;
+import org.springframework.boot.actuate.metrics.annotation.TimedAnnotations;
+import org.springframework.boot.actuate.metrics.data.MetricsRepositoryMethodInvocationListener;
+import org.springframework.boot.actuate.metrics.data.RepositoryTagsProvider;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener.RepositoryMethodInvocationResult.State;
+import org.springframework.util.function.SingletonSupplier;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Таймеры методов репозиториев с тегами Spring Boot (repository, method, state, exception).
+ * <p>
+ * Стандартный слушатель на каждом вызове собирает теги и ищет таймер в реестре — около 0,8 мкс,
+ * а горячий путь делает до четырёх запросов. Здесь таймер успешного вызова берётся из карты по
+ * интерфейсу репозитория и методу. Ошибки и методы с {@code @Timed} обрабатывает базовый класс;
+ * при отключённом autotime остальные вызовы не стоят ничего, кроме поиска в кэше аннотаций.
+ */
+public class RepositoryTimerListener extends MetricsRepositoryMethodInvocationListener {
+    private final Supplier<MeterRegistry> registrySupplier;
+    private final RepositoryTagsProvider tagsProvider;
+    private final String metricName;
+    private final AutoTimer autoTimer;
+    private final Map<Class<?>, Map<Method, Timer>> timers = new ConcurrentHashMap<>();
+
+    public RepositoryTimerListener(Supplier<MeterRegistry> registrySupplier, RepositoryTagsProvider tagsProvider,
+                                   String metricName, AutoTimer autoTimer) {
+        this(SingletonSupplier.of(registrySupplier), tagsProvider, metricName, autoTimer);
+    }
+
+    private RepositoryTimerListener(SingletonSupplier<MeterRegistry> registrySupplier,
+                                    RepositoryTagsProvider tagsProvider, String metricName, AutoTimer autoTimer) {
+        super(registrySupplier, tagsProvider, metricName, autoTimer);
+        this.registrySupplier = registrySupplier;
+        this.tagsProvider = tagsProvider;
+        this.metricName = metricName;
+        this.autoTimer = autoTimer;
+    }
+
+    @Override
+    public void afterInvocation(RepositoryMethodInvocation invocation) {
+        if (invocation.getResult().getState() != State.SUCCESS) {
+            super.afterInvocation(invocation);
+            return;
+        }
+
+        Map<Method, Timer> repositoryTimers = timers.get(invocation.getRepositoryInterface());
+        if (repositoryTimers == null) {
+            repositoryTimers = timers.computeIfAbsent(invocation.getRepositoryInterface(),
+                    repository -> new ConcurrentHashMap<>());
+        }
+        Timer timer = repositoryTimers.get(invocation.getMethod());
+        if (timer == null) {
+            if (!TimedAnnotations.get(invocation.getMethod(), invocation.getRepositoryInterface()).isEmpty()) {
+                super.afterInvocation(invocation);
+                return;
+            }
+            if (!autoTimer.isEnabled()) {
+                return;
+            }
+            timer = repositoryTimers.computeIfAbsent(invocation.getMethod(), method -> register(invocation));
+        }
+        timer.record(invocation.getDuration(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+    }
+
+    private Timer register(RepositoryMethodInvocation invocation) {
+        Timer.Builder builder = Timer.builder(metricName)
+                .description("Duration of repository invocations")
+                .tags(tagsProvider.repositoryTags(invocation));
+        autoTimer.apply(builder);
+        return builder.register(registrySupplier.get());
+    }
+}
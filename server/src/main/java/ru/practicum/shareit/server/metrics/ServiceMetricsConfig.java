@@ -0,0 +1,29 @@
+package ru.practicum.shareit.server.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+
+/**
+ * Таймеры для классов сервисов с {@code @Timed}. Значения тегов {@code @MeterTag}
+ * вычисляют бины-резолверы из контекста. Отключается свойством
+ * {@code shareit.metrics.services.enabled=false} — так бенчмарк меряет цену таймеров.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.metrics.services.enabled", havingValue = "true", matchIfMissing = true)
+public class ServiceMetricsConfig {
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor serviceTimerAdvisor(ObjectProvider<MeterRegistry> meterRegistry,
+                                              ApplicationContext context) {
+        return new DefaultPointcutAdvisor(ServiceTimerInterceptor.POINTCUT,
+                new ServiceTimerInterceptor(meterRegistry::getObject, resolver -> context.getBean(resolver)));
+    }
+}
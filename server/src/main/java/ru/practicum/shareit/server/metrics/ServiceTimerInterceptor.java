@@ -0,0 +1,163 @@
+package ru.practicum.shareit.server.metrics;
+
+import io.micrometer.common.annotation.NoOpValueResolver;
+import io.micrometer.common.annotation.ValueResolver;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.aop.MeterTag;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.util.function.SingletonSupplier;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Таймеры публичных методов классов с {@code @Timed} с теми же тегами, что у {@link TimedAspect}:
+ * class, method, exception и параметры с {@code @MeterTag} (через resolver).
+ * <p>
+ * TimedAspect на каждом вызове заново собирает теги, обходит аннотации параметров и ищет таймер
+ * в реестре, а advice AspectJ добавляет свой join point — вместе около 2,5 мкс, несколько процентов
+ * от горячих путей. Здесь обычный перехватчик в цепочке прокси, которая у сервисов и так есть ради
+ * {@code @Transactional}; метод разбирается один раз, а таймеры успешных вызовов кэшируются по
+ * значениям тегов параметров. Неуспешные вызовы редки и регистрируются в реестре напрямую.
+ */
+public class ServiceTimerInterceptor implements MethodInterceptor {
+    /**
+     * Публичные методы классов с {@code @Timed}, кроме унаследованных от Object.
+     */
+    public static final Pointcut POINTCUT = new StaticMethodMatcherPointcut() {
+        @Override
+        public boolean matches(Method method, Class<?> targetClass) {
+            return Modifier.isPublic(method.getModifiers())
+                    && method.getDeclaringClass() != Object.class
+                    && AnnotatedElementUtils.hasAnnotation(targetClass, Timed.class);
+        }
+    };
+
+    private final Supplier<MeterRegistry> meterRegistry;
+    private final Function<Class<? extends ValueResolver>, ? extends ValueResolver> resolvers;
+    private final Map<Method, MethodTimers> methods = new ConcurrentHashMap<>();
+
+    /**
+     * Реестр берётся лениво: перехватчик создаётся вместе с прокси раньше, чем реестр получит
+     * фильтры из management.metrics.*, в том числе настройки гистограмм.
+     */
+    public ServiceTimerInterceptor(Supplier<MeterRegistry> meterRegistry,
+                                   Function<Class<? extends ValueResolver>, ? extends ValueResolver> resolvers) {
+        this.meterRegistry = SingletonSupplier.of(meterRegistry);
+        this.resolvers = resolvers;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Method method = invocation.getMethod();
+        MethodTimers timers = methods.get(method);
+        if (timers == null) {
+            timers = methods.computeIfAbsent(method, key -> new MethodTimers(invocation));
+        }
+
+        long start = System.nanoTime();
+        String exception = TimedAspect.DEFAULT_EXCEPTION_TAG_VALUE;
+        try {
+            return invocation.proceed();
+        } catch (Exception e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            long duration = System.nanoTime() - start;
+            timers.timer(invocation.getArguments(), exception).record(duration, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private record ParameterTag(int index, String key, ValueResolver resolver) {
+        String value(Object[] args) {
+            return resolver == null ? String.valueOf(args[index]) : resolver.resolve(args[index]);
+        }
+    }
+
+    private final class MethodTimers {
+        private final Timed timed;
+        private final String metricName;
+        private final Tags tags;
+        private final List<ParameterTag> parameterTags = new ArrayList<>();
+        private final Map<List<String>, Timer> succeeded = new ConcurrentHashMap<>();
+
+        MethodTimers(MethodInvocation invocation) {
+            Method method = invocation.getMethod();
+            Class<?> targetClass = AopUtils.getTargetClass(invocation.getThis());
+            timed = AnnotatedElementUtils.findMergedAnnotation(targetClass, Timed.class);
+            metricName = timed.value().isEmpty() ? TimedAspect.DEFAULT_METRIC_NAME : timed.value();
+            tags = Tags.of(timed.extraTags())
+                    .and("class", method.getDeclaringClass().getName(), "method", method.getName());
+
+            Annotation[][] annotations = AopUtils.getMostSpecificMethod(method, targetClass).getParameterAnnotations();
+            for (int i = 0; i < annotations.length; i++) {
+                for (Annotation annotation : annotations[i]) {
+                    if (annotation instanceof MeterTag meterTag) {
+                        parameterTags.add(parameterTag(i, meterTag));
+                    }
+                }
+            }
+        }
+
+        Timer timer(Object[] args, String exception) {
+            List<String> values = values(args);
+            if (!TimedAspect.DEFAULT_EXCEPTION_TAG_VALUE.equals(exception)) {
+                return register(values, exception);
+            }
+            Timer timer = succeeded.get(values);
+            return timer != null ? timer : succeeded.computeIfAbsent(values, key -> register(key, exception));
+        }
+
+        private List<String> values(Object[] args) {
+            if (parameterTags.isEmpty()) {
+                return List.of();
+            }
+            List<String> values = new ArrayList<>(parameterTags.size());
+            for (ParameterTag parameterTag : parameterTags) {
+                values.add(parameterTag.value(args));
+            }
+            return values;
+        }
+
+        private Timer register(List<String> values, String exception) {
+            Timer.Builder builder = Timer.builder(metricName)
+                    .description(timed.description().isEmpty() ? null : timed.description())
+                    .tags(tags)
+                    .tag(TimedAspect.EXCEPTION_TAG, exception)
+                    .publishPercentileHistogram(timed.histogram())
+                    .publishPercentiles(timed.percentiles().length == 0 ? null : timed.percentiles());
+            for (int i = 0; i < values.size(); i++) {
+                builder.tag(parameterTags.get(i).key(), values.get(i));
+            }
+            return builder.register(meterRegistry.get());
+        }
+
+        private ParameterTag parameterTag(int index, MeterTag meterTag) {
+            if (!meterTag.expression().isEmpty()) {
+                throw new IllegalStateException("@MeterTag expression is not supported: " + meterTag.expression());
+            }
+            String key = meterTag.key().isEmpty() ? meterTag.value() : meterTag.key();
+            ValueResolver resolver = meterTag.resolver() == NoOpValueResolver.class
+                    ? null
+                    : resolvers.apply(meterTag.resolver());
+            return new ParameterTag(index, key, resolver);
+        }
+    }
+}
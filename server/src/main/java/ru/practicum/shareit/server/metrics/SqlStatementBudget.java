@@ -0,0 +1,17 @@
+package ru.practicum.shareit.server.metrics;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Наибольшее число SQL-запросов, которое метод контроллера может выполнить за один HTTP-запрос.
+ * Превышение пишется в лог, а при {@code shareit.sql.budget.enforce=true} (профиль test)
+ * запрос завершается ошибкой, и тест через MockMvc падает.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SqlStatementBudget {
+    int value();
+}
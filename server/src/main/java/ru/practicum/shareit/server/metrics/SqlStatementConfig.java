@@ -0,0 +1,35 @@
+package ru.practicum.shareit.server.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Учёт SQL по HTTP-запросам: инспектор и слушатель сессий Hibernate плюс фильтр,
+ * который открывает и закрывает учёт вокруг запроса. Отключается свойством
+ * {@code shareit.sql.stats.enabled=false}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.sql.stats.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlStatementConfig {
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementRecorder() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementRecorder());
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER,
+                    SqlStatementRecorder.JdbcTimeListener.class.getName());
+        };
+    }
+
+    @Bean
+    public SqlStatementFilter sqlStatementFilter(
+            MeterRegistry meterRegistry,
+            @Value("${shareit.sql.repeated-threshold:3}") int repeatedThreshold,
+            @Value("${shareit.sql.budget.enforce:false}") boolean enforceBudget) {
+        return new SqlStatementFilter(meterRegistry, repeatedThreshold, enforceBudget);
+    }
+}
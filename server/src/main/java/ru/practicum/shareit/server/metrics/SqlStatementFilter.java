@@ -0,0 +1,87 @@
+package ru.practicum.shareit.server.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Считает SQL каждого HTTP-запроса: число запросов и время в JDBC уходят в лог (DEBUG)
+ * и в метрики с шаблоном пути, повторяющиеся SELECT — в лог (WARN) как вероятный N+1.
+ * Если у метода контроллера объявлен {@link SqlStatementBudget}, проверяет его.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class SqlStatementFilter extends OncePerRequestFilter {
+    private final MeterRegistry meterRegistry;
+    private final int repeatedThreshold;
+    private final boolean enforceBudget;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStatementStats stats = SqlStatementRecorder.start();
+        request.setAttribute(SqlStatementStats.ATTRIBUTE, stats);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            SqlStatementRecorder.stop();
+        }
+        report(request, stats);
+    }
+
+    private void report(HttpServletRequest request, SqlStatementStats stats) {
+        String method = request.getMethod();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        Tags tags = Tags.of("method", method, "uri", uri);
+
+        DistributionSummary.builder(MetricNames.SQL_STATEMENTS)
+                .tags(tags)
+                .register(meterRegistry)
+                .record(stats.getStatements());
+        Timer.builder(MetricNames.SQL_TIME)
+                .tags(tags)
+                .register(meterRegistry)
+                .record(stats.getJdbcTime());
+        log.debug("{} {}: {} SQL statements, {} ms in JDBC",
+                method, request.getRequestURI(), stats.getStatements(), stats.getJdbcTime().toMillis());
+
+        Map<String, Integer> repeated = stats.getRepeatedSelects(repeatedThreshold);
+        if (!repeated.isEmpty()) {
+            Counter counter = Counter.builder(MetricNames.SQL_REPEATED)
+                    .tags(tags)
+                    .register(meterRegistry);
+            repeated.forEach((sql, count) -> {
+                counter.increment();
+                log.warn("Likely N+1 in {} {}: same select executed {} times: {}", method, uri, count, sql);
+            });
+        }
+
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        SqlStatementBudget budget = handler instanceof HandlerMethod handlerMethod
+                ? handlerMethod.getMethodAnnotation(SqlStatementBudget.class)
+                : null;
+        if (budget != null && stats.getStatements() > budget.value()) {
+            String message = String.format("%s %s executed %d SQL statements, budget is %d",
+                    method, uri, stats.getStatements(), budget.value());
+            if (enforceBudget) {
+                throw new IllegalStateException(message);
+            }
+            log.warn(message);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.server.metrics;
+
+import org.hibernate.BaseSessionEventListener;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Пишет SQL Hibernate в {@link SqlStatementStats} текущего HTTP-запроса.
+ * <p>
+ * Hibernate передаёт инспектору каждый подготавливаемый запрос, а слушателю сессии —
+ * начало и конец выполнения в JDBC. Статистика привязана к потоку между {@link #start()}
+ * и {@link #stop()}; запросы вне этого окна (старт приложения, потоковые ответы,
+ * которые пишутся в другом потоке) не учитываются.
+ */
+public class SqlStatementRecorder implements StatementInspector {
+    private static final ThreadLocal<SqlStatementStats> CURRENT = new ThreadLocal<>();
+
+    static SqlStatementStats start() {
+        SqlStatementStats stats = new SqlStatementStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static void stop() {
+        CURRENT.remove();
+    }
+
+    @Override
+    public String inspect(String sql) {
+        SqlStatementStats stats = CURRENT.get();
+        if (stats != null) {
+            stats.statement(sql);
+        }
+        return sql;
+    }
+
+    /**
+     * Время выполнения запросов и пачек в JDBC, без разбора результата в сущности.
+     * Hibernate создаёт слушатель на каждую сессию по имени класса, поэтому он публичный
+     * и с конструктором без аргументов.
+     */
+    public static class JdbcTimeListener extends BaseSessionEventListener {
+        private long executeStart;
+        private long batchStart;
+
+        @Override
+        public void jdbcExecuteStatementStart() {
+            executeStart = System.nanoTime();
+        }
+
+        @Override
+        public void jdbcExecuteStatementEnd() {
+            record(executeStart);
+        }
+
+        @Override
+        public void jdbcExecuteBatchStart() {
+            batchStart = System.nanoTime();
+        }
+
+        @Override
+        public void jdbcExecuteBatchEnd() {
+            record(batchStart);
+        }
+
+        private static void record(long start) {
+            SqlStatementStats stats = CURRENT.get();
+            if (stats != null) {
+                stats.jdbcTime(System.nanoTime() - start);
+            }
+        }
+    }
+}
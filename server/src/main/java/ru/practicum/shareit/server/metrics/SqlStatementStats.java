@@ -0,0 +1,65 @@
+package ru.practicum.shareit.server.metrics;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * SQL одного HTTP-запроса: сколько запросов ушло в базу, сколько времени они выполнялись
+ * в JDBC и какие SELECT повторялись. Заполняется в потоке запроса, поэтому без синхронизации.
+ * Лежит в атрибуте запроса {@link #ATTRIBUTE}, пока запрос обрабатывается.
+ */
+public class SqlStatementStats {
+    public static final String ATTRIBUTE = SqlStatementStats.class.getName();
+
+    private final Map<String, Integer> selects = new HashMap<>();
+    private int statements;
+    private long jdbcNanos;
+
+    void statement(String sql) {
+        statements++;
+        if (isRepeatable(sql)) {
+            selects.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    void jdbcTime(long nanos) {
+        jdbcNanos += nanos;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public Duration getJdbcTime() {
+        return Duration.ofNanos(jdbcNanos);
+    }
+
+    /**
+     * SELECT, выполненные не меньше threshold раз с разными параметрами, с числом повторов.
+     * Один и тот же текст с разными параметрами в одном запросе — почти всегда загрузка
+     * по одной строке в цикле (N+1).
+     */
+    public Map<String, Integer> getRepeatedSelects(int threshold) {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        selects.forEach((sql, count) -> {
+            if (count >= threshold) {
+                repeated.put(sql, count);
+            }
+        });
+        return repeated;
+    }
+
+    /**
+     * Вставки пачками и выборка из последовательностей (pooled-lo, по 50 id) законно повторяются
+     * при массовой записи, поэтому в поиске N+1 не участвуют.
+     */
+    private static boolean isRepeatable(String sql) {
+        String normalized = sql.stripLeading().toLowerCase(Locale.ROOT);
+        return normalized.startsWith("select")
+                && !normalized.contains("nextval(")
+                && !normalized.contains("next value for");
+    }
+}
@@ -2,11 +2,15 @@ package ru.practicum.shareit.server.request;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.server.metrics.SqlStatementBudget;
 import ru.practicum.shareit.server.request.dto.ItemRequestDto;
 import ru.practicum.shareit.server.request.service.ItemRequestService;
 
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping(path = "/requests")
@@ -21,11 +25,13 @@ public class ItemRequestController {
     }
 
     @GetMapping
+    @SqlStatementBudget(3)
     public List<ItemRequestDto> getUserItemRequests(@RequestHeader("X-Sharer-User-Id") Long userId) {
         return itemRequestService.getUserItemRequests(userId);
     }
 
     @GetMapping("/all")
+    @SqlStatementBudget(3)
     public List<ItemRequestDto> getOtherUsersItemRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                           @RequestParam(defaultValue = "0") int from,
                                                           @RequestParam(defaultValue = "10") int size) {
@@ -33,8 +39,15 @@ public class ItemRequestController {
     }
 
     @GetMapping("/{requestId}")
-    public ItemRequestDto getItemRequestById(@PathVariable Long requestId,
-                                             @RequestHeader("X-Sharer-User-Id") Long userId) {
-        return itemRequestService.getItemRequestById(requestId, userId);
+    public ResponseEntity<ItemRequestDto> getItemRequestById(@PathVariable Long requestId,
+                                                             @RequestHeader("X-Sharer-User-Id") Long userId,
+                                                             WebRequest request) {
+        Optional<String> eTag = itemRequestService.getItemRequestETag(requestId, userId);
+        if (eTag.isPresent() && request.checkNotModified(eTag.get())) {
+            return null;
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        eTag.ifPresent(response::eTag);
+        return response.body(itemRequestService.getItemRequestById(requestId, userId));
     }
 }
\ No newline at end of file
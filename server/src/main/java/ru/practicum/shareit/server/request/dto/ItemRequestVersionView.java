@@ -0,0 +1,9 @@
+package ru.practicum.shareit.server.request.dto;
+
+public interface ItemRequestVersionView {
+    Long getVersion();
+
+    Long getItemCount();
+
+    Long getItemVersions();
+}
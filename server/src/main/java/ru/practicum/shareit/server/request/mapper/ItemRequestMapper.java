@@ -1,9 +1,11 @@
 package ru.practicum.shareit.server.request.mapper;
 
 import ru.practicum.shareit.server.item.mapper.ItemMapper;
+import ru.practicum.shareit.server.item.model.Item;
 import ru.practicum.shareit.server.request.dto.ItemRequestDto;
 import ru.practicum.shareit.server.request.model.ItemRequest;
 
+import java.util.List;
 import java.util.stream.Collectors;
 
 public class ItemRequestMapper {
@@ -22,6 +24,21 @@ public class ItemRequestMapper {
         return dto;
     }
 
+    /**
+     * Вариант для списков: вещи загружены заранее одним запросом на всю страницу,
+     * ленивая коллекция items не трогается.
+     */
+    public static ItemRequestDto toItemRequestDto(ItemRequest itemRequest, List<Item> items) {
+        ItemRequestDto dto = new ItemRequestDto();
+        dto.setId(itemRequest.getId());
+        dto.setDescription(itemRequest.getDescription());
+        dto.setCreated(itemRequest.getCreated());
+        dto.setItems(items.stream()
+                .map(ItemMapper::toItemDto)
+                .collect(Collectors.toList()));
+        return dto;
+    }
+
     public static ItemRequest toItemRequest(ItemRequestDto.ItemRequestCreateDto dto) {
         ItemRequest itemRequest = new ItemRequest();
         itemRequest.setDescription(dto.getDescription());
@@ -18,7 +18,8 @@ import java.util.List;
 @Table(name = "requests")
 public class ItemRequest {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "requests_seq")
+    @SequenceGenerator(name = "requests_seq", sequenceName = "requests_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "description", nullable = false, length = 1000)
@@ -31,6 +32,10 @@ public class ItemRequest {
     @Column(name = "created", nullable = false)
     private LocalDateTime created;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
     @OneToMany(mappedBy = "request", fetch = FetchType.LAZY)
     private List<Item> items = new ArrayList<>();
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.server.request.dto.ItemRequestVersionView;
 import ru.practicum.shareit.server.request.model.ItemRequest;
 
 import java.util.List;
@@ -16,4 +17,11 @@ public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long>
 
     @Query("SELECT ir FROM ItemRequest ir LEFT JOIN FETCH ir.items WHERE ir.id = :id")
     Optional<ItemRequest> findByIdWithItems(@Param("id") Long id);
+
+    /**
+     * Ответ на запрос включает его вещи: новая вещь меняет их число, изменение вещи — сумму версий.
+     */
+    @Query("SELECT ir.version AS version, COUNT(i.id) AS itemCount, COALESCE(SUM(i.version), 0) AS itemVersions " +
+            "FROM ItemRequest ir LEFT JOIN ir.items i WHERE ir.id = :id GROUP BY ir.id, ir.version")
+    Optional<ItemRequestVersionView> findVersionById(@Param("id") Long id);
 }
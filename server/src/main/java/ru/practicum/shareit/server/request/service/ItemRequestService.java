@@ -3,6 +3,7 @@ package ru.practicum.shareit.server.request.service;
 import ru.practicum.shareit.server.request.dto.ItemRequestDto;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRequestService {
     ItemRequestDto createItemRequest(ItemRequestDto.ItemRequestCreateDto itemRequestDto, Long userId);
@@ -12,4 +13,9 @@ public interface ItemRequestService {
     List<ItemRequestDto> getOtherUsersItemRequests(Long userId, int from, int size);
 
     ItemRequestDto getItemRequestById(Long requestId, Long userId);
+
+    /**
+     * ETag запроса из его версии и версий откликнувшихся вещей; пусто, если запроса нет.
+     */
+    Optional<String> getItemRequestETag(Long requestId, Long userId);
 }
\ No newline at end of file
@@ -1,11 +1,15 @@
 package ru.practicum.shareit.server.request.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.server.exception.NotFoundException;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.item.repository.ItemRepository;
+import ru.practicum.shareit.server.metrics.MetricNames;
 import ru.practicum.shareit.server.request.dto.ItemRequestDto;
 import ru.practicum.shareit.server.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.server.request.model.ItemRequest;
@@ -16,12 +20,16 @@ import ru.practicum.shareit.server.user.service.UserService;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Timed(MetricNames.SERVICE)
 public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemRepository itemRepository;
     private final UserService userService;
 
     @Override
@@ -45,33 +53,54 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Override
     @Transactional(readOnly = true)
     public List<ItemRequestDto> getUserItemRequests(Long userId) {
-        getUser(userId);
-        List<ItemRequest> itemRequests = itemRequestRepository.findByRequestorIdOrderByCreatedDesc(userId);
-        return itemRequests.stream()
-                .map(ItemRequestMapper::toItemRequestDto)
-                .collect(Collectors.toList());
+        userService.checkUserExists(userId);
+        return toItemRequestDtos(itemRequestRepository.findByRequestorIdOrderByCreatedDesc(userId));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<ItemRequestDto> getOtherUsersItemRequests(Long userId, int from, int size) {
-        getUser(userId);
+        userService.checkUserExists(userId);
         Pageable pageable = PageRequest.of(from / size, size);
-        List<ItemRequest> itemRequests = itemRequestRepository.findByRequestorIdNotOrderByCreatedDesc(userId, pageable);
-        return itemRequests.stream()
-                .map(ItemRequestMapper::toItemRequestDto)
-                .collect(Collectors.toList());
+        return toItemRequestDtos(itemRequestRepository.findByRequestorIdNotOrderByCreatedDesc(userId, pageable));
     }
 
     @Override
     @Transactional(readOnly = true)
     public ItemRequestDto getItemRequestById(Long requestId, Long userId) {
-        getUser(userId);
+        userService.checkUserExists(userId);
         ItemRequest itemRequest = itemRequestRepository.findByIdWithItems(requestId)
                 .orElseThrow(() -> new NotFoundException("Item request not found with id: " + requestId));
         return ItemRequestMapper.toItemRequestDto(itemRequest);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<String> getItemRequestETag(Long requestId, Long userId) {
+        userService.checkUserExists(userId);
+        return itemRequestRepository.findVersionById(requestId)
+                .map(version -> "request-" + requestId + "-" + version.getVersion() + "-"
+                        + version.getItemCount() + "-" + version.getItemVersions());
+    }
+
+    /**
+     * Вещи всех запросов страницы загружаются одним запросом, а не по запросу на каждый.
+     */
+    private List<ItemRequestDto> toItemRequestDtos(List<ItemRequest> itemRequests) {
+        if (itemRequests.isEmpty()) {
+            return List.of();
+        }
+        List<Long> requestIds = itemRequests.stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<Item>> itemsByRequest = itemRepository.findByRequestIdIn(requestIds).stream()
+                .collect(Collectors.groupingBy(Item::getRequestId));
+        return itemRequests.stream()
+                .map(request -> ItemRequestMapper.toItemRequestDto(request,
+                        itemsByRequest.getOrDefault(request.getId(), List.of())))
+                .collect(Collectors.toList());
+    }
+
     private User getUser(Long userId) {
         return UserMapper.toUser(userService.getUserById(userId));
     }
@@ -5,11 +5,16 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.server.user.User;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
 
     @Query("SELECT COUNT(u) > 0 FROM User u WHERE u.email = :email AND u.id <> :userId")
     boolean existsByEmailAndIdNot(@Param("email") String email, @Param("userId") Long userId);
+
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
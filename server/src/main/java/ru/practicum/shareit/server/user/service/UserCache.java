@@ -0,0 +1,150 @@
+package ru.practicum.shareit.server.user.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.server.user.dto.UserDto;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Read-through кэш пользователей по id для проверок вызывающего в сервисах.
+ * <p>
+ * Размер ограничен (LRU), записи живут не дольше TTL. updateUser и deleteUser сбрасывают
+ * запись сразу и ещё раз после коммита. Загрузка, начатая до сброса, свой результат
+ * в кэш не кладёт (см. {@link #stamp()}), поэтому устаревшая версия не переживёт изменение.
+ * Попадания, промахи, вытеснения и размер публикуются в Micrometer с тегом cache=users.
+ */
+@Component
+public class UserCache {
+    private final long ttlNanos;
+    private final LongSupplier clock;
+    private final Map<Long, Entry> entries;
+    private final AtomicLong invalidations = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @Autowired
+    public UserCache(@Value("${shareit.user-cache.max-size:10000}") int maxSize,
+                     @Value("${shareit.user-cache.ttl:PT5M}") Duration ttl,
+                     MeterRegistry meterRegistry) {
+        this(maxSize, ttl, System::nanoTime);
+        bindTo(meterRegistry);
+    }
+
+    UserCache(int maxSize, Duration ttl, LongSupplier clock) {
+        this.ttlNanos = ttl.toNanos();
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() > maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public Optional<UserDto> get(Long userId) {
+        Entry entry = lookup(userId);
+        return Optional.ofNullable(entry)
+                .map(e -> new UserDto(userId, e.name(), e.email()));
+    }
+
+    public boolean contains(Long userId) {
+        return lookup(userId) != null;
+    }
+
+    /**
+     * Метка для {@link #put}: снимается до чтения из БД, чтобы не закэшировать то,
+     * что было сброшено, пока шло чтение.
+     */
+    public long stamp() {
+        return invalidations.get();
+    }
+
+    public void put(UserDto user, long stamp) {
+        synchronized (entries) {
+            if (invalidations.get() == stamp) {
+                entries.put(user.getId(), new Entry(user.getName(), user.getEmail(), clock.getAsLong() + ttlNanos));
+            }
+        }
+    }
+
+    public void invalidate(Long userId) {
+        remove(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    remove(userId);
+                }
+            });
+        }
+    }
+
+    int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private Entry lookup(Long userId) {
+        synchronized (entries) {
+            Entry entry = entries.get(userId);
+            if (entry != null && entry.expiresAt() - clock.getAsLong() <= 0) {
+                entries.remove(userId);
+                evictions.increment();
+                entry = null;
+            }
+            if (entry == null) {
+                misses.increment();
+            } else {
+                hits.increment();
+            }
+            return entry;
+        }
+    }
+
+    private void remove(Long userId) {
+        synchronized (entries) {
+            invalidations.incrementAndGet();
+            entries.remove(userId);
+        }
+    }
+
+    private void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", hits, LongAdder::doubleValue)
+                .tag("cache", "users").tag("result", "hit")
+                .description("User cache lookups that found a live entry")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", misses, LongAdder::doubleValue)
+                .tag("cache", "users").tag("result", "miss")
+                .description("User cache lookups that went to the database")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", evictions, LongAdder::doubleValue)
+                .tag("cache", "users")
+                .description("Entries dropped by the size bound or TTL")
+                .register(registry);
+        Gauge.builder("cache.size", this, UserCache::size)
+                .tag("cache", "users")
+                .register(registry);
+    }
+
+    private record Entry(String name, String email, long expiresAt) {
+    }
+}
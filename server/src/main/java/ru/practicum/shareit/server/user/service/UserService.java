@@ -2,6 +2,7 @@ package ru.practicum.shareit.server.user.service;
 
 import ru.practicum.shareit.server.user.dto.UserDto;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface UserService {
@@ -11,6 +12,16 @@ public interface UserService {
 
     UserDto getUserById(Long userId);
 
+    /**
+     * Проверка существования без построения UserDto; бросает NotFoundException.
+     */
+    void checkUserExists(Long userId);
+
+    /**
+     * То же для набора пользователей одним запросом; в исключении перечислены отсутствующие id.
+     */
+    void checkUsersExist(Collection<Long> userIds);
+
     List<UserDto> getAllUsers();
 
     void deleteUser(Long userId);
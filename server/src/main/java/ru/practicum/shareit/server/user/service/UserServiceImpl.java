@@ -1,22 +1,30 @@
 package ru.practicum.shareit.server.user.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.server.exception.ConflictException;
 import ru.practicum.shareit.server.exception.NotFoundException;
+import ru.practicum.shareit.server.metrics.MetricNames;
 import ru.practicum.shareit.server.user.User;
 import ru.practicum.shareit.server.user.dto.UserDto;
 import ru.practicum.shareit.server.user.mapper.UserMapper;
 import ru.practicum.shareit.server.user.repository.UserRepository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Timed(MetricNames.SERVICE)
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final UserCache userCache;
 
     @Override
     @Transactional
@@ -48,15 +56,48 @@ public class UserServiceImpl implements UserService {
         }
 
         User updatedUser = userRepository.save(existingUser);
+        userCache.invalidate(userId);
         return UserMapper.toUserDto(updatedUser);
     }
 
+    // Без @Transactional: попадание в кэш не должно занимать соединение из пула
     @Override
-    @Transactional(readOnly = true)
     public UserDto getUserById(Long userId) {
+        Optional<UserDto> cached = userCache.get(userId);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        long stamp = userCache.stamp();
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("User not found"));
-        return UserMapper.toUserDto(user);
+        UserDto userDto = UserMapper.toUserDto(user);
+        userCache.put(userDto, stamp);
+        return userDto;
+    }
+
+    @Override
+    public void checkUserExists(Long userId) {
+        if (!userCache.contains(userId) && !userRepository.existsById(userId)) {
+            throw new NotFoundException("User not found");
+        }
+    }
+
+    @Override
+    public void checkUsersExist(Collection<Long> userIds) {
+        Set<Long> unknown = userIds.stream()
+                .filter(userId -> !userCache.contains(userId))
+                .collect(Collectors.toCollection(TreeSet::new));
+        if (unknown.isEmpty()) {
+            return;
+        }
+        Set<Long> existing = userRepository.findExistingIds(unknown);
+        List<Long> missing = unknown.stream()
+                .filter(userId -> !existing.contains(userId))
+                .collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            throw new NotFoundException("Users not found: " + missing);
+        }
     }
 
     @Override
@@ -74,5 +115,6 @@ public class UserServiceImpl implements UserService {
             throw new NotFoundException("User not found");
         }
         userRepository.deleteById(userId);
+        userCache.invalidate(userId);
     }
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_items_name_trgm ON items
+    USING gin (LOWER(name) gin_trgm_ops) WHERE is_available;
+CREATE INDEX IF NOT EXISTS idx_items_description_trgm ON items
+    USING gin (LOWER(description) gin_trgm_ops) WHERE is_available;
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- У ADD CONSTRAINT нет IF NOT EXISTS, поэтому проверка по pg_constraint. Тело DO в одинарных
+-- кавычках, а не в $$: скрипт делит на операторы Spring, и точки с запятой внутри $$ он бы разрезал.
+DO '
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = ''booking_no_overlap'') THEN
+        ALTER TABLE booking ADD CONSTRAINT booking_no_overlap EXCLUDE USING gist (
+            item_id WITH =,
+            tsrange(start_date, end_date) WITH &&
+        ) WHERE (status IN (''WAITING'', ''APPROVED''));
+    END IF;
+END
+';
@@ -1,47 +1,75 @@
-DROP TABLE IF EXISTS comments, bookings, items, requests, users CASCADE;
+DROP TABLE IF EXISTS comments, booking, items, requests, users CASCADE;
+DROP SEQUENCE IF EXISTS users_seq;
+DROP SEQUENCE IF EXISTS requests_seq;
+DROP SEQUENCE IF EXISTS items_seq;
+DROP SEQUENCE IF EXISTS booking_seq;
+DROP SEQUENCE IF EXISTS comments_seq;
+
+-- Шаг 50 совпадает с allocationSize сущностей: оптимизатор pooled-lo выдаёт id блоками
+-- без обращения к БД, поэтому Hibernate может пакетировать INSERT. DEFAULT нужен только
+-- для вставок в обход Hibernate: каждый nextval забирает себе целый блок, пересечений нет.
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS booking_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
 
 CREATE TABLE IF NOT EXISTS users (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id BIGINT DEFAULT nextval('users_seq') PRIMARY KEY,
     name VARCHAR(255) NOT NULL,
     email VARCHAR(512) NOT NULL UNIQUE
 );
 
 CREATE TABLE IF NOT EXISTS requests (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id BIGINT DEFAULT nextval('requests_seq') PRIMARY KEY,
     description VARCHAR(1000) NOT NULL,
     requestor_id BIGINT NOT NULL,
     created TIMESTAMP NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0,
     FOREIGN KEY (requestor_id) REFERENCES users(id) ON DELETE CASCADE
 );
 
 CREATE TABLE IF NOT EXISTS items (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id BIGINT DEFAULT nextval('items_seq') PRIMARY KEY,
     name VARCHAR(255) NOT NULL,
     description VARCHAR(1000) NOT NULL,
     is_available BOOLEAN NOT NULL,
     owner_id BIGINT NOT NULL,
     request_id BIGINT,
+    version BIGINT NOT NULL DEFAULT 0,
     FOREIGN KEY (owner_id) REFERENCES users(id) ON DELETE CASCADE,
     FOREIGN KEY (request_id) REFERENCES requests(id) ON DELETE SET NULL
 );
 
 CREATE TABLE IF NOT EXISTS booking (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id BIGINT DEFAULT nextval('booking_seq') PRIMARY KEY,
     start_date TIMESTAMP NOT NULL,
     end_date TIMESTAMP NOT NULL,
     item_id BIGINT NOT NULL,
     booker_id BIGINT NOT NULL,
     status VARCHAR(20) NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0,
     FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE,
     FOREIGN KEY (booker_id) REFERENCES users(id) ON DELETE CASCADE
 );
 
 CREATE TABLE IF NOT EXISTS comments (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    id BIGINT DEFAULT nextval('comments_seq') PRIMARY KEY,
     text VARCHAR(1000) NOT NULL,
     item_id BIGINT NOT NULL,
     author_id BIGINT NOT NULL,
     created TIMESTAMP NOT NULL,
     FOREIGN KEY (item_id) REFERENCES items(id) ON DELETE CASCADE,
     FOREIGN KEY (author_id) REFERENCES users(id) ON DELETE CASCADE
-);
\ No newline at end of file
+);
+
+CREATE INDEX IF NOT EXISTS idx_booking_booker_start ON booking (booker_id, start_date DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_booking_item_status_end ON booking (item_id, status, end_date);
+CREATE INDEX IF NOT EXISTS idx_booking_item_status_start ON booking (item_id, status, start_date);
+
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner_id, id);
+CREATE INDEX IF NOT EXISTS idx_items_request ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS idx_comments_item ON comments (item_id);
+
+CREATE INDEX IF NOT EXISTS idx_requests_requestor_created ON requests (requestor_id, created DESC);
@@ -0,0 +1,168 @@
+package ru.practicum.shareit.server;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.server.booking.Booking;
+import ru.practicum.shareit.server.booking.BookingStatus;
+import ru.practicum.shareit.server.booking.repository.BookingRepository;
+import ru.practicum.shareit.server.item.dto.CommentDto;
+import ru.practicum.shareit.server.item.dto.ItemDto;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.item.service.ItemService;
+import ru.practicum.shareit.server.request.dto.ItemRequestDto;
+import ru.practicum.shareit.server.request.service.ItemRequestService;
+import ru.practicum.shareit.server.user.User;
+import ru.practicum.shareit.server.user.dto.UserDto;
+import ru.practicum.shareit.server.user.service.UserService;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Условные GET по ETag: неизменившийся ресурс отдаётся как 304 без тела,
+ * а любое изменение, попадающее в ответ, меняет ETag.
+ */
+@SpringBootTest(classes = ShareItServerApp.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:conditional_get",
+        "spring.jpa.show-sql=false"
+})
+class ConditionalGetTest {
+    private static final String USER_ID = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemRequestService itemRequestService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private Long ownerId;
+    private Long bookerId;
+    private Long requestId;
+    private Long itemId;
+    private Long bookingId;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = String.valueOf(System.nanoTime());
+        ownerId = userService.createUser(new UserDto(null, "Owner", "owner" + suffix + "@email.com")).getId();
+        bookerId = userService.createUser(new UserDto(null, "Booker", "booker" + suffix + "@email.com")).getId();
+        requestId = itemRequestService.createItemRequest(
+                new ItemRequestDto.ItemRequestCreateDto("Need a drill"), bookerId).getId();
+        itemId = itemService.createItem(
+                new ItemDto(null, "Drill", "Cordless drill", true, requestId, null, null, null), ownerId).getId();
+
+        Item item = new Item();
+        item.setId(itemId);
+        User booker = new User();
+        booker.setId(bookerId);
+        LocalDateTime start = LocalDateTime.now().minusDays(3);
+        bookingId = bookingRepository.save(
+                new Booking(null, start, start.plusDays(1), item, booker, BookingStatus.APPROVED)).getId();
+    }
+
+    @Test
+    void getItem_shouldAnswer304UntilCommentIsAdded() throws Exception {
+        String eTag = eTagOf("/items/" + itemId, bookerId);
+
+        mockMvc.perform(get("/items/{id}", itemId).header(USER_ID, bookerId)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        itemService.addComment(itemId, new CommentDto(null, "Works great", null, null), bookerId);
+
+        mockMvc.perform(get("/items/{id}", itemId).header(USER_ID, bookerId)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.comments[0].text").value("Works great"))
+                .andExpect(result -> assertThat(result.getResponse().getHeader(HttpHeaders.ETAG))
+                        .isNotNull()
+                        .isNotEqualTo(eTag));
+    }
+
+    @Test
+    void getItem_shouldNotGiveETagToOwner() throws Exception {
+        mockMvc.perform(get("/items/{id}", itemId).header(USER_ID, ownerId))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void getItemRequest_shouldChangeETagWhenItemIsAddedOrUpdated() throws Exception {
+        String eTag = eTagOf("/requests/" + requestId, bookerId);
+
+        mockMvc.perform(get("/requests/{id}", requestId).header(USER_ID, bookerId)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        itemService.createItem(new ItemDto(null, "Hammer drill", "Heavy", true, requestId, null, null, null),
+                ownerId);
+        String afterCreate = eTagOf("/requests/" + requestId, bookerId);
+        assertThat(afterCreate).isNotEqualTo(eTag);
+
+        itemService.updateItem(itemId, new ItemDto(null, "Drill v2", null, null, null, null, null, null), ownerId);
+        assertThat(eTagOf("/requests/" + requestId, bookerId)).isNotEqualTo(afterCreate);
+    }
+
+    @Test
+    void getBooking_shouldChangeETagWhenItemIsRenamed() throws Exception {
+        String eTag = eTagOf("/bookings/" + bookingId, bookerId);
+
+        mockMvc.perform(get("/bookings/{id}", bookingId).header(USER_ID, ownerId)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        itemService.updateItem(itemId, new ItemDto(null, "Drill v2", null, null, null, null, null, null), ownerId);
+
+        mockMvc.perform(get("/bookings/{id}", bookingId).header(USER_ID, bookerId)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.item.name").value("Drill v2"));
+    }
+
+    @Test
+    void getBooking_shouldNotAnswer304ToStranger() throws Exception {
+        String eTag = eTagOf("/bookings/" + bookingId, bookerId);
+        Long strangerId = userService.createUser(
+                new UserDto(null, "Stranger", "stranger" + System.nanoTime() + "@email.com")).getId();
+
+        mockMvc.perform(get("/bookings/{id}", bookingId).header(USER_ID, strangerId)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotFound());
+    }
+
+    private String eTagOf(String path, Long userId) throws Exception {
+        String eTag = mockMvc.perform(get(path).header(USER_ID, userId))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).isNotNull();
+        return eTag;
+    }
+}
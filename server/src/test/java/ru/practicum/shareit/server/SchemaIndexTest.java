@@ -0,0 +1,136 @@
+package ru.practicum.shareit.server;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверяет, что schema.sql создаёт индексы под запросы репозиториев и что планировщик
+ * их использует. Встроенного PostgreSQL в тестах нет, поэтому схема поднимается в H2
+ * в режиме совместимости с PostgreSQL.
+ * <p>
+ * H2 сам создаёт индекс под каждый внешний ключ и на равном счёте выбирает его, поэтому
+ * проверка одного лишь отсутствия tableScan проходила бы и без наших индексов. Запросы
+ * выполняются с подсказкой USE INDEX: план обязан назвать ожидаемый индекс и не перейти
+ * на полный просмотр, то есть индекс существует и покрывает условие запроса.
+ */
+class SchemaIndexTest {
+    private static final String NOW = "TIMESTAMP '2024-01-01 12:00:00'";
+
+    private static Connection connection;
+
+    @BeforeAll
+    static void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                "jdbc:h2:mem:schema_index;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE", "sa", "");
+        ScriptUtils.executeSqlScript(connection, new ClassPathResource("schema.sql"));
+    }
+
+    @AfterAll
+    static void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "booking, idx_booking_booker_start, booker_id;start_date;id",
+            "booking, idx_booking_item_status_end, item_id;status;end_date",
+            "booking, idx_booking_item_status_start, item_id;status;start_date",
+            "items, idx_items_owner, owner_id;id",
+            "items, idx_items_request, request_id",
+            "comments, idx_comments_item, item_id",
+            "requests, idx_requests_requestor_created, requestor_id;created"
+    })
+    void schema_shouldCreateIndex(String table, String index, String columns) throws SQLException {
+        List<String> actual = new ArrayList<>();
+        try (ResultSet rs = connection.getMetaData().getIndexInfo(null, null, table, false, false)) {
+            while (rs.next()) {
+                if (index.equalsIgnoreCase(rs.getString("INDEX_NAME"))) {
+                    actual.add(rs.getString("COLUMN_NAME").toLowerCase());
+                }
+            }
+        }
+
+        assertEquals(List.of(columns.split(";")), actual);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryQueries")
+    void repositoryQuery_shouldUseSchemaIndex(String method, String index, String sql) throws SQLException {
+        String plan = explain(sql.formatted("USE INDEX (" + index + ")"));
+
+        assertTrue(plan.contains("public." + index + ":"), method + " plan: " + plan);
+        assertFalse(plan.contains("tableScan"), method + " plan: " + plan);
+    }
+
+    static Stream<Arguments> repositoryQueries() {
+        return Stream.of(
+                Arguments.of("BookingRepository.findByBookerId", "idx_booking_booker_start",
+                        "SELECT b.* FROM booking b %s WHERE b.booker_id = 1 ORDER BY b.start_date DESC LIMIT 10"),
+                Arguments.of("BookingRepository.findCurrentByBookerId", "idx_booking_booker_start",
+                        "SELECT b.* FROM booking b %s WHERE b.booker_id = 1 AND b.start_date < " + NOW +
+                                " AND b.end_date > " + NOW + " ORDER BY b.start_date DESC LIMIT 10"),
+                Arguments.of("BookingRepository.findPastByBookerId", "idx_booking_booker_start",
+                        "SELECT b.* FROM booking b %s WHERE b.booker_id = 1 AND b.end_date < " + NOW +
+                                " ORDER BY b.start_date DESC LIMIT 10"),
+                Arguments.of("BookingRepository.findFutureByBookerId", "idx_booking_booker_start",
+                        "SELECT b.* FROM booking b %s WHERE b.booker_id = 1 AND b.start_date > " + NOW +
+                                " ORDER BY b.start_date DESC LIMIT 10"),
+                Arguments.of("BookingRepository.findByBookerIdAndStatus", "idx_booking_booker_start",
+                        "SELECT b.* FROM booking b %s WHERE b.booker_id = 1 AND b.status = 'WAITING'" +
+                                " ORDER BY b.start_date DESC LIMIT 10"),
+                Arguments.of("BookingRepository.findPastByOwnerId", "idx_items_owner",
+                        "SELECT b.* FROM booking b JOIN items i %s ON i.id = b.item_id WHERE i.owner_id = 1" +
+                                " AND b.end_date < " + NOW + " ORDER BY b.start_date DESC LIMIT 10"),
+                Arguments.of("BookingRepository.findByItemOwnerIdAndStatus", "idx_items_owner",
+                        "SELECT b.* FROM booking b JOIN items i %s ON i.id = b.item_id WHERE i.owner_id = 1" +
+                                " AND b.status = 'WAITING' ORDER BY b.start_date DESC LIMIT 10"),
+                Arguments.of("BookingRepository.findLastBookings", "idx_booking_item_status_end",
+                        "SELECT b.id, b.booker_id FROM booking b %s WHERE b.item_id = 1 AND b.status = 'APPROVED'" +
+                                " AND b.end_date < " + NOW + " ORDER BY b.end_date DESC LIMIT 1"),
+                Arguments.of("BookingRepository.findNextBookings", "idx_booking_item_status_start",
+                        "SELECT b.id, b.booker_id FROM booking b %s WHERE b.item_id = 1 AND b.status = 'APPROVED'" +
+                                " AND b.end_date > " + NOW + " ORDER BY b.start_date ASC LIMIT 1"),
+                Arguments.of("BookingRepository.existsApprovedPastBooking", "idx_booking_item_status_end",
+                        "SELECT COUNT(*) FROM booking b %s WHERE b.item_id = 1 AND b.booker_id = 2" +
+                                " AND b.status = 'APPROVED' AND b.end_date < " + NOW),
+                Arguments.of("ItemRepository.findByOwnerIdOrderById", "idx_items_owner",
+                        "SELECT i.* FROM items i %s WHERE i.owner_id = 1 ORDER BY i.id LIMIT 10"),
+                Arguments.of("ItemRepository.findByRequestIdIn", "idx_items_request",
+                        "SELECT i.* FROM items i %s WHERE i.request_id IN (1, 2, 3)"),
+                Arguments.of("CommentRepository.findByItemIdIn", "idx_comments_item",
+                        "SELECT c.* FROM comments c %s WHERE c.item_id IN (1, 2, 3)"),
+                Arguments.of("ItemRequestRepository.findByRequestorIdOrderByCreatedDesc", "idx_requests_requestor_created",
+                        "SELECT r.* FROM requests r %s WHERE r.requestor_id = 1 ORDER BY r.created DESC")
+        );
+    }
+
+    private static String explain(String sql) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("EXPLAIN " + sql)) {
+            while (rs.next()) {
+                plan.append(rs.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+}
@@ -0,0 +1,166 @@
+package ru.practicum.shareit.server.booking.availability;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.server.booking.Booking;
+import ru.practicum.shareit.server.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.server.booking.repository.BookingRepository;
+import ru.practicum.shareit.server.exception.NotFoundException;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.item.repository.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemAvailabilityCacheTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    private ItemAvailabilityCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ItemAvailabilityCache(bookingRepository, itemRepository, 2);
+    }
+
+    @Test
+    void isFree_shouldLoadTimelineOnceAndAnswerFromMemory() {
+        when(itemRepository.existsById(1L)).thenReturn(true);
+        when(bookingRepository.findActiveIntervals(eq(1L), any()))
+                .thenReturn(List.of(interval(10L, day(1), day(3)), interval(11L, day(5), day(6))));
+
+        assertFalse(cache.isFree(1L, day(2), day(4)));
+        assertFalse(cache.isFree(1L, day(0), day(10)));
+        assertTrue(cache.isFree(1L, day(3), day(5)));
+        assertTrue(cache.isFree(1L, day(6), day(7)));
+
+        verify(bookingRepository, times(1)).findActiveIntervals(eq(1L), any());
+    }
+
+    @Test
+    void isFree_whenWindowStartsBeforeLoad_shouldAskDatabase() {
+        LocalDateTime now = LocalDateTime.now();
+        when(itemRepository.existsById(1L)).thenReturn(true);
+        when(bookingRepository.findActiveIntervals(eq(1L), any())).thenReturn(List.of());
+        when(bookingRepository.existsOverlapping(1L, now.minusDays(3), now.minusDays(1))).thenReturn(true);
+        when(bookingRepository.existsOverlapping(1L, now.minusDays(1), now.plusDays(1))).thenReturn(false);
+
+        assertFalse(cache.isFree(1L, now.minusDays(3), now.minusDays(1)));
+        assertTrue(cache.isFree(1L, now.minusDays(1), now.plusDays(1)));
+        assertTrue(cache.isFree(1L, day(1), day(2)));
+
+        verify(bookingRepository, times(2)).existsOverlapping(eq(1L), any(), any());
+    }
+
+    @Test
+    void isKnownBusy_whenWindowStartsBeforeLoad_shouldNotClaimAnything() {
+        LocalDateTime now = LocalDateTime.now();
+        when(itemRepository.existsById(1L)).thenReturn(true);
+        when(bookingRepository.findActiveIntervals(eq(1L), any())).thenReturn(List.of());
+        assertTrue(cache.isFree(1L, day(1), day(2)));
+
+        cache.bookingCreated(booking(20L, 1L, now.minusDays(2), now.plusDays(2)));
+
+        assertFalse(cache.isKnownBusy(1L, now.minusDays(3), now.plusDays(3)));
+        assertTrue(cache.isKnownBusy(1L, now.plusDays(1), now.plusDays(3)));
+    }
+
+    @Test
+    void isFree_whenItemMissing_shouldThrowNotFound() {
+        when(itemRepository.existsById(99L)).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> cache.isFree(99L, day(1), day(2)));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void isKnownBusy_shouldNotTouchDatabaseForUnknownItem() {
+        assertFalse(cache.isKnownBusy(1L, day(1), day(2)));
+
+        verifyNoInteractions(bookingRepository, itemRepository);
+    }
+
+    @Test
+    void bookingCreatedAndReleased_shouldUpdateLoadedTimelineInPlace() {
+        when(itemRepository.existsById(1L)).thenReturn(true);
+        when(bookingRepository.findActiveIntervals(eq(1L), any())).thenReturn(List.of());
+        assertTrue(cache.isFree(1L, day(1), day(2)));
+
+        Booking booking = booking(20L, 1L, day(1), day(2));
+        cache.bookingCreated(booking);
+        assertTrue(cache.isKnownBusy(1L, day(1), day(2)));
+
+        cache.bookingReleased(booking);
+        assertFalse(cache.isKnownBusy(1L, day(1), day(2)));
+        verify(bookingRepository, times(1)).findActiveIntervals(eq(1L), any());
+    }
+
+    @Test
+    void cache_shouldEvictLeastRecentlyUsedTimeline() {
+        when(itemRepository.existsById(any())).thenReturn(true);
+        when(bookingRepository.findActiveIntervals(any(), any())).thenReturn(List.of());
+
+        cache.isFree(1L, day(1), day(2));
+        cache.isFree(2L, day(1), day(2));
+        cache.isFree(1L, day(1), day(2));
+        cache.isFree(3L, day(1), day(2));
+
+        assertEquals(2, cache.size());
+        cache.bookingCreated(booking(30L, 2L, day(1), day(2)));
+        assertFalse(cache.isKnownBusy(2L, day(1), day(2)));
+    }
+
+    private static LocalDateTime day(int days) {
+        return BASE.plusDays(days);
+    }
+
+    private static BookingIntervalView interval(Long id, LocalDateTime start, LocalDateTime end) {
+        return new BookingIntervalView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public LocalDateTime getStart() {
+                return start;
+            }
+
+            @Override
+            public LocalDateTime getEnd() {
+                return end;
+            }
+        };
+    }
+
+    private static Booking booking(Long id, Long itemId, LocalDateTime start, LocalDateTime end) {
+        Item item = new Item();
+        item.setId(itemId);
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setItem(item);
+        booking.setStart(start);
+        booking.setEnd(end);
+        return booking;
+    }
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.server.booking.availability;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ItemTimelineTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Test
+    void check_shouldAnswerFromIntervalsAfterHorizon() {
+        ItemTimeline timeline = new ItemTimeline(day(0));
+        timeline.add(new ItemTimeline.Interval(1L, day(1), day(3)));
+        timeline.add(new ItemTimeline.Interval(2L, day(5), day(6)));
+
+        assertEquals(ItemTimeline.Occupancy.BUSY, timeline.check(day(2), day(4), day(0)));
+        assertEquals(ItemTimeline.Occupancy.FREE, timeline.check(day(3), day(5), day(0)));
+        assertEquals(ItemTimeline.Occupancy.UNKNOWN, timeline.check(day(-1), day(2), day(0)));
+    }
+
+    @Test
+    void check_shouldDropEndedIntervalsAndMoveHorizon() {
+        ItemTimeline timeline = new ItemTimeline(day(0));
+        timeline.add(new ItemTimeline.Interval(1L, day(1), day(2)));
+        timeline.add(new ItemTimeline.Interval(2L, day(2), day(4)));
+        timeline.add(new ItemTimeline.Interval(3L, day(5), day(6)));
+
+        assertEquals(ItemTimeline.Occupancy.BUSY, timeline.check(day(3), day(5), day(3)));
+
+        assertEquals(2, timeline.size());
+        assertEquals(ItemTimeline.Occupancy.UNKNOWN, timeline.check(day(1), day(2), day(3)));
+        timeline.remove(1L);
+        timeline.remove(2L);
+        assertEquals(1, timeline.size());
+    }
+
+    private static LocalDateTime day(int days) {
+        return BASE.plusDays(days);
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.server.booking.BookingController;
 import ru.practicum.shareit.server.booking.dto.BookingDto;
+import ru.practicum.shareit.server.booking.service.BookingExporter;
 import ru.practicum.shareit.server.booking.service.BookingService;
 import ru.practicum.shareit.server.exception.NotFoundException;
 import ru.practicum.shareit.server.exception.ValidationException;
@@ -34,6 +35,9 @@ class BookingControllerEdgeCasesTest {
     @MockBean
     private BookingService bookingService;
 
+    @MockBean
+    private BookingExporter bookingExporter;
+
     @Test
     void getUserBookings_shouldReturnEmptyList() throws Exception {
         when(bookingService.getUserBookings(anyLong(), anyString(), anyInt(), anyInt()))
@@ -10,6 +10,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.server.booking.BookingController;
 import ru.practicum.shareit.server.booking.BookingStatus;
 import ru.practicum.shareit.server.booking.dto.BookingDto;
+import ru.practicum.shareit.server.booking.service.BookingExporter;
 import ru.practicum.shareit.server.booking.service.BookingService;
 
 import java.time.LocalDateTime;
@@ -33,6 +34,9 @@ class BookingControllerTest {
     @MockBean
     private BookingService bookingService;
 
+    @MockBean
+    private BookingExporter bookingExporter;
+
     @Test
     void createBooking_shouldReturnCreatedBooking() throws Exception {
         // Given
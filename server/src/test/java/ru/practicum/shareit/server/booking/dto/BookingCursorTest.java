@@ -0,0 +1,36 @@
+package ru.practicum.shareit.server.booking.dto;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.server.exception.ValidationException;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookingCursorTest {
+
+    @Test
+    void encode_shouldRoundTripThroughDecode() {
+        BookingCursor cursor = new BookingCursor(LocalDateTime.of(2024, 5, 1, 10, 30, 15, 123456000), 42L);
+
+        String encoded = cursor.encode();
+
+        assertTrue(encoded.matches("[A-Za-z0-9_-]+"));
+        assertEquals(cursor, BookingCursor.decode(encoded));
+    }
+
+    @Test
+    void decode_shouldReturnFirstPageForEmptyCursor() {
+        assertSame(BookingCursor.FIRST, BookingCursor.decode(""));
+        assertSame(BookingCursor.FIRST, BookingCursor.decode(null));
+    }
+
+    @Test
+    void decode_shouldRejectMalformedCursor() {
+        assertThrows(ValidationException.class, () -> BookingCursor.decode("not a cursor"));
+        assertThrows(ValidationException.class, () -> BookingCursor.decode("bm8tc2VwYXJhdG9y"));
+    }
+}
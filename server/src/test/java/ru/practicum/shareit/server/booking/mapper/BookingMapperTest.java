@@ -4,6 +4,7 @@ import org.junit.jupiter.api.Test;
 import ru.practicum.shareit.server.booking.Booking;
 import ru.practicum.shareit.server.booking.BookingStatus;
 import ru.practicum.shareit.server.booking.dto.BookingDto;
+import ru.practicum.shareit.server.booking.dto.BookingShortView;
 import ru.practicum.shareit.server.item.model.Item;
 import ru.practicum.shareit.server.user.User;
 
@@ -76,9 +77,33 @@ class BookingMapperTest {
     @Test
     void toBookingShortDto_shouldHandleNullBooking() {
         // When
-        var shortDto = BookingMapper.toBookingShortDto(null);
+        var shortDto = BookingMapper.toBookingShortDto((Booking) null);
 
         // Then
         assertNull(shortDto);
     }
+
+    @Test
+    void toBookingShortDto_shouldConvertProjection() {
+        // Given
+        BookingShortView view = new BookingShortView() {
+            @Override
+            public Long getId() {
+                return 5L;
+            }
+
+            @Override
+            public Long getBookerId() {
+                return 7L;
+            }
+        };
+
+        // When
+        var shortDto = BookingMapper.toBookingShortDto(view);
+
+        // Then
+        assertEquals(5L, shortDto.getId());
+        assertEquals(7L, shortDto.getBookerId());
+        assertNull(BookingMapper.toBookingShortDto((BookingShortView) null));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,158 @@
+package ru.practicum.shareit.server.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.shareit.server.ShareItServerApp;
+import ru.practicum.shareit.server.booking.Booking;
+import ru.practicum.shareit.server.booking.BookingStatus;
+import ru.practicum.shareit.server.booking.dto.BookingDto;
+import ru.practicum.shareit.server.booking.repository.BookingRepository;
+import ru.practicum.shareit.server.exception.ConflictException;
+import ru.practicum.shareit.server.item.dto.ItemDto;
+import ru.practicum.shareit.server.item.service.ItemService;
+import ru.practicum.shareit.server.user.dto.UserDto;
+import ru.practicum.shareit.server.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Нагрузочная проверка createBooking: тысячи параллельных пересекающихся заявок
+ * не должны приводить к двойным бронированиям.
+ */
+@SpringBootTest(classes = ShareItServerApp.class)
+@ActiveProfiles("test")
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:booking_stress;LOCK_TIMEOUT=30000")
+class BookingConcurrencyStressTest {
+    private static final int THREADS = 16;
+    private static final int HOT_ITEM_ATTEMPTS = 2000;
+    private static final int COLD_ITEM_ATTEMPTS = 400;
+    private static final int SLOTS = 300;
+    private static final double MIN_THROUGHPUT_PER_SECOND = 50;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    private Long bookerId;
+    private Long hotItemId;
+    private Long coldItemId;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = String.valueOf(System.nanoTime());
+        Long ownerId = userService.createUser(new UserDto(null, "Owner", "owner" + suffix + "@email.com")).getId();
+        bookerId = userService.createUser(new UserDto(null, "Booker", "booker" + suffix + "@email.com")).getId();
+        hotItemId = itemService.createItem(new ItemDto(null, "Hot", "Popular", true, null, null, null, null),
+                ownerId).getId();
+        coldItemId = itemService.createItem(new ItemDto(null, "Cold", "Quiet", true, null, null, null, null),
+                ownerId).getId();
+    }
+
+    @Test
+    void createBooking_shouldNeverDoubleBookUnderConcurrency() throws InterruptedException {
+        // Given
+        LocalDateTime base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        List<Long> targets = new ArrayList<>();
+        for (int i = 0; i < HOT_ITEM_ATTEMPTS; i++) {
+            targets.add(hotItemId);
+        }
+        for (int i = 0; i < COLD_ITEM_ATTEMPTS; i++) {
+            targets.add(coldItemId);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        Queue<Throwable> errors = new ConcurrentLinkedQueue<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            Random random = new Random(t);
+            executor.submit(() -> {
+                start.await();
+                int index;
+                while ((index = next.getAndIncrement()) < targets.size()) {
+                    LocalDateTime from = base.plusHours(random.nextInt(SLOTS));
+                    LocalDateTime to = from.plusHours(1 + random.nextInt(3));
+                    try {
+                        bookingService.createBooking(
+                                new BookingDto.BookingRequest(targets.get(index), from, to), bookerId);
+                        created.incrementAndGet();
+                    } catch (ConflictException e) {
+                        conflicts.incrementAndGet();
+                    } catch (Throwable e) {
+                        errors.add(e);
+                    }
+                }
+                return null;
+            });
+        }
+
+        // When
+        long startedAt = System.nanoTime();
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.MINUTES));
+        double seconds = (System.nanoTime() - startedAt) / 1_000_000_000.0;
+
+        // Then
+        assertTrue(errors.isEmpty(), () -> "Unexpected errors: " + errors);
+        assertEquals(targets.size(), created.get() + conflicts.get());
+        assertTrue(conflicts.get() > 0, "Workload must actually contend for the same intervals");
+
+        Map<Long, List<Booking>> byItem = bookingRepository.findAll().stream()
+                .filter(booking -> booking.getStatus() == BookingStatus.WAITING)
+                .filter(booking -> booking.getItem().getId().equals(hotItemId)
+                        || booking.getItem().getId().equals(coldItemId))
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+        assertEquals(created.get(), byItem.values().stream().mapToInt(List::size).sum());
+        byItem.values().forEach(bookings -> assertFalse(hasOverlap(bookings)));
+
+        double throughput = targets.size() / seconds;
+        assertTrue(throughput >= MIN_THROUGHPUT_PER_SECOND,
+                () -> String.format("Throughput %.1f req/s is below %.1f", throughput, MIN_THROUGHPUT_PER_SECOND));
+    }
+
+    private boolean hasOverlap(List<Booking> bookings) {
+        List<Booking> sorted = bookings.stream()
+                .sorted(Comparator.comparing(Booking::getStart))
+                .toList();
+        for (int i = 1; i < sorted.size(); i++) {
+            if (sorted.get(i).getStart().isBefore(sorted.get(i - 1).getEnd())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
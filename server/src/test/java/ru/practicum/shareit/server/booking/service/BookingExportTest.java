@@ -0,0 +1,120 @@
+package ru.practicum.shareit.server.booking.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.server.ShareItServerApp;
+import ru.practicum.shareit.server.booking.Booking;
+import ru.practicum.shareit.server.booking.BookingStatus;
+import ru.practicum.shareit.server.booking.dto.BookingDto;
+import ru.practicum.shareit.server.booking.repository.BookingRepository;
+import ru.practicum.shareit.server.exception.NotFoundException;
+import ru.practicum.shareit.server.item.dto.ItemDto;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.item.service.ItemService;
+import ru.practicum.shareit.server.user.User;
+import ru.practicum.shareit.server.user.dto.UserDto;
+import ru.practicum.shareit.server.user.service.UserService;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Выгрузка длиннее одной порции курсора: проверяет, что очистка контекста персистентности
+ * между порциями не теряет и не повторяет строки и что порядок сохраняется.
+ */
+@SpringBootTest(classes = ShareItServerApp.class)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:booking_export",
+        "spring.jpa.show-sql=false"
+})
+class BookingExportTest {
+    private static final int BOOKINGS = 1200;
+
+    @Autowired
+    private BookingExporter bookingExporter;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Long ownerId;
+    private Long bookerId;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = String.valueOf(System.nanoTime());
+        ownerId = userService.createUser(new UserDto(null, "Owner", "owner" + suffix + "@email.com")).getId();
+        bookerId = userService.createUser(new UserDto(null, "Booker", "booker" + suffix + "@email.com")).getId();
+        Item item = new Item();
+        item.setId(itemService.createItem(new ItemDto(null, "Item", "Description", true, null, null, null, null),
+                ownerId).getId());
+        User booker = new User();
+        booker.setId(bookerId);
+
+        LocalDateTime base = LocalDateTime.now().minusYears(1).truncatedTo(ChronoUnit.HOURS);
+        List<Booking> bookings = new ArrayList<>(BOOKINGS);
+        for (int i = 0; i < BOOKINGS; i++) {
+            LocalDateTime start = base.plusHours(i);
+            bookings.add(new Booking(null, start, start.plusMinutes(30), item, booker, BookingStatus.APPROVED));
+        }
+        bookingRepository.saveAll(bookings);
+    }
+
+    @Test
+    void exportUserBookings_shouldStreamWholeHistoryNewestFirst() throws IOException {
+        List<BookingDto> exported = read(bookingExporter.exportUserBookings(bookerId));
+
+        assertEquals(BOOKINGS, exported.size());
+        assertEquals(BOOKINGS, exported.stream().map(BookingDto::getId).distinct().count());
+        for (int i = 1; i < exported.size(); i++) {
+            assertTrue(exported.get(i - 1).getStart().isAfter(exported.get(i).getStart()));
+        }
+        assertTrue(exported.stream().allMatch(b -> "Item".equals(b.getItem().getName())
+                && "Booker".equals(b.getBooker().getName())));
+    }
+
+    @Test
+    void exportOwnerBookings_shouldStreamOnlyOwnersItems() throws IOException {
+        assertEquals(BOOKINGS, read(bookingExporter.exportOwnerBookings(ownerId)).size());
+        assertEquals(0, read(bookingExporter.exportOwnerBookings(bookerId)).size());
+    }
+
+    @Test
+    void exportUserBookings_shouldRejectUnknownUserBeforeStreaming() {
+        assertThrows(NotFoundException.class, () -> bookingExporter.exportUserBookings(Long.MAX_VALUE));
+    }
+
+    private List<BookingDto> read(StreamingResponseBody body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        body.writeTo(out);
+        List<BookingDto> bookings = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).lines().toList()) {
+            bookings.add(objectMapper.readValue(line, BookingDto.class));
+        }
+        return bookings;
+    }
+}
@@ -0,0 +1,113 @@
+package ru.practicum.shareit.server.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.shareit.server.ShareItServerApp;
+import ru.practicum.shareit.server.booking.Booking;
+import ru.practicum.shareit.server.booking.BookingStatus;
+import ru.practicum.shareit.server.booking.dto.BookingDto;
+import ru.practicum.shareit.server.booking.repository.BookingRepository;
+import ru.practicum.shareit.server.item.dto.ItemDto;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.item.service.ItemService;
+import ru.practicum.shareit.server.user.User;
+import ru.practicum.shareit.server.user.dto.UserDto;
+import ru.practicum.shareit.server.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Сравнивает пакетный импорт истории бронирований с поштучным save().
+ * <p>
+ * В H2 в памяти нет сетевых round trip, на которых пакетирование выигрывает больше всего,
+ * поэтому порог здесь ниже целевых 10x для PostgreSQL и защищает только от регрессий:
+ * например, от возврата к IDENTITY, при котором Hibernate отключает пакетную вставку.
+ */
+@SpringBootTest(classes = ShareItServerApp.class)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:booking_import",
+        "spring.jpa.show-sql=false"
+})
+class BookingImportThroughputTest {
+    private static final int ROWS = 5000;
+    private static final int WARMUP_ROWS = 500;
+    private static final double MIN_SPEEDUP = 3;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    private Long ownerId;
+    private Long bookerId;
+    private Long itemId;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = String.valueOf(System.nanoTime());
+        ownerId = userService.createUser(new UserDto(null, "Owner", "owner" + suffix + "@email.com")).getId();
+        bookerId = userService.createUser(new UserDto(null, "Booker", "booker" + suffix + "@email.com")).getId();
+        itemId = itemService.createItem(new ItemDto(null, "Item", "Description", true, null, null, null, null),
+                ownerId).getId();
+    }
+
+    @Test
+    void importBookings_shouldBeMuchFasterThanOneByOneSave() {
+        LocalDateTime base = LocalDateTime.now().minusYears(5).truncatedTo(ChronoUnit.HOURS);
+        saveOneByOne(rows(base, WARMUP_ROWS));
+        bookingService.importBookings(rows(base.plusHours(WARMUP_ROWS), WARMUP_ROWS), ownerId);
+
+        long started = System.nanoTime();
+        saveOneByOne(rows(base.plusHours(2L * WARMUP_ROWS), ROWS));
+        long oneByOne = System.nanoTime() - started;
+
+        started = System.nanoTime();
+        int imported = bookingService.importBookings(rows(base.plusHours(2L * WARMUP_ROWS + ROWS), ROWS), ownerId)
+                .imported();
+        long batched = System.nanoTime() - started;
+
+        assertEquals(ROWS, imported);
+        assertEquals(2L * WARMUP_ROWS + 2L * ROWS, bookingRepository.count());
+        double speedup = (double) oneByOne / batched;
+        assertTrue(speedup >= MIN_SPEEDUP,
+                String.format("batched import is only %.1fx faster than one-by-one save()", speedup));
+    }
+
+    private void saveOneByOne(List<BookingDto.BookingImport> rows) {
+        Item item = new Item();
+        item.setId(itemId);
+        User booker = new User();
+        booker.setId(bookerId);
+        for (BookingDto.BookingImport row : rows) {
+            bookingRepository.save(new Booking(null, row.getStart(), row.getEnd(), item, booker, row.getStatus()));
+        }
+    }
+
+    private List<BookingDto.BookingImport> rows(LocalDateTime from, int count) {
+        List<BookingDto.BookingImport> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            LocalDateTime start = from.plusHours(i);
+            rows.add(new BookingDto.BookingImport(itemId, bookerId, start, start.plusMinutes(30),
+                    BookingStatus.APPROVED));
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,140 @@
+package ru.practicum.shareit.server.booking.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.shareit.server.ShareItServerApp;
+import ru.practicum.shareit.server.booking.Booking;
+import ru.practicum.shareit.server.booking.BookingStatus;
+import ru.practicum.shareit.server.booking.dto.BookingCursor;
+import ru.practicum.shareit.server.booking.dto.BookingDto;
+import ru.practicum.shareit.server.booking.repository.BookingRepository;
+import ru.practicum.shareit.server.item.dto.ItemDto;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.item.service.ItemService;
+import ru.practicum.shareit.server.user.User;
+import ru.practicum.shareit.server.user.dto.UserDto;
+import ru.practicum.shareit.server.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Число SQL-запросов на страницу списка бронирований не должно зависеть от размера страницы:
+ * имя вещи и имя арендатора приходят тем же запросом, что и сами брони.
+ * Тест не транзакционный, иначе сущности из подготовки данных лежали бы в контексте
+ * персистентности и ленивые загрузки не были бы видны.
+ */
+@SpringBootTest(classes = ShareItServerApp.class)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:booking_queries",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+class BookingListQueryCountTest {
+    private static final int ITEMS = 6;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long ownerId;
+    private Long bookerId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        String suffix = String.valueOf(System.nanoTime());
+        ownerId = userService.createUser(new UserDto(null, "Owner", "owner" + suffix + "@email.com")).getId();
+        bookerId = userService.createUser(new UserDto(null, "Booker", "booker" + suffix + "@email.com")).getId();
+
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+        for (int i = 0; i < ITEMS; i++) {
+            Long itemId = itemService.createItem(
+                    new ItemDto(null, "Item" + i, "Description", true, null, null, null, null), ownerId).getId();
+            save(itemId, now.minusDays(10 + i), now.minusDays(9 + i), BookingStatus.APPROVED);
+            save(itemId, now.minusHours(1 + i), now.plusHours(1 + i), BookingStatus.APPROVED);
+            save(itemId, now.plusDays(10 + i), now.plusDays(11 + i), BookingStatus.WAITING);
+            save(itemId, now.plusDays(20 + i), now.plusDays(21 + i), BookingStatus.REJECTED);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"})
+    void getUserBookings_shouldUseConstantStatementsPerPage(String state) {
+        assertConstantStatements(
+                () -> bookingService.getUserBookings(bookerId, state, 0, 1),
+                () -> bookingService.getUserBookings(bookerId, state, 0, ITEMS));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"})
+    void getOwnerBookings_shouldUseConstantStatementsPerPage(String state) {
+        assertConstantStatements(
+                () -> bookingService.getOwnerBookings(ownerId, state, 0, 1),
+                () -> bookingService.getOwnerBookings(ownerId, state, 0, ITEMS));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED"})
+    void bookingPages_shouldUseConstantStatementsPerPage(String state) {
+        assertConstantStatements(
+                () -> bookingService.getUserBookingsPage(bookerId, state, BookingCursor.FIRST, 1).bookings(),
+                () -> bookingService.getUserBookingsPage(bookerId, state, BookingCursor.FIRST, ITEMS).bookings());
+        assertConstantStatements(
+                () -> bookingService.getOwnerBookingsPage(ownerId, state, BookingCursor.FIRST, 1).bookings(),
+                () -> bookingService.getOwnerBookingsPage(ownerId, state, BookingCursor.FIRST, ITEMS).bookings());
+    }
+
+    private void assertConstantStatements(Supplier<List<BookingDto>> smallPage,
+                                          Supplier<List<BookingDto>> largePage) {
+        long small = countStatements(smallPage, 1);
+        long large = countStatements(largePage, ITEMS);
+
+        assertEquals(small, large, "statements for a page of 1 vs a page of " + ITEMS);
+    }
+
+    private long countStatements(Supplier<List<BookingDto>> page, int expectedSize) {
+        statistics.clear();
+        List<BookingDto> bookings = page.get();
+        long statements = statistics.getPrepareStatementCount();
+
+        assertEquals(expectedSize, bookings.size());
+        assertFalse(bookings.stream().anyMatch(b -> b.getItem().getName() == null || b.getBooker().getName() == null));
+        return statements;
+    }
+
+    private void save(Long itemId, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        Item item = new Item();
+        item.setId(itemId);
+        User booker = new User();
+        booker.setId(bookerId);
+        bookingRepository.save(new Booking(null, start, end, item, booker, status));
+    }
+}
@@ -8,6 +8,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.server.booking.Booking;
 import ru.practicum.shareit.server.booking.BookingStatus;
+import ru.practicum.shareit.server.booking.availability.ItemAvailabilityCache;
 import ru.practicum.shareit.server.booking.dto.BookingDto;
 import ru.practicum.shareit.server.booking.repository.BookingRepository;
 import ru.practicum.shareit.server.exception.ForbiddenException;
@@ -40,6 +41,9 @@ class BookingServiceImplBranchTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private ItemAvailabilityCache availabilityCache;
+
     @InjectMocks
     private BookingServiceImpl bookingService;
 
@@ -49,7 +53,7 @@ class BookingServiceImplBranchTest {
         BookingDto.BookingRequest bookingRequest = new BookingDto.BookingRequest(
                 1L, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2));
 
-        when(itemRepository.findById(1L)).thenReturn(Optional.empty());
+        when(itemRepository.findByIdForUpdate(1L)).thenReturn(Optional.empty());
 
         // When & Then
         assertThrows(NotFoundException.class,
@@ -69,7 +73,7 @@ class BookingServiceImplBranchTest {
         owner.setId(2L);
         item.setOwner(owner);
 
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(itemRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(item));
         when(userService.getUserById(anyLong())).thenReturn(new UserDto());
 
         // When & Then
@@ -83,14 +87,6 @@ class BookingServiceImplBranchTest {
         BookingDto.BookingRequest bookingRequest = new BookingDto.BookingRequest(
                 1L, null, LocalDateTime.now().plusDays(2));
 
-        Item item = new Item();
-        item.setId(1L);
-        item.setAvailable(true);
-        User owner = new User();
-        owner.setId(2L);
-        item.setOwner(owner);
-
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
         when(userService.getUserById(anyLong())).thenReturn(new UserDto());
 
         // When & Then
@@ -104,14 +100,6 @@ class BookingServiceImplBranchTest {
         BookingDto.BookingRequest bookingRequest = new BookingDto.BookingRequest(
                 1L, LocalDateTime.now().plusDays(1), null);
 
-        Item item = new Item();
-        item.setId(1L);
-        item.setAvailable(true);
-        User owner = new User();
-        owner.setId(2L);
-        item.setOwner(owner);
-
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
         when(userService.getUserById(anyLong())).thenReturn(new UserDto());
 
         // When & Then
@@ -126,14 +114,6 @@ class BookingServiceImplBranchTest {
         LocalDateTime end = LocalDateTime.now().plusDays(1);
         BookingDto.BookingRequest bookingRequest = new BookingDto.BookingRequest(1L, start, end);
 
-        Item item = new Item();
-        item.setId(1L);
-        item.setAvailable(true);
-        User owner = new User();
-        owner.setId(2L);
-        item.setOwner(owner);
-
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
         when(userService.getUserById(anyLong())).thenReturn(new UserDto());
 
         // When & Then
@@ -147,14 +127,6 @@ class BookingServiceImplBranchTest {
         LocalDateTime dateTime = LocalDateTime.now().plusDays(1);
         BookingDto.BookingRequest bookingRequest = new BookingDto.BookingRequest(1L, dateTime, dateTime);
 
-        Item item = new Item();
-        item.setId(1L);
-        item.setAvailable(true);
-        User owner = new User();
-        owner.setId(2L);
-        item.setOwner(owner);
-
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
         when(userService.getUserById(anyLong())).thenReturn(new UserDto());
 
         // When & Then
@@ -246,8 +218,6 @@ class BookingServiceImplBranchTest {
         User user = new User();
         user.setId(1L);
 
-        when(userService.getUserById(1L)).thenReturn(new UserDto(1L, "User", "user@email.com"));
-
         // Test ALL state
         when(bookingRepository.findByBookerId(eq(1L), any(Pageable.class)))
                 .thenReturn(List.of(new Booking()));
@@ -262,7 +232,6 @@ class BookingServiceImplBranchTest {
     @Test
     void getUserBookings_shouldHandleCurrentState() {
         // Given
-        when(userService.getUserById(1L)).thenReturn(new UserDto(1L, "User", "user@email.com"));
         when(bookingRepository.findCurrentByBookerId(eq(1L), any(LocalDateTime.class), any(Pageable.class)))
                 .thenReturn(List.of(new Booking()));
 
@@ -276,7 +245,6 @@ class BookingServiceImplBranchTest {
     @Test
     void getUserBookings_shouldHandlePastState() {
         // Given
-        when(userService.getUserById(1L)).thenReturn(new UserDto(1L, "User", "user@email.com"));
         when(bookingRepository.findPastByBookerId(eq(1L), any(LocalDateTime.class), any(Pageable.class)))
                 .thenReturn(List.of(new Booking()));
 
@@ -290,7 +258,6 @@ class BookingServiceImplBranchTest {
     @Test
     void getUserBookings_shouldHandleFutureState() {
         // Given
-        when(userService.getUserById(1L)).thenReturn(new UserDto(1L, "User", "user@email.com"));
         when(bookingRepository.findFutureByBookerId(eq(1L), any(LocalDateTime.class), any(Pageable.class)))
                 .thenReturn(List.of(new Booking()));
 
@@ -304,7 +271,6 @@ class BookingServiceImplBranchTest {
     @Test
     void getUserBookings_shouldHandleWaitingState() {
         // Given
-        when(userService.getUserById(1L)).thenReturn(new UserDto(1L, "User", "user@email.com"));
         when(bookingRepository.findByBookerIdAndStatus(eq(1L), eq(BookingStatus.WAITING), any(Pageable.class)))
                 .thenReturn(List.of(new Booking()));
 
@@ -318,7 +284,6 @@ class BookingServiceImplBranchTest {
     @Test
     void getUserBookings_shouldHandleRejectedState() {
         // Given
-        when(userService.getUserById(1L)).thenReturn(new UserDto(1L, "User", "user@email.com"));
         when(bookingRepository.findByBookerIdAndStatus(eq(1L), eq(BookingStatus.REJECTED), any(Pageable.class)))
                 .thenReturn(List.of(new Booking()));
 
@@ -332,7 +297,6 @@ class BookingServiceImplBranchTest {
     @Test
     void getUserBookings_shouldHandleUnknownState() {
         // Given
-        when(userService.getUserById(1L)).thenReturn(new UserDto(1L, "User", "user@email.com"));
         when(bookingRepository.findByBookerId(eq(1L), any(Pageable.class)))
                 .thenReturn(List.of(new Booking()));
 
@@ -347,7 +311,6 @@ class BookingServiceImplBranchTest {
     @Test
     void getOwnerBookings_shouldHandleAllStates() {
         // Given
-        when(userService.getUserById(1L)).thenReturn(new UserDto(1L, "User", "user@email.com"));
         when(bookingRepository.findByItemOwnerId(eq(1L), any(Pageable.class)))
                 .thenReturn(List.of(new Booking()));
 
@@ -361,7 +324,6 @@ class BookingServiceImplBranchTest {
     @Test
     void getOwnerBookings_shouldHandleCurrentState() {
         // Given
-        when(userService.getUserById(1L)).thenReturn(new UserDto(1L, "User", "user@email.com"));
         when(bookingRepository.findCurrentByOwnerId(eq(1L), any(LocalDateTime.class), any(Pageable.class)))
                 .thenReturn(List.of(new Booking()));
 
@@ -375,7 +337,6 @@ class BookingServiceImplBranchTest {
     @Test
     void getOwnerBookings_shouldHandleRejectedState() {
         // Given
-        when(userService.getUserById(1L)).thenReturn(new UserDto(1L, "User", "user@email.com"));
         when(bookingRepository.findByOwnerIdAndStatus(eq(1L), eq(BookingStatus.REJECTED), any(Pageable.class)))
                 .thenReturn(List.of(new Booking()));
 
@@ -8,7 +8,10 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.server.ShareItServerApp;
 import ru.practicum.shareit.server.booking.BookingStatus;
+import ru.practicum.shareit.server.booking.dto.BookingCursor;
 import ru.practicum.shareit.server.booking.dto.BookingDto;
+import ru.practicum.shareit.server.booking.dto.BookingPage;
+import ru.practicum.shareit.server.exception.ConflictException;
 import ru.practicum.shareit.server.exception.NotFoundException;
 import ru.practicum.shareit.server.item.dto.ItemDto;
 import ru.practicum.shareit.server.item.service.ItemService;
@@ -16,6 +19,7 @@ import ru.practicum.shareit.server.user.dto.UserDto;
 import ru.practicum.shareit.server.user.service.UserService;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -79,4 +83,63 @@ class BookingServiceImplIntegrationTest {
         assertThrows(NotFoundException.class,
                 () -> bookingService.createBooking(bookingRequest, ownerId));
     }
-}
\ No newline at end of file
+
+    @Test
+    void importBookings_shouldRejectRowsOverlappingExistingBooking() {
+        // Given
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        bookingService.createBooking(new BookingDto.BookingRequest(itemId, start, start.plusDays(2)), bookerId);
+        List<BookingDto.BookingImport> rows = List.of(
+                new BookingDto.BookingImport(itemId, bookerId, start.plusDays(3), start.plusDays(4),
+                        BookingStatus.APPROVED),
+                new BookingDto.BookingImport(itemId, bookerId, start.plusDays(1), start.plusDays(3),
+                        BookingStatus.WAITING));
+
+        // When & Then
+        ConflictException e = assertThrows(ConflictException.class,
+                () -> bookingService.importBookings(rows, ownerId));
+        assertTrue(e.getMessage().endsWith("rows: [1]"), e.getMessage());
+    }
+
+    @Test
+    void getUserBookingsPage_shouldWalkAllPagesByCursor() {
+        // Given
+        LocalDateTime base = LocalDateTime.now().plusDays(1);
+        Long first = createBooking(base, base.plusHours(1));
+        Long second = createBooking(base.plusDays(1), base.plusDays(1).plusHours(1));
+        Long third = createBooking(base.plusDays(2), base.plusDays(2).plusHours(1));
+
+        // When
+        BookingPage page1 = bookingService.getUserBookingsPage(bookerId, "ALL", BookingCursor.FIRST, 2);
+        BookingPage page2 = bookingService.getUserBookingsPage(bookerId, "ALL",
+                BookingCursor.decode(page1.nextCursor()), 2);
+
+        // Then
+        assertEquals(List.of(third, second), page1.bookings().stream().map(BookingDto::getId).toList());
+        assertEquals(List.of(first), page2.bookings().stream().map(BookingDto::getId).toList());
+        assertNull(page2.nextCursor());
+    }
+
+    @Test
+    void getOwnerBookingsPage_shouldFilterByStateAfterCursor() {
+        // Given
+        LocalDateTime base = LocalDateTime.now().plusDays(1);
+        Long first = createBooking(base, base.plusHours(1));
+        Long second = createBooking(base.plusDays(1), base.plusDays(1).plusHours(1));
+        bookingService.approveBooking(second, true, ownerId);
+
+        // When
+        BookingPage waiting = bookingService.getOwnerBookingsPage(ownerId, "WAITING", BookingCursor.FIRST, 10);
+        BookingPage future = bookingService.getOwnerBookingsPage(ownerId, "FUTURE",
+                new BookingCursor(base.plusDays(1), second), 10);
+
+        // Then
+        assertEquals(List.of(first), waiting.bookings().stream().map(BookingDto::getId).toList());
+        assertEquals(List.of(first), future.bookings().stream().map(BookingDto::getId).toList());
+        assertNull(future.nextCursor());
+    }
+
+    private Long createBooking(LocalDateTime start, LocalDateTime end) {
+        return bookingService.createBooking(new BookingDto.BookingRequest(itemId, start, end), bookerId).getId();
+    }
+}
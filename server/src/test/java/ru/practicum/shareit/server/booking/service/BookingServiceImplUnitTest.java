@@ -1,16 +1,23 @@
 package ru.practicum.shareit.server.booking.service;
 
+import jakarta.persistence.EntityManager;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Pageable;
 import ru.practicum.shareit.server.booking.Booking;
 import ru.practicum.shareit.server.booking.BookingStatus;
+import ru.practicum.shareit.server.booking.availability.ItemAvailabilityCache;
 import ru.practicum.shareit.server.booking.dto.BookingDto;
+import ru.practicum.shareit.server.booking.dto.BookingImportResult;
+import ru.practicum.shareit.server.booking.dto.BookingIntervalView;
 import ru.practicum.shareit.server.booking.repository.BookingRepository;
+import ru.practicum.shareit.server.exception.ConflictException;
 import ru.practicum.shareit.server.exception.NotFoundException;
 import ru.practicum.shareit.server.exception.ValidationException;
 import ru.practicum.shareit.server.item.model.Item;
@@ -19,14 +26,20 @@ import ru.practicum.shareit.server.user.User;
 import ru.practicum.shareit.server.user.dto.UserDto;
 import ru.practicum.shareit.server.user.service.UserService;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -41,6 +54,12 @@ class BookingServiceImplUnitTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private ItemAvailabilityCache availabilityCache;
+
+    @Mock
+    private EntityManager entityManager;
+
     @InjectMocks
     private BookingServiceImpl bookingService;
 
@@ -78,19 +97,116 @@ class BookingServiceImplUnitTest {
     void createBooking_shouldThrowNotFoundWhenItemNotFound() {
         // Given
         when(userService.getUserById(anyLong())).thenReturn(new UserDto(1L, "Booker", "booker@email.com"));
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(itemRepository.findByIdForUpdate(anyLong())).thenReturn(Optional.empty());
 
         // When & Then
         assertThrows(NotFoundException.class,
                 () -> bookingService.createBooking(bookingRequest, 1L));
     }
 
+    @Test
+    void createBooking_shouldThrowConflictWhenIntervalOverlaps() {
+        // Given
+        when(userService.getUserById(anyLong())).thenReturn(new UserDto(1L, "Booker", "booker@email.com"));
+        when(itemRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(item));
+        when(bookingRepository.existsOverlapping(1L, bookingRequest.getStart(), bookingRequest.getEnd()))
+                .thenReturn(true);
+
+        // When & Then
+        assertThrows(ConflictException.class,
+                () -> bookingService.createBooking(bookingRequest, 1L));
+        verify(bookingRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void createBooking_shouldThrowConflictWhenConstraintRejectsInsert() {
+        // Given
+        when(userService.getUserById(anyLong())).thenReturn(new UserDto(1L, "Booker", "booker@email.com"));
+        when(itemRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(item));
+        when(bookingRepository.existsOverlapping(anyLong(), any(), any())).thenReturn(false);
+        when(bookingRepository.saveAndFlush(any(Booking.class)))
+                .thenThrow(integrityViolation("booking_no_overlap"));
+
+        // When & Then
+        assertThrows(ConflictException.class,
+                () -> bookingService.createBooking(bookingRequest, 1L));
+    }
+
+    @Test
+    void createBooking_shouldThrowConflictWhenDriverReportsExclusionViolation() {
+        // Given
+        when(userService.getUserById(anyLong())).thenReturn(new UserDto(1L, "Booker", "booker@email.com"));
+        when(itemRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(item));
+        when(bookingRepository.existsOverlapping(anyLong(), any(), any())).thenReturn(false);
+        SQLException exclusion = new SQLException(
+                "ERROR: conflicting key value violates exclusion constraint \"booking_no_overlap\"", "23P01");
+        when(bookingRepository.saveAndFlush(any(Booking.class)))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement",
+                        new ConstraintViolationException("could not execute statement", exclusion, null)));
+
+        // When & Then
+        assertThrows(ConflictException.class,
+                () -> bookingService.createBooking(bookingRequest, 1L));
+    }
+
+    @Test
+    void createBooking_shouldRethrowOtherIntegrityViolations() {
+        // Given
+        when(userService.getUserById(anyLong())).thenReturn(new UserDto(1L, "Booker", "booker@email.com"));
+        when(itemRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(item));
+        when(bookingRepository.existsOverlapping(anyLong(), any(), any())).thenReturn(false);
+        when(bookingRepository.saveAndFlush(any(Booking.class)))
+                .thenThrow(integrityViolation("fk_booking_booker"));
+
+        // When & Then
+        assertThrows(DataIntegrityViolationException.class,
+                () -> bookingService.createBooking(bookingRequest, 1L));
+        verify(availabilityCache, never()).bookingCreated(any());
+    }
+
+    @Test
+    void createBooking_shouldValidateDatesBeforeCheckingCachedAvailability() {
+        // Given
+        BookingDto.BookingRequest reversed = new BookingDto.BookingRequest(
+                1L, LocalDateTime.now().plusDays(2), LocalDateTime.now().plusDays(1));
+        when(userService.getUserById(anyLong())).thenReturn(new UserDto(1L, "Booker", "booker@email.com"));
+
+        // When & Then
+        assertThrows(ValidationException.class,
+                () -> bookingService.createBooking(reversed, 1L));
+        verify(availabilityCache, never()).isKnownBusy(anyLong(), any(), any());
+    }
+
+    @Test
+    void createBooking_shouldReportItemErrorsBeforeCachedConflict() {
+        // Given
+        when(userService.getUserById(anyLong())).thenReturn(new UserDto(1L, "Booker", "booker@email.com"));
+        when(availabilityCache.isKnownBusy(1L, bookingRequest.getStart(), bookingRequest.getEnd()))
+                .thenReturn(true);
+        Item unavailable = new Item();
+        unavailable.setId(1L);
+        unavailable.setAvailable(false);
+        unavailable.setOwner(owner);
+
+        // When & Then
+        when(itemRepository.findById(1L)).thenReturn(Optional.empty());
+        assertThrows(NotFoundException.class, () -> bookingService.createBooking(bookingRequest, 1L));
+
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(unavailable));
+        assertThrows(ValidationException.class, () -> bookingService.createBooking(bookingRequest, 1L));
+
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        assertThrows(NotFoundException.class, () -> bookingService.createBooking(bookingRequest, 2L));
+
+        assertThrows(ConflictException.class, () -> bookingService.createBooking(bookingRequest, 1L));
+        verify(itemRepository, never()).findByIdForUpdate(anyLong());
+    }
+
     @Test
     void createBooking_shouldThrowValidationExceptionWhenStartIsNull() {
         // Given
         BookingDto.BookingRequest invalidRequest = new BookingDto.BookingRequest(1L, null, LocalDateTime.now().plusDays(2));
         when(userService.getUserById(anyLong())).thenReturn(new UserDto(1L, "Booker", "booker@email.com"));
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
 
         // When & Then
         assertThrows(ValidationException.class,
@@ -102,7 +218,6 @@ class BookingServiceImplUnitTest {
         // Given
         BookingDto.BookingRequest invalidRequest = new BookingDto.BookingRequest(1L, LocalDateTime.now().plusDays(1), null);
         when(userService.getUserById(anyLong())).thenReturn(new UserDto(1L, "Booker", "booker@email.com"));
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
 
         // When & Then
         assertThrows(ValidationException.class,
@@ -115,7 +230,6 @@ class BookingServiceImplUnitTest {
         LocalDateTime sameTime = LocalDateTime.now().plusDays(1);
         BookingDto.BookingRequest invalidRequest = new BookingDto.BookingRequest(1L, sameTime, sameTime);
         when(userService.getUserById(anyLong())).thenReturn(new UserDto(1L, "Booker", "booker@email.com"));
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
 
         // When & Then
         assertThrows(ValidationException.class,
@@ -156,7 +270,6 @@ class BookingServiceImplUnitTest {
     @Test
     void getUserBookings_shouldReturnCurrentBookings() {
         // Given
-        when(userService.getUserById(anyLong())).thenReturn(new UserDto(1L, "User", "user@email.com"));
         when(bookingRepository.findCurrentByBookerId(anyLong(), any(LocalDateTime.class), any(Pageable.class)))
                 .thenReturn(List.of(booking));
 
@@ -171,7 +284,6 @@ class BookingServiceImplUnitTest {
     @Test
     void getUserBookings_shouldReturnPastBookings() {
         // Given
-        when(userService.getUserById(anyLong())).thenReturn(new UserDto(1L, "User", "user@email.com"));
         when(bookingRepository.findPastByBookerId(anyLong(), any(LocalDateTime.class), any(Pageable.class)))
                 .thenReturn(List.of(booking));
 
@@ -186,7 +298,6 @@ class BookingServiceImplUnitTest {
     @Test
     void getUserBookings_shouldReturnFutureBookings() {
         // Given
-        when(userService.getUserById(anyLong())).thenReturn(new UserDto(1L, "User", "user@email.com"));
         when(bookingRepository.findFutureByBookerId(anyLong(), any(LocalDateTime.class), any(Pageable.class)))
                 .thenReturn(List.of(booking));
 
@@ -201,7 +312,6 @@ class BookingServiceImplUnitTest {
     @Test
     void getUserBookings_shouldReturnRejectedBookings() {
         // Given
-        when(userService.getUserById(anyLong())).thenReturn(new UserDto(1L, "User", "user@email.com"));
         when(bookingRepository.findByBookerIdAndStatus(anyLong(), eq(BookingStatus.REJECTED), any(Pageable.class)))
                 .thenReturn(List.of(booking));
 
@@ -216,7 +326,6 @@ class BookingServiceImplUnitTest {
     @Test
     void getOwnerBookings_shouldReturnCurrentBookings() {
         // Given
-        when(userService.getUserById(anyLong())).thenReturn(new UserDto(1L, "Owner", "owner@email.com"));
         when(bookingRepository.findCurrentByOwnerId(anyLong(), any(LocalDateTime.class), any(Pageable.class)))
                 .thenReturn(List.of(booking));
 
@@ -227,4 +336,75 @@ class BookingServiceImplUnitTest {
         assertFalse(result.isEmpty());
         assertEquals(1, result.size());
     }
+
+    @Test
+    void importBookings_shouldSaveRowsAndTrackActiveOnes() {
+        // Given
+        LocalDateTime start = LocalDateTime.now().minusDays(10);
+        List<BookingDto.BookingImport> rows = List.of(
+                new BookingDto.BookingImport(1L, 1L, start, start.plusDays(1), BookingStatus.APPROVED),
+                new BookingDto.BookingImport(1L, 1L, start.plusDays(2), start.plusDays(3), BookingStatus.REJECTED));
+        when(itemRepository.findAllByIdForUpdate(any())).thenReturn(List.of(item));
+
+        // When
+        BookingImportResult result = bookingService.importBookings(rows, 2L);
+
+        // Then
+        assertEquals(2, result.imported());
+        verify(bookingRepository).saveAllAndFlush(anyList());
+        verify(availabilityCache, times(1)).bookingCreated(any(Booking.class));
+        verify(entityManager).clear();
+    }
+
+    @Test
+    void importBookings_shouldRejectRowsOverlappingEachOtherOrExistingBookings() {
+        // Given
+        LocalDateTime start = LocalDateTime.now().plusDays(10);
+        List<BookingDto.BookingImport> rows = List.of(
+                new BookingDto.BookingImport(1L, 1L, start, start.plusDays(5), BookingStatus.APPROVED),
+                new BookingDto.BookingImport(1L, 1L, start.plusDays(6), start.plusDays(7), BookingStatus.WAITING),
+                new BookingDto.BookingImport(1L, 1L, start.plusDays(1), start.plusDays(2), BookingStatus.WAITING),
+                new BookingDto.BookingImport(1L, 1L, start.plusDays(1), start.plusDays(2), BookingStatus.REJECTED),
+                new BookingDto.BookingImport(1L, 1L, start.plusDays(20), start.plusDays(21), BookingStatus.APPROVED));
+        BookingIntervalView existing = mock(BookingIntervalView.class);
+        when(existing.getStart()).thenReturn(start.plusDays(20).plusHours(12));
+        when(existing.getEnd()).thenReturn(start.plusDays(22));
+        when(itemRepository.findAllByIdForUpdate(any())).thenReturn(List.of(item));
+        when(bookingRepository.findActiveIntervals(1L, start)).thenReturn(List.of(existing));
+
+        // When & Then
+        ConflictException e = assertThrows(ConflictException.class, () -> bookingService.importBookings(rows, 2L));
+        assertTrue(e.getMessage().endsWith("rows: [0, 2, 4]"), e.getMessage());
+        verify(bookingRepository, never()).saveAllAndFlush(anyList());
+        verify(availabilityCache, never()).bookingCreated(any());
+    }
+
+    @Test
+    void importBookings_shouldRejectItemsOfAnotherOwner() {
+        // Given
+        LocalDateTime start = LocalDateTime.now().minusDays(10);
+        List<BookingDto.BookingImport> rows = List.of(
+                new BookingDto.BookingImport(1L, 1L, start, start.plusDays(1), BookingStatus.APPROVED));
+        when(itemRepository.findAllByIdForUpdate(any())).thenReturn(List.of(item));
+
+        // When & Then
+        assertThrows(NotFoundException.class, () -> bookingService.importBookings(rows, 3L));
+        verify(bookingRepository, never()).saveAllAndFlush(anyList());
+    }
+
+    @Test
+    void importBookings_shouldRejectRowWithoutStatus() {
+        LocalDateTime start = LocalDateTime.now().minusDays(10);
+        List<BookingDto.BookingImport> rows = List.of(
+                new BookingDto.BookingImport(1L, 1L, start, start.plusDays(1), null));
+
+        assertThrows(ValidationException.class, () -> bookingService.importBookings(rows, 2L));
+        verify(itemRepository, never()).findAllByIdForUpdate(any());
+    }
+
+    private static DataIntegrityViolationException integrityViolation(String constraintName) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement",
+                        new SQLException("integrity violation", "23000"), constraintName));
+    }
 }
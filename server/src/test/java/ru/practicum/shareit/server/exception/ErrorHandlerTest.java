@@ -5,6 +5,7 @@ import jakarta.validation.ConstraintViolationException;
 import org.hibernate.LazyInitializationException;
 import org.junit.jupiter.api.Test;
 import org.springframework.dao.DataAccessException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.validation.BeanPropertyBindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -37,6 +38,15 @@ class ErrorHandlerTest {
         assertThat(response.error()).isEqualTo("Conflict occurred");
     }
 
+    @Test
+    void handleOptimisticLockingFailureException_shouldReturn409() {
+        ObjectOptimisticLockingFailureException ex = new ObjectOptimisticLockingFailureException("Item", 1L);
+
+        ErrorResponse response = errorHandler.handleOptimisticLockingFailureException(ex);
+
+        assertThat(response.error()).isEqualTo("Entity was modified concurrently, retry the request");
+    }
+
     @Test
     void handleIllegalArgumentException_shouldReturn400WithMessage() {
         IllegalArgumentException ex = new IllegalArgumentException("Invalid argument");
@@ -10,6 +10,9 @@ import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.server.exception.NotFoundException;
 import ru.practicum.shareit.server.item.ItemController;
 import ru.practicum.shareit.server.item.dto.ItemDto;
+import ru.practicum.shareit.server.item.dto.ItemView;
+import ru.practicum.shareit.server.item.search.ItemCatalogVersion;
+import ru.practicum.shareit.server.item.service.ItemBulkImporter;
 import ru.practicum.shareit.server.item.service.ItemService;
 
 import java.util.List;
@@ -33,6 +36,12 @@ class ItemControllerAdditionTest {
     @MockBean
     private ItemService itemService;
 
+    @MockBean
+    private ItemBulkImporter itemBulkImporter;
+
+    @MockBean
+    private ItemCatalogVersion catalogVersion;
+
     @Test
     void updateItem_shouldReturnUpdatedItem() throws Exception {
         // Given
@@ -57,8 +66,8 @@ class ItemControllerAdditionTest {
         // Given
         ItemDto itemDto = new ItemDto(1L, "Test Item", "Test Description", true, null, null, null, null);
 
-        when(itemService.getItemById(anyLong(), anyLong()))
-                .thenReturn(itemDto);
+        when(itemService.getItemView(anyLong(), anyLong()))
+                .thenReturn(new ItemView(itemDto, 1L));
 
         // When & Then
         mockMvc.perform(get("/items/1")
@@ -71,7 +80,7 @@ class ItemControllerAdditionTest {
     @Test
     void getItemById_shouldReturn404WhenItemNotFound() throws Exception {
         // Given
-        when(itemService.getItemById(anyLong(), anyLong()))
+        when(itemService.getItemView(anyLong(), anyLong()))
                 .thenThrow(new NotFoundException("Item not found"));
 
         // When & Then
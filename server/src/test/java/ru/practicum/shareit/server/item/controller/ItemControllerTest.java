@@ -11,6 +11,9 @@ import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.server.exception.NotFoundException;
 import ru.practicum.shareit.server.item.dto.CommentDto;
 import ru.practicum.shareit.server.item.dto.ItemDto;
+import ru.practicum.shareit.server.item.dto.ItemView;
+import ru.practicum.shareit.server.item.search.ItemCatalogVersion;
+import ru.practicum.shareit.server.item.service.ItemBulkImporter;
 import ru.practicum.shareit.server.item.service.ItemService;
 
 import java.time.LocalDateTime;
@@ -20,6 +23,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -32,6 +36,12 @@ class ItemControllerTest {
     @MockBean
     private ItemService itemService;
 
+    @MockBean
+    private ItemBulkImporter itemBulkImporter;
+
+    @MockBean
+    private ItemCatalogVersion catalogVersion;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -74,11 +84,12 @@ class ItemControllerTest {
 
     @Test
     void getItemById_shouldReturnItem() throws Exception {
-        when(itemService.getItemById(1L, 1L)).thenReturn(itemDto);
+        when(itemService.getItemView(1L, 1L)).thenReturn(new ItemView(itemDto, 7L));
 
         mockMvc.perform(get("/items/1")
                         .header("X-Sharer-User-Id", 1L))
                 .andExpect(status().isOk())
+                .andExpect(header().string(ItemController.OWNER_ID_HEADER, "7"))
                 .andExpect(jsonPath("$.id").value(itemDto.getId()));
     }
 
@@ -97,12 +108,14 @@ class ItemControllerTest {
     @Test
     void searchItems_shouldReturnList() throws Exception {
         when(itemService.searchItems("drill", 0, 10)).thenReturn(List.of(itemDto));
+        when(catalogVersion.current()).thenReturn(42L);
 
         mockMvc.perform(get("/items/search")
                         .param("text", "drill")
                         .param("from", "0")
                         .param("size", "10"))
                 .andExpect(status().isOk())
+                .andExpect(header().string(ItemCatalogVersion.HEADER, "42"))
                 .andExpect(jsonPath("$[0].name").value(itemDto.getName()));
     }
 
@@ -120,7 +133,7 @@ class ItemControllerTest {
 
     @Test
     void getItemById_shouldReturn404WhenNotFound() throws Exception {
-        when(itemService.getItemById(1L, 1L)).thenThrow(new NotFoundException("Item not found"));
+        when(itemService.getItemView(1L, 1L)).thenThrow(new NotFoundException("Item not found"));
 
         mockMvc.perform(get("/items/1")
                         .header("X-Sharer-User-Id", 1L))
@@ -0,0 +1,174 @@
+package ru.practicum.shareit.server.item.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.item.repository.ItemRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InvertedIndexItemSearchEngineTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @InjectMocks
+    private InvertedIndexItemSearchEngine searchEngine;
+
+    @Test
+    void search_shouldFallBackToRepositoryUntilIndexIsBuilt() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 10);
+        Item drill = item(1L, "Power Drill", "Electric tool");
+        when(itemRepository.searchAvailableItems("drill", pageable)).thenReturn(List.of(drill));
+
+        // When
+        List<Item> result = searchEngine.search("drill", pageable);
+
+        // Then
+        assertEquals(List.of(drill), result);
+    }
+
+    @Test
+    void rebuild_shouldIndexNameAndDescriptionByPrefix() {
+        // Given
+        buildIndex(item(1L, "Power Drill", "Electric tool"),
+                item(2L, "Hammer", "Drilling is not supported"),
+                item(3L, "Saw", "Hand tool"));
+
+        // Then
+        assertArrayEquals(new long[]{1L, 2L}, searchEngine.findIds("DRILL"));
+        assertArrayEquals(new long[]{1L, 3L}, searchEngine.findIds("tool"));
+        assertArrayEquals(new long[]{3L}, searchEngine.findIds("hand tool"));
+        assertArrayEquals(new long[0], searchEngine.findIds("ladder"));
+        assertArrayEquals(new long[0], searchEngine.findIds("%"));
+    }
+
+    @Test
+    void itemSaved_shouldApplyRenameAndAvailabilityFlip() {
+        // Given
+        Item drill = item(1L, "Power Drill", "Electric tool");
+        buildIndex(drill);
+        ItemDocument before = ItemDocument.of(drill);
+
+        // When
+        searchEngine.itemSaved(before, new ItemDocument(1L, "Screwdriver", "Electric tool", true));
+
+        // Then
+        assertArrayEquals(new long[0], searchEngine.findIds("drill"));
+        assertArrayEquals(new long[]{1L}, searchEngine.findIds("screw"));
+
+        // When
+        searchEngine.itemSaved(new ItemDocument(1L, "Screwdriver", "Electric tool", true),
+                new ItemDocument(1L, "Screwdriver", "Electric tool", false));
+
+        // Then
+        assertArrayEquals(new long[0], searchEngine.findIds("screw"));
+        assertEquals(0, searchEngine.termCount());
+
+        // When
+        searchEngine.itemSaved(null, new ItemDocument(5L, "Ladder", "Aluminium", true));
+
+        // Then
+        assertArrayEquals(new long[]{5L}, searchEngine.findIds("ladder"));
+    }
+
+    @Test
+    void rebuild_shouldReplayChangesMadeAfterBatchWasRead() {
+        // Given: вещь стала недоступной, а другая переименована после чтения пачки, но до её применения
+        Item drill = item(1L, "Power Drill", "Electric tool");
+        Item saw = item(2L, "Saw", "Hand tool");
+        when(itemRepository.findByAvailableTrueAndIdGreaterThanOrderById(eq(0L), any(Pageable.class)))
+                .thenAnswer(invocation -> {
+                    searchEngine.itemSaved(ItemDocument.of(drill),
+                            new ItemDocument(1L, "Power Drill", "Electric tool", false));
+                    searchEngine.itemSaved(ItemDocument.of(saw), new ItemDocument(2L, "Jigsaw", "Hand tool", true));
+                    return List.of(drill, saw);
+                });
+
+        // When
+        searchEngine.rebuild();
+
+        // Then
+        assertArrayEquals(new long[0], searchEngine.findIds("drill"));
+        assertArrayEquals(new long[0], searchEngine.findIds("saw"));
+        assertArrayEquals(new long[]{2L}, searchEngine.findIds("jigsaw"));
+    }
+
+    @Test
+    void search_shouldSkipItemsThatBecameUnavailable() {
+        // Given
+        Item first = item(1L, "Drill 1", "Tool");
+        Item second = item(2L, "Drill 2", "Tool");
+        buildIndex(first, second);
+        second.setAvailable(false);
+        when(itemRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(first, second));
+
+        // When
+        List<Item> result = searchEngine.search("drill", PageRequest.of(0, 10));
+
+        // Then
+        assertEquals(List.of(first), result);
+    }
+
+    @Test
+    void search_shouldLoadOnlyRequestedPageById() {
+        // Given
+        Item first = item(1L, "Drill 1", "Tool");
+        Item second = item(2L, "Drill 2", "Tool");
+        Item third = item(3L, "Drill 3", "Tool");
+        Item fourth = item(4L, "Drill 4", "Tool");
+        buildIndex(first, second, third, fourth);
+        when(itemRepository.findAllById(List.of(3L, 4L))).thenReturn(List.of(fourth, third));
+
+        // When
+        List<Item> result = searchEngine.search("drill", PageRequest.of(1, 2));
+
+        // Then
+        assertEquals(List.of(third, fourth), result);
+    }
+
+    @Test
+    void search_shouldNotQueryDatabaseWhenNothingMatches() {
+        // Given
+        buildIndex(item(1L, "Drill", "Tool"));
+
+        // When
+        List<Item> result = searchEngine.search("ladder", PageRequest.of(0, 10));
+
+        // Then
+        assertTrue(result.isEmpty());
+        verify(itemRepository, never()).findAllById(anyList());
+    }
+
+    private void buildIndex(Item... items) {
+        when(itemRepository.findByAvailableTrueAndIdGreaterThanOrderById(eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(items));
+        searchEngine.rebuild();
+    }
+
+    private Item item(Long id, String name, String description) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName(name);
+        item.setDescription(description);
+        item.setAvailable(true);
+        return item;
+    }
+}
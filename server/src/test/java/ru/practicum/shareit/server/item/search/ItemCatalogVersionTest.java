@@ -0,0 +1,36 @@
+package ru.practicum.shareit.server.item.search;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ItemCatalogVersionTest {
+    private final ItemCatalogVersion catalogVersion = new ItemCatalogVersion();
+
+    @Test
+    void itemsChanged_withoutTransaction_shouldBumpImmediately() {
+        long before = catalogVersion.current();
+
+        catalogVersion.itemsChanged();
+
+        assertEquals(before + 1, catalogVersion.current());
+    }
+
+    @Test
+    void itemsChanged_insideTransaction_shouldBumpOnlyAfterCommit() {
+        long before = catalogVersion.current();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            catalogVersion.itemsChanged();
+            assertEquals(before, catalogVersion.current());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(before + 1, catalogVersion.current());
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.server.item.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PostingListTest {
+
+    @Test
+    void add_shouldKeepIdsSortedAndUnique() {
+        PostingList list = PostingList.of(5, 1, 3, 3, 9, 2);
+
+        assertArrayEquals(new long[]{1, 2, 3, 5, 9}, list.toArray());
+    }
+
+    @Test
+    void remove_shouldDropIdAndIgnoreMissing() {
+        PostingList list = PostingList.of(1, 2, 3);
+
+        list.remove(2);
+        list.remove(7);
+
+        assertArrayEquals(new long[]{1, 3}, list.toArray());
+        list.remove(1);
+        list.remove(3);
+        assertTrue(list.isEmpty());
+    }
+
+    @Test
+    void union_shouldMergeSortedLists() {
+        long[] result = PostingList.union(List.of(PostingList.of(1, 4, 7), PostingList.of(2, 4, 8), PostingList.of()));
+
+        assertArrayEquals(new long[]{1, 2, 4, 7, 8}, result);
+    }
+
+    @Test
+    void union_shouldMergeManyOverlappingLists() {
+        List<PostingList> lists = new ArrayList<>();
+        for (int term = 0; term < 1000; term++) {
+            lists.add(PostingList.of(term, term + 1, 5000));
+        }
+
+        long[] result = PostingList.union(lists);
+
+        assertEquals(1002, result.length);
+        assertEquals(0, result[0]);
+        assertEquals(1000, result[1000]);
+        assertEquals(5000, result[1001]);
+        assertArrayEquals(new long[]{3, 6}, PostingList.union(List.of(PostingList.of(3, 6))));
+    }
+
+    @Test
+    void intersect_shouldKeepCommonIds() {
+        assertArrayEquals(new long[]{4, 8}, PostingList.intersect(new long[]{1, 4, 8, 9}, new long[]{2, 4, 8}));
+        assertArrayEquals(new long[0], PostingList.intersect(new long[]{1}, new long[0]));
+    }
+}
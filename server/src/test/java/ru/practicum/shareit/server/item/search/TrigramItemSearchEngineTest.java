@@ -0,0 +1,46 @@
+package ru.practicum.shareit.server.item.search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.item.repository.ItemRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TrigramItemSearchEngineTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @InjectMocks
+    private TrigramItemSearchEngine searchEngine;
+
+    @Test
+    void search_shouldPassLowerCasedPatternAndRankingText() {
+        // Given
+        PageRequest pageable = PageRequest.of(0, 10);
+        Item item = new Item();
+        item.setName("Power Drill");
+        when(itemRepository.searchAvailableItemsByTrigram("%drill%", "drill", pageable))
+                .thenReturn(List.of(item));
+
+        // When
+        List<Item> result = searchEngine.search("DRILL", pageable);
+
+        // Then
+        assertEquals(List.of(item), result);
+    }
+
+    @Test
+    void toLikePattern_shouldEscapeWildcards() {
+        assertEquals("%100\\%\\_off\\\\%", TrigramItemSearchEngine.toLikePattern("100%_off\\"));
+    }
+}
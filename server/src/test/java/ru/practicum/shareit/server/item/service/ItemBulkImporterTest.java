@@ -0,0 +1,185 @@
+package ru.practicum.shareit.server.item.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import ru.practicum.shareit.server.exception.NotFoundException;
+import ru.practicum.shareit.server.item.dto.ItemDto;
+import ru.practicum.shareit.server.item.dto.ItemImportResult;
+import ru.practicum.shareit.server.user.service.UserService;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemBulkImporterTest {
+
+    @Mock
+    private ItemService itemService;
+
+    @Mock
+    private UserService userService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<Integer> chunkSizes = new ArrayList<>();
+
+    private ItemBulkImporter importer;
+
+    @BeforeEach
+    void setUp() {
+        importer = new ItemBulkImporter(itemService, userService, objectMapper, 2);
+    }
+
+    @Test
+    void importItems_shouldSplitJsonArrayIntoChunksAndNumberRows() throws IOException {
+        // Given
+        stubCreateItems();
+        String body = "[" + item("A") + "," + item("B") + "," + item("C") + "]";
+
+        // When
+        List<String> lines = run(body);
+
+        // Then
+        assertEquals(List.of(2, 1), chunkSizes);
+        assertEquals(List.of("{\"row\":0,\"id\":100}", "{\"row\":1,\"id\":101}", "{\"row\":2,\"id\":102}"), lines);
+    }
+
+    @Test
+    void importItems_shouldReadNdjson() throws IOException {
+        // Given
+        stubCreateItems();
+        String body = item("A") + "\n" + item("B") + "\n";
+
+        // When
+        List<String> lines = run(body);
+
+        // Then
+        assertEquals(List.of(2), chunkSizes);
+        assertEquals(2, lines.size());
+    }
+
+    @Test
+    void importItems_shouldReportMalformedTailAfterWritingParsedRows() throws IOException {
+        // Given
+        stubCreateItems();
+        String body = item("A") + "\n{\"name\": ";
+
+        // When
+        List<String> lines = run(body);
+
+        // Then
+        assertEquals(2, lines.size());
+        assertEquals("{\"row\":0,\"id\":100}", lines.get(0));
+        ItemImportResult error = objectMapper.readValue(lines.get(1), ItemImportResult.class);
+        assertEquals(1, error.row());
+        assertEquals(null, error.id());
+    }
+
+    @Test
+    void importItems_shouldFailRowWithWrongFieldTypeAndContinue() throws IOException {
+        // Given
+        stubCreateItems();
+        String body = "[" + item("A") + ",{\"name\":\"B\",\"available\":\"maybe\",\"tags\":[1,{}]},"
+                + item("C") + "," + item("D") + "]";
+
+        // When
+        List<String> lines = run(body);
+
+        // Then
+        assertEquals(List.of(1, 2), chunkSizes);
+        assertEquals(4, lines.size());
+        assertEquals("{\"row\":0,\"id\":100}", lines.get(0));
+        ItemImportResult error = objectMapper.readValue(lines.get(1), ItemImportResult.class);
+        assertEquals(1, error.row());
+        assertEquals(null, error.id());
+        assertEquals(List.of("{\"row\":2,\"id\":102}", "{\"row\":3,\"id\":103}"), lines.subList(2, 4));
+    }
+
+    @Test
+    void importItems_shouldRejectOnlyRowsRefusedByDatabase() throws IOException {
+        // Given
+        importer = new ItemBulkImporter(itemService, userService, objectMapper, 8);
+        stubCreateItems();
+        String body = item("A") + item("Bad") + item("C") + item("D") + item("E") + item("Bad") + item("G");
+
+        // When
+        List<String> lines = run(body);
+
+        // Then
+        assertEquals(List.of("{\"row\":0,\"id\":100}",
+                "{\"row\":1,\"error\":\"Rejected by database\"}",
+                "{\"row\":2,\"id\":102}",
+                "{\"row\":3,\"id\":103}",
+                "{\"row\":4,\"id\":104}",
+                "{\"row\":5,\"error\":\"Rejected by database\"}",
+                "{\"row\":6,\"id\":106}"), lines);
+    }
+
+    @Test
+    void importItems_shouldWriteErrorLinesWhenServiceFails() throws IOException {
+        // Given
+        when(itemService.createItems(anyList(), anyInt(), eq(1L)))
+                .thenThrow(new NotFoundException("User not found"));
+
+        // When
+        List<String> lines = run(item("A") + item("B") + item("C"));
+
+        // Then
+        assertEquals(List.of("{\"row\":0,\"error\":\"User not found\"}",
+                "{\"row\":1,\"error\":\"User not found\"}",
+                "{\"row\":2,\"error\":\"User not found\"}"), lines);
+    }
+
+    @Test
+    void importItems_shouldRejectUnknownOwnerBeforeStreaming() {
+        doThrow(new NotFoundException("User not found")).when(userService).checkUserExists(99L);
+
+        assertThrows(NotFoundException.class,
+                () -> importer.importItems(new ByteArrayInputStream(new byte[0]), 99L));
+        verify(itemService, never()).createItems(anyList(), anyInt(), eq(99L));
+    }
+
+    private void stubCreateItems() {
+        when(itemService.createItems(anyList(), anyInt(), eq(1L))).thenAnswer(invocation -> {
+            List<ItemDto> chunk = invocation.getArgument(0);
+            int firstRow = invocation.getArgument(1);
+            if (chunk.stream().anyMatch(item -> "Bad".equals(item.getName()))) {
+                throw new DataIntegrityViolationException("value too long");
+            }
+            chunkSizes.add(chunk.size());
+            List<ItemImportResult> results = new ArrayList<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                results.add(ItemImportResult.created(firstRow + i, 100L + firstRow + i));
+            }
+            return results;
+        });
+    }
+
+    private List<String> run(String body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        importer.importItems(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), 1L, out);
+        return out.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+
+    private static String item(String name) {
+        return "{\"name\":\"" + name + "\",\"description\":\"Desc\",\"available\":true}";
+    }
+}
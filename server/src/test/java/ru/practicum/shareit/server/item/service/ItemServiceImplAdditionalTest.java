@@ -15,6 +15,8 @@ import ru.practicum.shareit.server.item.model.Comment;
 import ru.practicum.shareit.server.item.model.Item;
 import ru.practicum.shareit.server.item.repository.CommentRepository;
 import ru.practicum.shareit.server.item.repository.ItemRepository;
+import ru.practicum.shareit.server.item.search.ItemCatalogVersion;
+import ru.practicum.shareit.server.item.search.ItemSearchEngine;
 import ru.practicum.shareit.server.request.model.ItemRequest;
 import ru.practicum.shareit.server.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.server.user.User;
@@ -43,7 +45,11 @@ class ItemServiceImplAdditionalTest {
     private CommentRepository commentRepository;
     @Mock
     private ItemRequestRepository itemRequestRepository;
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
 
+    @Mock
+    private ItemCatalogVersion catalogVersion;
     @InjectMocks
     private ItemServiceImpl itemService;
 
@@ -68,7 +74,6 @@ class ItemServiceImplAdditionalTest {
         itemDto.setRequestId(100L);
         ItemRequest request = new ItemRequest();
         request.setId(100L);
-        when(userService.getUserById(anyLong())).thenReturn(new UserDto(1L, "User", "user@email.com"));
         when(itemRequestRepository.findById(100L)).thenReturn(Optional.of(request));
         when(itemRepository.save(any(Item.class))).thenAnswer(i -> i.getArgument(0));
 
@@ -82,7 +87,6 @@ class ItemServiceImplAdditionalTest {
     @Test
     void createItem_shouldThrowNotFound_whenRequestDoesNotExist() {
         itemDto.setRequestId(100L);
-        when(userService.getUserById(anyLong())).thenReturn(new UserDto(1L, "User", "user@email.com"));
         when(itemRequestRepository.findById(100L)).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () -> itemService.createItem(itemDto, 1L));
@@ -101,14 +105,15 @@ class ItemServiceImplAdditionalTest {
 
         assertNotNull(result);
         assertEquals("Nice!", result.getText());
+        verify(itemRepository).incrementVersion(1L);
     }
 
     @Test
     void getItemById_shouldHandleEmptyBookingsAndComments() {
         item.setOwner(owner);
         when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
-        when(bookingRepository.findLastBookings(anyLong(), any())).thenReturn(Collections.emptyList());
-        when(bookingRepository.findNextBookings(anyLong(), any())).thenReturn(Collections.emptyList());
+        when(bookingRepository.findLastBookings(anyLong(), any(), any())).thenReturn(Collections.emptyList());
+        when(bookingRepository.findNextBookings(anyLong(), any(), any())).thenReturn(Collections.emptyList());
         when(commentRepository.findByItemId(1L)).thenReturn(null);
 
         ItemDto result = itemService.getItemById(1L, owner.getId());
@@ -123,9 +128,8 @@ class ItemServiceImplAdditionalTest {
     void getAllItemsByOwner_shouldHandleEmptyBookingsAndComments() {
         when(itemRepository.findByOwnerIdOrderById(eq(1L), any(PageRequest.class)))
                 .thenReturn(List.of(item));
-        when(bookingRepository.findLastBookings(anyLong(), any())).thenReturn(Collections.emptyList());
-        when(bookingRepository.findNextBookings(anyLong(), any())).thenReturn(Collections.emptyList());
-        when(commentRepository.findByItemId(anyLong())).thenReturn(Collections.emptyList());
+        when(bookingRepository.findLastAndNextBookings(anyList(), any())).thenReturn(Collections.emptyList());
+        when(commentRepository.findByItemIdIn(anyList())).thenReturn(Collections.emptyList());
 
         List<ItemDto> results = itemService.getAllItemsByOwner(1L, 0, 10);
 
@@ -6,16 +6,22 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
-import ru.practicum.shareit.server.booking.Booking;
+import ru.practicum.shareit.server.booking.availability.ItemAvailabilityCache;
+import ru.practicum.shareit.server.booking.dto.BookingShortView;
 import ru.practicum.shareit.server.booking.repository.BookingRepository;
 import ru.practicum.shareit.server.exception.NotFoundException;
 import ru.practicum.shareit.server.exception.ValidationException;
 import ru.practicum.shareit.server.item.dto.CommentDto;
+import ru.practicum.shareit.server.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.server.item.dto.ItemDto;
+import ru.practicum.shareit.server.item.dto.ItemImportResult;
+import ru.practicum.shareit.server.item.dto.ItemView;
 import ru.practicum.shareit.server.item.model.Comment;
 import ru.practicum.shareit.server.item.model.Item;
 import ru.practicum.shareit.server.item.repository.CommentRepository;
 import ru.practicum.shareit.server.item.repository.ItemRepository;
+import ru.practicum.shareit.server.item.search.ItemCatalogVersion;
+import ru.practicum.shareit.server.item.search.ItemSearchEngine;
 import ru.practicum.shareit.server.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.server.user.User;
 import ru.practicum.shareit.server.user.dto.UserDto;
@@ -28,7 +34,13 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -49,6 +61,15 @@ class ItemServiceImplBranchTest {
     @Mock
     private ItemRequestRepository itemRequestRepository;
 
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+
+    @Mock
+    private ItemAvailabilityCache availabilityCache;
+
+    @Mock
+    private ItemCatalogVersion catalogVersion;
+
     @InjectMocks
     private ItemServiceImpl itemService;
 
@@ -79,6 +100,34 @@ class ItemServiceImplBranchTest {
         assertThrows(ValidationException.class, () -> itemService.createItem(itemDto, 1L));
     }
 
+    @Test
+    void createItems_shouldSaveValidRowsAndReportInvalidOnesInRowOrder() {
+        // Given
+        List<ItemDto> rows = List.of(
+                new ItemDto(null, "Drill", "Description", true, null, null, null, null),
+                new ItemDto(null, " ", "Description", true, null, null, null, null),
+                new ItemDto(null, "Saw", "Description", true, 7L, null, null, null),
+                new ItemDto(null, "Hammer", "Description", false, null, null, null, null));
+        when(itemRequestRepository.findAllById(any())).thenReturn(Collections.emptyList());
+        when(itemRepository.saveAllAndFlush(anyList())).thenAnswer(invocation -> {
+            List<Item> items = invocation.getArgument(0);
+            for (int i = 0; i < items.size(); i++) {
+                items.get(i).setId(100L + i);
+            }
+            return items;
+        });
+
+        // When
+        List<ItemImportResult> results = itemService.createItems(rows, 10, 1L);
+
+        // Then
+        assertEquals(List.of(
+                ItemImportResult.created(10, 100L),
+                ItemImportResult.failed(11, "Item name cannot be empty"),
+                ItemImportResult.failed(12, "Item request not found"),
+                ItemImportResult.created(13, 101L)), results);
+        verify(itemSearchEngine, times(2)).itemSaved(eq(null), any());
+    }
 
     @Test
     void updateItem_shouldThrowExceptionWhenItemNotFound() {
@@ -174,7 +223,7 @@ class ItemServiceImplBranchTest {
         item.setDescription("Power tool");
         item.setAvailable(true);
 
-        when(itemRepository.searchAvailableItems(eq("drill"), any(PageRequest.class)))
+        when(itemSearchEngine.search(eq("drill"), any(PageRequest.class)))
                 .thenReturn(List.of(item));
 
         // When
@@ -260,10 +309,10 @@ class ItemServiceImplBranchTest {
         item.setOwner(owner);
 
         when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
-        when(bookingRepository.findLastBookings(eq(1L), any(LocalDateTime.class)))
-                .thenReturn(List.of(new Booking()));
-        when(bookingRepository.findNextBookings(eq(1L), any(LocalDateTime.class)))
-                .thenReturn(List.of(new Booking()));
+        when(bookingRepository.findLastBookings(eq(1L), any(LocalDateTime.class), eq(PageRequest.of(0, 1))))
+                .thenReturn(List.of(bookingView(10L, 2L)));
+        when(bookingRepository.findNextBookings(eq(1L), any(LocalDateTime.class), eq(PageRequest.of(0, 1))))
+                .thenReturn(List.of(bookingView(11L, 3L)));
         when(commentRepository.findByItemId(1L)).thenReturn(List.of(new Comment()));
 
         // When
@@ -271,6 +320,10 @@ class ItemServiceImplBranchTest {
 
         // Then
         assertNotNull(result);
+        assertEquals(10L, result.getLastBooking().getId());
+        assertEquals(2L, result.getLastBooking().getBookerId());
+        assertEquals(11L, result.getNextBooking().getId());
+        assertEquals(3L, result.getNextBooking().getBookerId());
     }
 
     @Test
@@ -292,4 +345,63 @@ class ItemServiceImplBranchTest {
         assertNotNull(result);
         // Bookings should not be set for non-owners
     }
+
+    @Test
+    void getItemView_shouldReturnOwnerIdForNonOwner() {
+        // Given
+        Item item = new Item();
+        item.setId(1L);
+        User owner = new User();
+        owner.setId(2L);
+        item.setOwner(owner);
+
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(commentRepository.findByItemId(1L)).thenReturn(List.of());
+
+        // When
+        ItemView result = itemService.getItemView(1L, 1L);
+
+        // Then
+        assertEquals(2L, result.ownerId());
+        assertNull(result.item().getLastBooking());
+        verify(bookingRepository, never()).findLastBookings(anyLong(), any(), any());
+    }
+
+    @Test
+    void getAvailability_shouldAnswerFromAvailabilityCache() {
+        // Given
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime to = from.plusDays(1);
+        when(availabilityCache.isFree(1L, from, to)).thenReturn(false);
+
+        // When
+        ItemAvailabilityDto result = itemService.getAvailability(1L, from, to);
+
+        // Then
+        assertEquals(1L, result.getItemId());
+        assertFalse(result.isAvailable());
+        verifyNoInteractions(bookingRepository, itemRepository);
+    }
+
+    @Test
+    void getAvailability_shouldRejectEmptyWindow() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 10, 0);
+
+        assertThrows(ValidationException.class, () -> itemService.getAvailability(1L, from, from));
+        verifyNoInteractions(availabilityCache);
+    }
+
+    private BookingShortView bookingView(Long id, Long bookerId) {
+        return new BookingShortView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getBookerId() {
+                return bookerId;
+            }
+        };
+    }
 }
\ No newline at end of file
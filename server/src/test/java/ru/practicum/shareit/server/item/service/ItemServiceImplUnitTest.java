@@ -14,6 +14,8 @@ import ru.practicum.shareit.server.item.dto.ItemDto;
 import ru.practicum.shareit.server.item.model.Item;
 import ru.practicum.shareit.server.item.repository.CommentRepository;
 import ru.practicum.shareit.server.item.repository.ItemRepository;
+import ru.practicum.shareit.server.item.search.ItemCatalogVersion;
+import ru.practicum.shareit.server.item.search.ItemSearchEngine;
 import ru.practicum.shareit.server.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.server.user.User;
 import ru.practicum.shareit.server.user.dto.UserDto;
@@ -45,6 +47,12 @@ class ItemServiceImplUnitTest {
     @Mock
     private ItemRequestRepository itemRequestRepository;
 
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+
+    @Mock
+    private ItemCatalogVersion catalogVersion;
+
     @InjectMocks
     private ItemServiceImpl itemService;
 
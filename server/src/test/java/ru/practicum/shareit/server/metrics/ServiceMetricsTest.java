@@ -0,0 +1,82 @@
+package ru.practicum.shareit.server.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.shareit.server.ShareItServerApp;
+import ru.practicum.shareit.server.booking.service.BookingService;
+import ru.practicum.shareit.server.exception.NotFoundException;
+import ru.practicum.shareit.server.user.dto.UserDto;
+import ru.practicum.shareit.server.user.service.UserService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(classes = ShareItServerApp.class)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:service_metrics",
+        "spring.jpa.show-sql=false"
+})
+class ServiceMetricsTest {
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private UserService userService;
+
+    @Test
+    void bookingLists_shouldBeTimedPerStateBranch() {
+        Long userId = createUser();
+
+        bookingService.getUserBookings(userId, "past", 0, 10);
+        bookingService.getUserBookings(userId, "anything", 0, 10);
+
+        assertEquals(1, serviceTimerCount("getUserBookings", "PAST"));
+        assertEquals(1, serviceTimerCount("getUserBookings", "ALL"));
+    }
+
+    @Test
+    void repositoryQueries_shouldBeTimedPerMethod() {
+        Long userId = createUser();
+
+        bookingService.getOwnerBookings(userId, "FUTURE", 0, 10);
+
+        assertTrue(meterRegistry.get(MetricNames.REPOSITORY)
+                .tag("repository", "BookingRepository")
+                .tag("method", "findFutureByOwnerId")
+                .timer()
+                .count() >= 1);
+    }
+
+    @Test
+    void failedCall_shouldBeTaggedWithException() {
+        assertThrows(NotFoundException.class, () -> userService.getUserById(-1L));
+
+        assertEquals(1, meterRegistry.get(MetricNames.SERVICE)
+                .tag("method", "getUserById")
+                .tag("exception", "NotFoundException")
+                .timer()
+                .count());
+    }
+
+    private long serviceTimerCount(String method, String state) {
+        return meterRegistry.get(MetricNames.SERVICE)
+                .tag("method", method)
+                .tag("state", state)
+                .timer()
+                .count();
+    }
+
+    private Long createUser() {
+        String suffix = String.valueOf(System.nanoTime());
+        return userService.createUser(new UserDto(null, "User", "user" + suffix + "@email.com")).getId();
+    }
+}
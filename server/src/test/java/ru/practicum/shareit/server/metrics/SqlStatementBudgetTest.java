@@ -0,0 +1,153 @@
+package ru.practicum.shareit.server.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.server.ShareItServerApp;
+import ru.practicum.shareit.server.item.dto.ItemDto;
+import ru.practicum.shareit.server.item.model.Comment;
+import ru.practicum.shareit.server.item.model.Item;
+import ru.practicum.shareit.server.item.repository.CommentRepository;
+import ru.practicum.shareit.server.item.service.ItemService;
+import ru.practicum.shareit.server.request.dto.ItemRequestDto;
+import ru.practicum.shareit.server.request.service.ItemRequestService;
+import ru.practicum.shareit.server.user.User;
+import ru.practicum.shareit.server.user.dto.UserDto;
+import ru.practicum.shareit.server.user.service.UserCache;
+import ru.practicum.shareit.server.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Учёт SQL на настоящем Hibernate: в профиле test бюджеты {@link SqlStatementBudget}
+ * проверяются строго, и превышение роняет запрос.
+ */
+@SpringBootTest(classes = ShareItServerApp.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:sql_statement_budget",
+        "spring.jpa.show-sql=false"
+})
+class SqlStatementBudgetTest {
+    private static final String USER_ID = "X-Sharer-User-Id";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ItemRequestService itemRequestService;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Test
+    void ownerItems_shouldStayWithinBudget() throws Exception {
+        Long ownerId = createUser("Owner");
+        for (int i = 0; i < 5; i++) {
+            createItem(ownerId);
+        }
+
+        mockMvc.perform(get("/items").header(USER_ID, ownerId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(5));
+
+        DistributionSummary statements = meterRegistry.get(MetricNames.SQL_STATEMENTS)
+                .tag("method", "GET")
+                .tag("uri", "/items")
+                .summary();
+        assertTrue(statements.count() >= 1);
+        assertTrue(statements.max() > 0 && statements.max() <= 3);
+        assertTrue(meterRegistry.get(MetricNames.SQL_TIME).tag("uri", "/items").timer().count() >= 1);
+    }
+
+    @Test
+    void itemComments_shouldLoadAuthorsWithoutNPlusOne() throws Exception {
+        Long ownerId = createUser("Owner");
+        Long itemId = createItem(ownerId);
+        for (int i = 0; i < 3; i++) {
+            addComment(itemId, createUser("Author" + i));
+        }
+
+        mockMvc.perform(get("/items/{id}", itemId).header(USER_ID, ownerId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.comments.length()").value(3));
+
+        assertNull(meterRegistry.find(MetricNames.SQL_REPEATED).tag("uri", "/items/{itemId}").counter());
+    }
+
+    @Test
+    void itemRequests_shouldStayWithinBudgetWithColdUserCache() throws Exception {
+        Long requestorId = createUser("Requestor");
+        Long ownerId = createUser("Owner");
+        for (int i = 0; i < 3; i++) {
+            Long requestId = itemRequestService.createItemRequest(
+                    new ItemRequestDto.ItemRequestCreateDto("Need a drill " + i), requestorId).getId();
+            itemService.createItem(
+                    new ItemDto(null, "Drill", "Cordless drill", true, requestId, null, null, null), ownerId);
+        }
+        // createItemRequest прочитал пользователя через кэш; запрос ниже должен начинаться с промаха
+        userCache.invalidate(requestorId);
+        userCache.invalidate(ownerId);
+
+        mockMvc.perform(get("/requests").header(USER_ID, requestorId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].items.length()").value(1));
+        mockMvc.perform(get("/requests/all").header(USER_ID, ownerId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3));
+
+        for (String uri : List.of("/requests", "/requests/all")) {
+            DistributionSummary statements = meterRegistry.get(MetricNames.SQL_STATEMENTS)
+                    .tag("method", "GET")
+                    .tag("uri", uri)
+                    .summary();
+            assertEquals(3, statements.max(), uri);
+        }
+    }
+
+    private Long createUser(String name) {
+        String suffix = String.valueOf(System.nanoTime());
+        return userService.createUser(new UserDto(null, name, name + suffix + "@email.com")).getId();
+    }
+
+    private Long createItem(Long ownerId) {
+        return itemService.createItem(
+                new ItemDto(null, "Drill", "Cordless drill", true, null, null, null, null), ownerId).getId();
+    }
+
+    private void addComment(Long itemId, Long authorId) {
+        Item item = new Item();
+        item.setId(itemId);
+        User author = new User();
+        author.setId(authorId);
+        commentRepository.save(new Comment(null, "Works great", item, author, LocalDateTime.now()));
+    }
+}
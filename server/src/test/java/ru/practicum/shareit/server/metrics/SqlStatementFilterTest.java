@@ -0,0 +1,118 @@
+package ru.practicum.shareit.server.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SqlStatementFilterTest {
+    private static final String SELECT_USER = "select u.id, u.name from users u where u.id=?";
+
+    private final SqlStatementRecorder recorder = new SqlStatementRecorder();
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void statements_shouldBeRecordedPerPathPattern() throws Exception {
+        run(new SqlStatementFilter(meterRegistry, 3, false), "list",
+                "select i.id from items i where i.owner_id=?",
+                "select c.id from comments c where c.item_id in (?,?)");
+
+        assertEquals(1, statementsSummary().count());
+        assertEquals(2, statementsSummary().totalAmount());
+        assertNull(meterRegistry.find(MetricNames.SQL_REPEATED).counter());
+    }
+
+    @Test
+    void repeatedSelect_shouldBeFlaggedAsLikelyNPlusOne() throws Exception {
+        run(new SqlStatementFilter(meterRegistry, 3, false), "list",
+                SELECT_USER, SELECT_USER, SELECT_USER,
+                "insert into items (name,id) values (?,?)",
+                "insert into items (name,id) values (?,?)",
+                "insert into items (name,id) values (?,?)",
+                "select nextval('items_seq')",
+                "select nextval('items_seq')",
+                "select nextval('items_seq')");
+
+        assertEquals(1, meterRegistry.get(MetricNames.SQL_REPEATED)
+                .tag("uri", "/test")
+                .counter()
+                .count());
+    }
+
+    @Test
+    void exceededBudget_shouldFailRequestWhenEnforced() {
+        SqlStatementFilter filter = new SqlStatementFilter(meterRegistry, 3, true);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> run(filter, "budgeted", SELECT_USER, "select i.id from items i where i.id=?"));
+
+        assertEquals("GET /test executed 2 SQL statements, budget is 1", e.getMessage());
+        assertEquals(1, statementsSummary().count());
+    }
+
+    @Test
+    void exceededBudget_shouldOnlyBeLoggedWhenNotEnforced() {
+        SqlStatementFilter filter = new SqlStatementFilter(meterRegistry, 3, false);
+
+        assertDoesNotThrow(() -> run(filter, "budgeted", SELECT_USER, "select i.id from items i where i.id=?"));
+    }
+
+    @Test
+    void statementsOutsideRequest_shouldBeIgnored() {
+        assertEquals(SELECT_USER, recorder.inspect(SELECT_USER));
+    }
+
+    private void run(SqlStatementFilter filter, String handlerMethod, String... statements) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/test");
+        FilterChain chain = (servletRequest, servletResponse) -> {
+            // так атрибуты выставляет DispatcherServlet при выборе метода контроллера
+            servletRequest.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/test");
+            servletRequest.setAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE,
+                    handler(handlerMethod));
+            for (String sql : statements) {
+                recorder.inspect(sql);
+            }
+        };
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+    }
+
+    private static HandlerMethod handler(String name) {
+        try {
+            return new HandlerMethod(new TestController(), TestController.class.getMethod(name));
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private DistributionSummary statementsSummary() {
+        return meterRegistry.get(MetricNames.SQL_STATEMENTS)
+                .tag("method", "GET")
+                .tag("uri", "/test")
+                .summary();
+    }
+
+    public static class TestController {
+        public void list() {
+        }
+
+        @SqlStatementBudget(1)
+        public void budgeted() {
+        }
+    }
+}
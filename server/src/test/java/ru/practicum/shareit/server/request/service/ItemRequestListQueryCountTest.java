@@ -0,0 +1,112 @@
+package ru.practicum.shareit.server.request.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.shareit.server.ShareItServerApp;
+import ru.practicum.shareit.server.item.dto.ItemDto;
+import ru.practicum.shareit.server.item.service.ItemService;
+import ru.practicum.shareit.server.request.dto.ItemRequestDto;
+import ru.practicum.shareit.server.user.dto.UserDto;
+import ru.practicum.shareit.server.user.service.UserService;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Списки запросов читают вещи всех запросов страницы одним запросом: на страницу уходит
+ * ровно два SQL-запроса (запросы и их вещи), сколько бы запросов на ней ни было.
+ * Пользователь заранее попадает в кэш, чтобы проверка его существования не считалась.
+ */
+@SpringBootTest(classes = ShareItServerApp.class)
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:request_queries",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+class ItemRequestListQueryCountTest {
+    private static final int REQUESTS = 5;
+    private static final int ITEMS_PER_REQUEST = 2;
+
+    @Autowired
+    private ItemRequestService itemRequestService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long requestorId;
+    private Long singleRequestorId;
+    private Long viewerId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        String suffix = String.valueOf(System.nanoTime());
+        requestorId = createUser("requestor" + suffix);
+        singleRequestorId = createUser("single" + suffix);
+        viewerId = createUser("viewer" + suffix);
+        Long ownerId = createUser("owner" + suffix);
+
+        for (int i = 0; i < REQUESTS; i++) {
+            createRequestWithItems(requestorId, ownerId, "Request" + i);
+        }
+        createRequestWithItems(singleRequestorId, ownerId, "Single");
+    }
+
+    @Test
+    void getUserItemRequests_shouldUseTwoStatementsForAnyNumberOfRequests() {
+        assertEquals(2, countStatements(() -> itemRequestService.getUserItemRequests(singleRequestorId), 1));
+        assertEquals(2, countStatements(() -> itemRequestService.getUserItemRequests(requestorId), REQUESTS));
+    }
+
+    @Test
+    void getOtherUsersItemRequests_shouldUseTwoStatementsForAnyPageSize() {
+        assertEquals(2, countStatements(() -> itemRequestService.getOtherUsersItemRequests(viewerId, 0, 1), 1));
+        assertEquals(2, countStatements(
+                () -> itemRequestService.getOtherUsersItemRequests(viewerId, 0, REQUESTS), REQUESTS));
+    }
+
+    private long countStatements(Supplier<List<ItemRequestDto>> page, int expectedSize) {
+        page.get();
+        statistics.clear();
+        List<ItemRequestDto> requests = page.get();
+        long statements = statistics.getPrepareStatementCount();
+
+        assertEquals(expectedSize, requests.size());
+        requests.forEach(request -> assertEquals(ITEMS_PER_REQUEST, request.getItems().size()));
+        return statements;
+    }
+
+    private Long createUser(String name) {
+        Long id = userService.createUser(new UserDto(null, name, name + "@email.com")).getId();
+        userService.getUserById(id);
+        return id;
+    }
+
+    private void createRequestWithItems(Long userId, Long ownerId, String description) {
+        Long requestId = itemRequestService.createItemRequest(
+                new ItemRequestDto.ItemRequestCreateDto(description), userId).getId();
+        for (int i = 0; i < ITEMS_PER_REQUEST; i++) {
+            itemService.createItem(
+                    new ItemDto(null, description + " item" + i, "Description", true, requestId, null, null, null),
+                    ownerId);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package ru.practicum.shareit.server.user.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.server.user.dto.UserDto;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserCacheTest {
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void get_shouldReturnCopyUntilTtlExpires() {
+        UserCache cache = new UserCache(10, Duration.ofSeconds(30), now::get);
+        cache.put(new UserDto(1L, "John", "john@example.com"), cache.stamp());
+
+        UserDto first = cache.get(1L).orElseThrow();
+        first.setName("Changed");
+        assertThat(cache.get(1L)).contains(new UserDto(1L, "John", "john@example.com"));
+
+        now.addAndGet(Duration.ofSeconds(31).toNanos());
+        assertThat(cache.get(1L)).isEmpty();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void put_shouldEvictLeastRecentlyUsedEntry() {
+        UserCache cache = new UserCache(2, Duration.ofMinutes(5), now::get);
+        cache.put(new UserDto(1L, "A", "a@example.com"), cache.stamp());
+        cache.put(new UserDto(2L, "B", "b@example.com"), cache.stamp());
+        cache.get(1L);
+        cache.put(new UserDto(3L, "C", "c@example.com"), cache.stamp());
+
+        assertThat(cache.contains(1L)).isTrue();
+        assertThat(cache.contains(2L)).isFalse();
+        assertThat(cache.contains(3L)).isTrue();
+    }
+
+    @Test
+    void put_shouldIgnoreLoadStartedBeforeInvalidation() {
+        UserCache cache = new UserCache(10, Duration.ofMinutes(5), now::get);
+        long stamp = cache.stamp();
+
+        cache.invalidate(1L);
+        cache.put(new UserDto(1L, "Stale", "stale@example.com"), stamp);
+
+        assertThat(cache.get(1L)).isEmpty();
+    }
+
+    @Test
+    void metrics_shouldCountHitsMissesAndEvictions() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        UserCache cache = new UserCache(1, Duration.ofMinutes(5), registry);
+        cache.put(new UserDto(1L, "A", "a@example.com"), cache.stamp());
+        cache.get(1L);
+        cache.get(2L);
+        cache.put(new UserDto(2L, "B", "b@example.com"), cache.stamp());
+
+        assertThat(registry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.gets").tag("result", "miss").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.evictions").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("cache.size").gauge().value()).isEqualTo(1);
+    }
+}
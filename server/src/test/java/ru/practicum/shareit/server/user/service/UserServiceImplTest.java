@@ -14,6 +14,7 @@ import ru.practicum.shareit.server.user.repository.UserRepository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -25,6 +26,9 @@ class UserServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserCache userCache;
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -63,6 +67,7 @@ class UserServiceImplTest {
         assertThat(result).isNotNull();
         assertThat(result.getEmail()).isEqualTo(user.getEmail());
         verify(userRepository).save(any(User.class));
+        verifyNoInteractions(userCache);
     }
 
     @Test
@@ -117,6 +122,66 @@ class UserServiceImplTest {
         assertThat(result.getEmail()).isEqualTo(user.getEmail());
     }
 
+    @Test
+    void getUserById_shouldReturnCachedUserWithoutQuery() {
+        when(userCache.get(1L)).thenReturn(Optional.of(userDto));
+
+        UserDto result = userService.getUserById(1L);
+
+        assertThat(result).isEqualTo(userDto);
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void getUserById_shouldPopulateCacheOnMiss() {
+        when(userCache.stamp()).thenReturn(7L);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        userService.getUserById(1L);
+
+        verify(userCache).put(userDto, 7L);
+    }
+
+    @Test
+    void checkUserExists_shouldSkipQueryWhenCached() {
+        when(userCache.contains(1L)).thenReturn(true);
+
+        userService.checkUserExists(1L);
+
+        verifyNoInteractions(userRepository);
+    }
+
+    @Test
+    void checkUserExists_shouldThrowNotFound_whenUserDoesNotExist() {
+        when(userRepository.existsById(1L)).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> userService.checkUserExists(1L));
+        verify(userRepository, never()).findById(any());
+    }
+
+    @Test
+    void checkUsersExist_shouldQueryOnlyUncachedUsersOnce() {
+        when(userCache.contains(1L)).thenReturn(true);
+        when(userCache.contains(2L)).thenReturn(false);
+        when(userCache.contains(3L)).thenReturn(false);
+        when(userRepository.findExistingIds(Set.of(2L, 3L))).thenReturn(Set.of(2L, 3L));
+
+        userService.checkUsersExist(List.of(1L, 2L, 3L));
+
+        verify(userRepository).findExistingIds(Set.of(2L, 3L));
+        verify(userRepository, never()).existsById(any());
+    }
+
+    @Test
+    void checkUsersExist_shouldListMissingUsers() {
+        when(userRepository.findExistingIds(Set.of(2L, 3L, 4L))).thenReturn(Set.of(3L));
+
+        NotFoundException e = assertThrows(NotFoundException.class,
+                () -> userService.checkUsersExist(List.of(4L, 2L, 3L)));
+
+        assertThat(e.getMessage()).isEqualTo("Users not found: [2, 4]");
+    }
+
     @Test
     void getAllUsers_shouldReturnList() {
         when(userRepository.findAll()).thenReturn(List.of(user));
@@ -142,6 +207,7 @@ class UserServiceImplTest {
         userService.deleteUser(1L);
 
         verify(userRepository).deleteById(1L);
+        verify(userCache).invalidate(1L);
     }
 
     @Test